@@ -0,0 +1,141 @@
+package io.github.tiagoiwamoto.simpleapi.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controle de admissão na frente de todos os handlers. Para cada requisição, na ordem:
+ * <ol>
+ *     <li>token bucket da rota: sem token, 429 com {@code Retry-After} até o próximo token;</li>
+ *     <li>limite de concorrência adaptativo, na fração da classe de prioridade: sem vaga, 503 com
+ *     {@code Retry-After: 1}.</li>
+ * </ol>
+ * A rejeição só escreve status e cabeçalhos, sem decodificar corpo nem chegar ao controller. A latência de cada
+ * requisição admitida alimenta o limite.
+ */
+@Slf4j
+public class AdmissionFilter implements WebFilter, Ordered {
+
+    static final String ADMITTED = "http.server.admission.admitted";
+    static final String REJECTED = "http.server.admission.rejected";
+
+    record RouteAdmission(String name, PathPattern pattern, TokenBucket bucket, Priority priority, boolean adaptive) {
+    }
+
+    private static final RouteAdmission DEFAULT_ROUTE =
+            new RouteAdmission("default", null, null, Priority.NORMAL, true);
+
+    private final String priorityHeader;
+    private final List<String> excludedPaths;
+    private final List<RouteAdmission> routes;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.priorityHeader = properties.priorityHeader();
+        this.excludedPaths = properties.excludedPaths();
+        this.routes = properties.routes().stream()
+                .map(route -> new RouteAdmission(route.pattern(),
+                        PathPatternParser.defaultInstance.parse(route.pattern()),
+                        route.ratePerSecond() > 0 ? new TokenBucket(route.ratePerSecond(), route.burst()) : null,
+                        route.priority(),
+                        route.adaptive()))
+                .toList();
+        var limit = properties.limit();
+        this.limiter = new AdaptiveConcurrencyLimiter(limit.initial(), limit.min(), limit.max(), limit.tolerance());
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("http.server.admission.limit", limiter, AdaptiveConcurrencyLimiter::limit)
+                .description("Limite de concorrência adaptativo atual")
+                .register(meterRegistry);
+        Gauge.builder("http.server.admission.inflight", limiter, AdaptiveConcurrencyLimiter::inflight)
+                .description("Requisições admitidas em andamento")
+                .register(meterRegistry);
+        log.info("Controle de admissão com {} rotas, limite inicial {} ({}..{}), tolerância {}",
+                routes.size(), limit.initial(), limit.min(), limit.max(), limit.tolerance());
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        if (excluded(path.value())) {
+            return chain.filter(exchange);
+        }
+        RouteAdmission route = route(path);
+        Priority priority = route.priority()
+                .lowerOf(Priority.parse(exchange.getRequest().getHeaders().getFirst(priorityHeader)));
+
+        if (route.bucket() != null && !route.bucket().tryAcquire()) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(route.bucket().nanosUntilNextToken() + 999_999_999));
+            return reject(exchange, route, priority, HttpStatus.TOO_MANY_REQUESTS, "rate", retryAfter);
+        }
+        if (!route.adaptive()) {
+            admitted(route, priority);
+            return chain.filter(exchange);
+        }
+        if (!limiter.tryAcquire(priority)) {
+            return reject(exchange, route, priority, HttpStatus.SERVICE_UNAVAILABLE, "concurrency", 1);
+        }
+        admitted(route, priority);
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> limiter.release(System.nanoTime() - start, signal == SignalType.ON_COMPLETE));
+    }
+
+    int limit() {
+        return limiter.limit();
+    }
+
+    private boolean excluded(String path) {
+        for (String prefix : excludedPaths) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private RouteAdmission route(PathContainer path) {
+        for (RouteAdmission route : routes) {
+            if (route.pattern().matches(path)) {
+                return route;
+            }
+        }
+        return DEFAULT_ROUTE;
+    }
+
+    private void admitted(RouteAdmission route, Priority priority) {
+        meterRegistry.counter(ADMITTED, "route", route.name(), "priority", priority.name()).increment();
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, RouteAdmission route, Priority priority,
+                              HttpStatus status, String reason, long retryAfterSeconds) {
+        meterRegistry.counter(REJECTED, "route", route.name(), "priority", priority.name(), "reason", reason)
+                .increment();
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return response.setComplete();
+    }
+}
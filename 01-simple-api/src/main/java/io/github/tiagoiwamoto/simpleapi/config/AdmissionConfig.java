@@ -0,0 +1,20 @@
+package io.github.tiagoiwamoto.simpleapi.config;
+
+import io.github.tiagoiwamoto.simpleapi.admission.AdmissionFilter;
+import io.github.tiagoiwamoto.simpleapi.admission.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+    public AdmissionFilter admissionFilter(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        return new AdmissionFilter(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.tiagoiwamoto.simpleapi.config;
+
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.Zstd;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.reactor.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+/**
+ * Compressão negociada das respostas pelo {@code HttpContentCompressor} do Netty: br, zstd ou gzip conforme o
+ * {@code Accept-Encoding} e os codecs disponíveis (brotli4j e zstd-jni no classpath). Substitui o
+ * {@code server.compression} do Boot porque o predicado precisa ignorar respostas que já trazem
+ * {@code Content-Encoding}: as referências pré-comprimidas saem sem o handler de compressão no pipeline, o que
+ * mantém o envio por sendfile.
+ */
+@Configuration
+@Slf4j
+public class CompressionConfig {
+
+    @Bean
+    NettyServerCustomizer compressionCustomizer(
+            @Value("${app.compression.enabled:true}") boolean enabled,
+            @Value("${app.compression.min-response-size:2048}") long minResponseSize,
+            @Value("${app.compression.mime-types:application/json,application/x-ndjson,text/plain}") List<String> mimeTypes) {
+        if (!enabled) {
+            return server -> server;
+        }
+        List<MimeType> compressible = mimeTypes.stream().map(MimeTypeUtils::parseMimeType).toList();
+        log.info("Compressão de respostas a partir de {} bytes para {} (br={}, zstd={}, gzip=true)",
+                minResponseSize, mimeTypes, Brotli.isAvailable(), Zstd.isAvailable());
+        return server -> server.compress((request, response) ->
+                compressible(response.responseHeaders(), minResponseSize, compressible));
+    }
+
+    /**
+     * Respostas sem {@code Content-Length} (streaming NDJSON) são comprimidas sempre que o tipo permitir.
+     */
+    static boolean compressible(HttpHeaders headers, long minResponseSize, List<MimeType> compressible) {
+        if (headers.contains(HttpHeaderNames.CONTENT_ENCODING)) {
+            return false;
+        }
+        String length = headers.get(HttpHeaderNames.CONTENT_LENGTH);
+        if (length != null && Long.parseLong(length) < minResponseSize) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        MimeType type = MimeTypeUtils.parseMimeType(contentType);
+        return compressible.stream().anyMatch(mimeType -> mimeType.isCompatibleWith(type));
+    }
+}
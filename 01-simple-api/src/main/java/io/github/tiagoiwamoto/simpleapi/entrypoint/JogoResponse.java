@@ -0,0 +1,6 @@
+package io.github.tiagoiwamoto.simpleapi.entrypoint;
+
+import java.time.Instant;
+
+public record JogoResponse(long id, String nome, String plataforma, Instant atualizadoEm) {
+}
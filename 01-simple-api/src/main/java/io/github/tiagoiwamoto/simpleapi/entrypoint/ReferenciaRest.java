@@ -0,0 +1,53 @@
+package io.github.tiagoiwamoto.simpleapi.entrypoint;
+
+import io.github.tiagoiwamoto.simpleapi.referencia.ReferenciaStore;
+import io.github.tiagoiwamoto.simpleapi.referencia.ReferenciaStore.Codificacao;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * Serve as referências pré-comprimidas. O corpo é um {@link FileSystemResource}: sem TLS e em HTTP/1.1 o Netty envia
+ * o arquivo com {@code FileRegion} (sendfile), sem copiar o conteúdo para o heap. O ETag vai na resposta e o
+ * {@code If-None-Match} correspondente devolve 304 antes de abrir o arquivo.
+ */
+@RestController
+@RequestMapping(path = "/explore-endpoints/referencias")
+@RequiredArgsConstructor
+public class ReferenciaRest {
+
+    private final ReferenciaStore store;
+
+    @GetMapping("/{nome}")
+    public ResponseEntity<Resource> recuperar(@PathVariable String nome,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false)
+                                              String acceptEncoding) {
+        var referencia = store.buscar(nome)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "referência não encontrada"));
+        Codificacao codificacao = ReferenciaStore.negociar(acceptEncoding, referencia.comprimidas().keySet());
+        var variante = referencia.variante(codificacao);
+
+        var response = ResponseEntity.ok()
+                .eTag(referencia.etag())
+                .cacheControl(CacheControl.maxAge(Duration.ofHours(1)).cachePublic())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(referencia.mediaType())
+                .contentLength(variante.tamanho());
+        if (codificacao != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, codificacao.token());
+        }
+        return response.body(new FileSystemResource(variante.path()));
+    }
+}
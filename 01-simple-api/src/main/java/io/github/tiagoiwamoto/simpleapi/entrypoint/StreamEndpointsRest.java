@@ -0,0 +1,83 @@
+package io.github.tiagoiwamoto.simpleapi.entrypoint;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Endpoints de streaming (NDJSON e SSE). Os itens são gerados sob demanda com {@link Flux#generate}: o Netty só
+ * pede o próximo quando o canal aceita escrita, então um cliente lento não faz o servidor acumular a resposta.
+ */
+@RestController
+@RequestMapping(path = "/explore-endpoints/jogos")
+@Slf4j
+public class StreamEndpointsRest {
+
+    private static final List<String> PLATAFORMAS = List.of("PS5", "XBOXSERIES", "NINTENDOSWITCH", "PC");
+
+    private final int maxQuantidade;
+
+    public StreamEndpointsRest(@Value("${app.stream.max-quantidade:100000}") int maxQuantidade) {
+        this.maxQuantidade = maxQuantidade;
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<JogoResponse> listarJogos(@RequestParam(defaultValue = "100") int quantidade) {
+        return jogos(quantidade);
+    }
+
+    /**
+     * Com {@code intervaloMs} os eventos saem em ritmo fixo; se o cliente não acompanhar, os excedentes são
+     * descartados em vez de enfileirados.
+     */
+    @GetMapping(path = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<JogoResponse>> eventosJogos(@RequestParam(defaultValue = "100") int quantidade,
+                                                            @RequestParam(defaultValue = "0") long intervaloMs) {
+        Flux<JogoResponse> jogos = intervaloMs > 0
+                ? Flux.interval(Duration.ofMillis(intervaloMs))
+                        .onBackpressureDrop(id -> log.warn("Cliente lento, evento {} descartado", id))
+                        .take(validar(quantidade))
+                        .map(StreamEndpointsRest::jogo)
+                : jogos(quantidade);
+        return jogos.map(jogo -> ServerSentEvent.builder(jogo)
+                .id(Long.toString(jogo.id()))
+                .event("jogo")
+                .build());
+    }
+
+    Flux<JogoResponse> jogos(int quantidade) {
+        int limite = validar(quantidade);
+        return Flux.generate(() -> 0L, (id, sink) -> {
+            if (id < limite) {
+                sink.next(jogo(id));
+            } else {
+                sink.complete();
+            }
+            return id + 1;
+        });
+    }
+
+    private int validar(int quantidade) {
+        if (quantidade < 1 || quantidade > maxQuantidade) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "quantidade deve estar entre 1 e " + maxQuantidade);
+        }
+        return quantidade;
+    }
+
+    private static JogoResponse jogo(long id) {
+        return new JogoResponse(id, "Jogo " + id, PLATAFORMAS.get((int) (id % PLATAFORMAS.size())), Instant.now());
+    }
+}
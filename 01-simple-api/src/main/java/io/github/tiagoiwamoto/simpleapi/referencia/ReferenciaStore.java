@@ -0,0 +1,222 @@
+package io.github.tiagoiwamoto.simpleapi.referencia;
+
+import com.aayushatharva.brotli4j.encoder.BrotliOutputStream;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import com.github.luben.zstd.ZstdOutputStream;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.Zstd;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payloads estáticos de referência lidos de {@code app.referencias.dir}. Na subida cada arquivo é mapeado em memória
+ * para calcular o ETag e gerar, uma única vez, as variantes br/zstd/gzip no nível máximo em
+ * {@code app.referencias.cache-dir} (nomeadas pelo hash, então sobrevivem a restarts). Variantes que não ficam menores
+ * que o original são descartadas.
+ */
+@Component
+@Slf4j
+public class ReferenciaStore {
+
+    private static final int BLOCO = 64 * 1024;
+
+    /**
+     * Em empate de {@code q} no {@code Accept-Encoding}, vale a ordem de declaração.
+     */
+    public enum Codificacao {
+        BR("br", ".br", out -> new BrotliOutputStream(out, new Encoder.Parameters().setQuality(11))),
+        ZSTD("zstd", ".zst", out -> new ZstdOutputStream(out, 19)),
+        GZIP("gzip", ".gz", out -> new GZIPOutputStream(out, BLOCO) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        });
+
+        private final String token;
+        private final String extensao;
+        private final Compressor compressor;
+
+        Codificacao(String token, String extensao, Compressor compressor) {
+            this.token = token;
+            this.extensao = extensao;
+            this.compressor = compressor;
+        }
+
+        public String token() {
+            return token;
+        }
+    }
+
+    @FunctionalInterface
+    private interface Compressor {
+        OutputStream wrap(OutputStream out) throws IOException;
+    }
+
+    public record Variante(Path path, long tamanho) {
+    }
+
+    public record Referencia(String nome, MediaType mediaType, String etag, Variante original,
+                             Map<Codificacao, Variante> comprimidas) {
+
+        public Variante variante(Codificacao codificacao) {
+            return codificacao == null ? original : comprimidas.get(codificacao);
+        }
+    }
+
+    private final Map<String, Referencia> referencias;
+
+    public ReferenciaStore(@Value("${app.referencias.dir:referencias}") Path dir,
+                           @Value("${app.referencias.cache-dir:${java.io.tmpdir}/simple-api-referencias}") Path cacheDir)
+            throws IOException {
+        this.referencias = carregar(dir, cacheDir);
+    }
+
+    public Optional<Referencia> buscar(String nome) {
+        return Optional.ofNullable(referencias.get(nome));
+    }
+
+    /**
+     * Melhor codificação disponível aceita pelo cliente, ou {@code null} para servir o original.
+     */
+    public static Codificacao negociar(String acceptEncoding, Set<Codificacao> disponiveis) {
+        if (acceptEncoding == null || disponiveis.isEmpty()) {
+            return null;
+        }
+        Map<String, Double> pesos = new HashMap<>();
+        for (String parte : acceptEncoding.split(",")) {
+            String[] campos = parte.split(";");
+            double q = 1.0;
+            for (int i = 1; i < campos.length; i++) {
+                String parametro = campos[i].trim();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parametro.substring(2));
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            pesos.put(campos[0].trim().toLowerCase(Locale.ROOT), q);
+        }
+        double coringa = pesos.getOrDefault("*", 0.0);
+        Codificacao melhor = null;
+        double melhorPeso = 0;
+        for (Codificacao codificacao : Codificacao.values()) {
+            double q = pesos.getOrDefault(codificacao.token, coringa);
+            if (disponiveis.contains(codificacao) && q > melhorPeso) {
+                melhor = codificacao;
+                melhorPeso = q;
+            }
+        }
+        return melhor;
+    }
+
+    static Set<Codificacao> suportadas() {
+        Set<Codificacao> suportadas = EnumSet.of(Codificacao.GZIP);
+        if (Brotli.isAvailable()) {
+            suportadas.add(Codificacao.BR);
+        }
+        if (Zstd.isAvailable()) {
+            suportadas.add(Codificacao.ZSTD);
+        }
+        return suportadas;
+    }
+
+    private static Map<String, Referencia> carregar(Path dir, Path cacheDir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            log.warn("Diretório de referências {} não existe; nenhum payload estático será servido", dir.toAbsolutePath());
+            return Map.of();
+        }
+        Files.createDirectories(cacheDir);
+        Set<Codificacao> suportadas = suportadas();
+        Map<String, Referencia> referencias = new HashMap<>();
+        try (Stream<Path> arquivos = Files.list(dir)) {
+            for (Path arquivo : arquivos
+                    .filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .toList()) {
+                Referencia referencia = preparar(arquivo, cacheDir, suportadas);
+                referencias.put(referencia.nome(), referencia);
+                log.info("Referência {} ({} bytes) com variantes {}", referencia.nome(),
+                        referencia.original().tamanho(), referencia.comprimidas().keySet());
+            }
+        }
+        return Map.copyOf(referencias);
+    }
+
+    private static Referencia preparar(Path arquivo, Path cacheDir, Set<Codificacao> suportadas) throws IOException {
+        String nome = arquivo.getFileName().toString();
+        try (FileChannel channel = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            long tamanho = channel.size();
+            ByteBuffer conteudo = channel.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+            String hash = sha256(conteudo.duplicate());
+
+            Map<Codificacao, Variante> comprimidas = new EnumMap<>(Codificacao.class);
+            for (Codificacao codificacao : suportadas) {
+                Path destino = cacheDir.resolve(hash + codificacao.extensao);
+                if (!Files.exists(destino)) {
+                    comprimir(conteudo.duplicate(), destino, codificacao);
+                }
+                long tamanhoComprimido = Files.size(destino);
+                if (tamanhoComprimido < tamanho) {
+                    comprimidas.put(codificacao, new Variante(destino, tamanhoComprimido));
+                }
+            }
+            MediaType mediaType = MediaTypeFactory.getMediaType(nome).orElse(MediaType.APPLICATION_OCTET_STREAM);
+            return new Referencia(nome, mediaType, "W/\"" + hash + "\"", new Variante(arquivo, tamanho),
+                    Map.copyOf(comprimidas));
+        }
+    }
+
+    private static void comprimir(ByteBuffer conteudo, Path destino, Codificacao codificacao) throws IOException {
+        Path temporario = Files.createTempFile(destino.getParent(), destino.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream out = codificacao.compressor.wrap(Files.newOutputStream(temporario))) {
+                byte[] bloco = new byte[BLOCO];
+                while (conteudo.hasRemaining()) {
+                    int lidos = Math.min(bloco.length, conteudo.remaining());
+                    conteudo.get(bloco, 0, lidos);
+                    out.write(bloco, 0, lidos);
+                }
+            }
+            Files.move(temporario, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+
+    private static String sha256(ByteBuffer conteudo) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(conteudo);
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
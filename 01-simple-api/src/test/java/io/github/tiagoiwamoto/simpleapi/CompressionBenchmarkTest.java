@@ -0,0 +1,119 @@
+package io.github.tiagoiwamoto.simpleapi;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bytes no fio e CPU do servidor por requisição para cada {@code Accept-Encoding}: NDJSON comprimido em tempo real e
+ * a referência estática pré-comprimida (sendfile), além do caminho 304. A CPU soma as threads {@code webflux-http}
+ * do servidor; o {@link LoadGenerator} roda no seu próprio event loop e não entra na conta.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.io.github.tiagoiwamoto.simpleapi=warn", "app.admission.enabled=false"})
+@Tag("benchmark")
+class CompressionBenchmarkTest {
+
+    static final int CONCURRENCY = 32;
+    static final int REQUESTS = 2_000;
+    static final String NDJSON = "/explore-endpoints/jogos?quantidade=1000";
+    static final String REFERENCIA = "/explore-endpoints/referencias/jogos.json";
+
+    static final Path REFERENCIAS = criarReferencias();
+
+    @Value("${local.server.port}")
+    int port;
+
+    @DynamicPropertySource
+    static void referencias(DynamicPropertyRegistry registry) {
+        registry.add("app.referencias.dir", REFERENCIAS::toString);
+        registry.add("app.referencias.cache-dir", () -> REFERENCIAS.resolve(".cache").toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"identity", "gzip", "br", "zstd"})
+    void ndjson(String encoding) {
+        mede(NDJSON, MediaType.APPLICATION_NDJSON_VALUE, encoding, null);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"identity", "gzip", "br", "zstd"})
+    void referencia(String encoding) {
+        mede(REFERENCIA, MediaType.APPLICATION_JSON_VALUE, encoding, null);
+    }
+
+    @Test
+    void referenciaNaoModificada() {
+        String etag = WebClient.create("http://localhost:" + port).get().uri(REFERENCIA)
+                .retrieve().toBodilessEntity().block(Duration.ofSeconds(10))
+                .getHeaders().getETag();
+
+        mede(REFERENCIA, MediaType.APPLICATION_JSON_VALUE, "br", etag);
+    }
+
+    private void mede(String path, String accept, String encoding, String ifNoneMatch) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(HttpHeaders.ACCEPT, accept);
+        headers.put(HttpHeaders.ACCEPT_ENCODING, encoding);
+        if (ifNoneMatch != null) {
+            headers.put(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        String baseUrl = "http://localhost:" + port;
+        // Aquecimento
+        LoadGenerator.run(HttpProtocol.HTTP11, baseUrl, path, headers, CONCURRENCY, REQUESTS / 10);
+
+        long cpuInicio = serverCpuNanos();
+        var result = LoadGenerator.run(HttpProtocol.HTTP11, baseUrl, path, headers, CONCURRENCY, REQUESTS);
+        long cpuPorRequisicao = (serverCpuNanos() - cpuInicio) / REQUESTS / 1_000;
+
+        assertThat(result.errors()).isZero();
+        System.out.println(String.format(Locale.ROOT, "| %s | %s | %s | %d | %d | %.0f | %d |",
+                path, encoding, ifNoneMatch != null ? "304" : "200", result.bytes() / REQUESTS,
+                cpuPorRequisicao, result.throughput(), result.p99Micros()));
+    }
+
+    private static long serverCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("webflux-http"))
+                .mapToLong(thread -> Math.max(0, threads.getThreadCpuTime(thread.threadId())))
+                .sum();
+    }
+
+    private static Path criarReferencias() {
+        try {
+            Path dir = Files.createTempDirectory("referencias");
+            String jogos = IntStream.range(0, 5_000)
+                    .mapToObj(id -> "{\"id\":" + id + ",\"nome\":\"Jogo " + id + "\",\"plataforma\":\"PS5\"}")
+                    .collect(Collectors.joining(",", "[", "]"));
+            Files.writeString(dir.resolve("jogos.json"), jogos);
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
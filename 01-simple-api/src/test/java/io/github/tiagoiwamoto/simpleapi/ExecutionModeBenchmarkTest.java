@@ -0,0 +1,174 @@
+package io.github.tiagoiwamoto.simpleapi;
+
+import io.github.tiagoiwamoto.simpleapi.config.BlockingEndpoint;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara os modos de {@code app.execution.mode} com carga mista: um endpoint CPU-bound (sempre no event loop) e um
+ * {@link BlockingEndpoint} que dorme como uma chamada JDBC. Imprime throughput, p99 e threads de plataforma
+ * (vivas e pico; virtual threads não entram na contagem da JVM) no formato da tabela do readme. Só a verificação
+ * de onde cada modo executa roda no build padrão; a medição é {@code benchmark}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.io.github.tiagoiwamoto.simpleapi=warn", "app.admission.enabled=false"})
+@Import(ExecutionModeBenchmarkTest.CargaRest.class)
+class ExecutionModeBenchmarkTest {
+
+    static final int CONCURRENCY = 32;
+    static final int CPU_REQUESTS = 5_000;
+    static final int BLOCKING_REQUESTS = 1_000;
+    static final long BLOCKING_MILLIS = 20;
+
+    @RestController
+    @RequestMapping("/carga")
+    static class CargaRest {
+
+        @GetMapping("/cpu")
+        String cpu() throws Exception {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = "carga".getBytes(StandardCharsets.UTF_8);
+            for (int i = 0; i < 2_000; i++) {
+                hash = digest.digest(hash);
+            }
+            return Integer.toHexString(hash[0]);
+        }
+
+        @BlockingEndpoint
+        @GetMapping("/bloqueante")
+        String bloqueante() throws InterruptedException {
+            Thread.sleep(BLOCKING_MILLIS);
+            return thread();
+        }
+
+        @BlockingEndpoint
+        @GetMapping("/bloqueante-mono")
+        Mono<String> bloqueanteMono() {
+            return Mono.fromCallable(() -> {
+                Thread.sleep(BLOCKING_MILLIS);
+                return thread();
+            });
+        }
+
+        private static String thread() {
+            Thread current = Thread.currentThread();
+            return (current.isVirtual() ? "virtual:" : "platform:") + current.getName();
+        }
+    }
+
+    abstract static class Scenario {
+
+        @Value("${local.server.port}")
+        int port;
+
+        abstract String mode();
+
+        abstract String expectedThread();
+
+        @Test
+        void desviaEndpointsAnotados() {
+            WebClient client = WebClient.create("http://localhost:" + port);
+
+            for (String path : new String[]{"/carga/bloqueante", "/carga/bloqueante-mono"}) {
+                String thread = client.get().uri(path).retrieve().bodyToMono(String.class).block(Duration.ofSeconds(10));
+                assertThat(thread).as(path).startsWith(expectedThread());
+            }
+        }
+
+        @Test
+        @Tag("benchmark")
+        void mede() throws Exception {
+            String baseUrl = "http://localhost:" + port;
+            // Aquecimento
+            carga(baseUrl, CPU_REQUESTS / 10, BLOCKING_REQUESTS / 10);
+
+            ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+            threads.resetPeakThreadCount();
+            LoadGenerator.Result[] results = carga(baseUrl, CPU_REQUESTS, BLOCKING_REQUESTS);
+            int live = threads.getThreadCount();
+            int peak = threads.getPeakThreadCount();
+
+            for (LoadGenerator.Result result : results) {
+                assertThat(result.errors()).isZero();
+                System.out.println(String.format(Locale.ROOT, "| %s | %s | %d | %.0f | %d | %d | %d | %d |",
+                        mode(), result.path(), result.requests(), result.throughput(),
+                        result.p50Micros(), result.p99Micros(), live, peak));
+            }
+        }
+
+        private LoadGenerator.Result[] carga(String baseUrl, int cpuRequests, int blockingRequests) throws Exception {
+            try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                var cpu = CompletableFuture.supplyAsync(() -> LoadGenerator.run(HttpProtocol.HTTP11, baseUrl,
+                        "/carga/cpu", MediaType.TEXT_PLAIN_VALUE, CONCURRENCY, cpuRequests), executor);
+                var blocking = CompletableFuture.supplyAsync(() -> LoadGenerator.run(HttpProtocol.HTTP11, baseUrl,
+                        "/carga/bloqueante", MediaType.TEXT_PLAIN_VALUE, CONCURRENCY, blockingRequests), executor);
+                return new LoadGenerator.Result[]{cpu.get(), blocking.get()};
+            }
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "app.execution.mode=event-loop")
+    class EventLoop extends Scenario {
+        @Override
+        String mode() {
+            return "event-loop";
+        }
+
+        @Override
+        String expectedThread() {
+            return "platform:webflux-http";
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "app.execution.mode=virtual-threads")
+    class VirtualThreads extends Scenario {
+        @Override
+        String mode() {
+            return "virtual-threads";
+        }
+
+        @Override
+        String expectedThread() {
+            return "virtual:blocking-vt-";
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = "app.execution.mode=bounded-elastic")
+    class BoundedElastic extends Scenario {
+        @Override
+        String mode() {
+            return "bounded-elastic";
+        }
+
+        @Override
+        String expectedThread() {
+            return "platform:blocking-elastic";
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package io.github.tiagoiwamoto.simpleapi;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import reactor.netty.http.HttpProtocol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Baseline de throughput e latência do Netty em HTTP/1.1 e h2c; imprime linhas no formato da tabela do readme.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.io.github.tiagoiwamoto.simpleapi=warn", "app.admission.enabled=false"})
+@Tag("benchmark")
+class LoadBenchmarkTest {
+
+    static final int CONCURRENCY = 64;
+    static final int REQUESTS = 20_000;
+
+    @Value("${local.server.port}")
+    int port;
+
+    @ParameterizedTest
+    @EnumSource(value = HttpProtocol.class, names = {"HTTP11", "H2C"})
+    void unario(HttpProtocol protocol) {
+        mede(protocol, "/explore-endpoints", MediaType.TEXT_PLAIN_VALUE, REQUESTS);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = HttpProtocol.class, names = {"HTTP11", "H2C"})
+    void ndjson(HttpProtocol protocol) {
+        mede(protocol, "/explore-endpoints/jogos?quantidade=100", MediaType.APPLICATION_NDJSON_VALUE, REQUESTS / 10);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = HttpProtocol.class, names = {"HTTP11", "H2C"})
+    void sse(HttpProtocol protocol) {
+        mede(protocol, "/explore-endpoints/jogos/eventos?quantidade=100", MediaType.TEXT_EVENT_STREAM_VALUE, REQUESTS / 10);
+    }
+
+    private void mede(HttpProtocol protocol, String path, String accept, int requests) {
+        // Aquecimento
+        LoadGenerator.run(protocol, "http://localhost:" + port, path, accept, CONCURRENCY, requests / 10);
+
+        var result = LoadGenerator.run(protocol, "http://localhost:" + port, path, accept, CONCURRENCY, requests);
+
+        assertThat(result.errors()).isZero();
+        System.out.println(result.toMarkdownRow());
+    }
+}
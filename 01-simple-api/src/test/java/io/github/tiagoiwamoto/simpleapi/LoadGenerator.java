@@ -0,0 +1,142 @@
+package io.github.tiagoiwamoto.simpleapi;
+
+import reactor.core.publisher.Flux;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Gerador de carga em Reactor Netty: dispara {@code requests} GETs com no máximo {@code concurrency} em voo e
+ * mede latência por requisição (até o fim do corpo) e throughput. HTTP/1.1 usa uma conexão por requisição em voo;
+ * h2c (prior knowledge) multiplexa as requisições nas conexões abertas. O cliente roda num event loop próprio para
+ * não disputar (nem ser bloqueado por) as threads {@code webflux-http} do servidor no mesmo processo. Os percentis
+ * consideram só as respostas de sucesso, para que rejeições rápidas (429/503) não mascarem a latência de quem foi
+ * atendido.
+ */
+public final class LoadGenerator {
+
+    public record Result(HttpProtocol protocol, String path, int requests, long errors, long bytes,
+                         double seconds, long p50Micros, long p99Micros, long maxMicros) {
+
+        public double throughput() {
+            return requests / seconds;
+        }
+
+        public double successThroughput() {
+            return (requests - errors) / seconds;
+        }
+
+        /**
+         * Linha de tabela Markdown, no formato da baseline do readme.
+         */
+        public String toMarkdownRow() {
+            return String.format(Locale.ROOT, "| %s | %s | %d | %.0f | %d | %d | %d | %d |",
+                    protocol, path, requests, throughput(), p50Micros, p99Micros, maxMicros, errors);
+        }
+    }
+
+    private LoadGenerator() {
+    }
+
+    public static Result run(HttpProtocol protocol, String baseUrl, String path, String accept,
+                             int concurrency, int requests) {
+        return run(protocol, baseUrl, path, Map.of("Accept", accept), concurrency, requests);
+    }
+
+    /**
+     * {@code bytes} soma os corpos como chegam do servidor: o cliente não descomprime, então com
+     * {@code Accept-Encoding} é o tamanho comprimido.
+     */
+    public static Result run(HttpProtocol protocol, String baseUrl, String path, Map<String, String> headers,
+                             int concurrency, int requests) {
+        return execute(protocol, baseUrl, path, headers, Flux.range(0, requests), concurrency, concurrency, requests);
+    }
+
+    /**
+     * Carga em malha aberta: {@code ratePerSecond} chegadas por segundo (em lotes a cada 10 ms) independentemente de
+     * quantas ainda estão em voo, como tráfego real. Se o servidor não acompanhar, a fila cresce e aparece na latência.
+     */
+    public static Result runAtRate(HttpProtocol protocol, String baseUrl, String path, Map<String, String> headers,
+                                   int ratePerSecond, int requests, int maxConnections) {
+        // Chegadas acumuladas até cada tick, para taxas que não são múltiplas de 100 não serem truncadas
+        Flux<Integer> arrivals = Flux.interval(Duration.ofMillis(10))
+                .onBackpressureBuffer()
+                .concatMap(tick -> {
+                    int from = (int) (tick * ratePerSecond / 100);
+                    int to = (int) ((tick + 1) * ratePerSecond / 100);
+                    return Flux.range(from, to - from);
+                })
+                .take(requests);
+        return execute(protocol, baseUrl, path, headers, arrivals, Integer.MAX_VALUE, maxConnections, requests);
+    }
+
+    private static Result execute(HttpProtocol protocol, String baseUrl, String path, Map<String, String> headers,
+                                  Flux<Integer> arrivals, int concurrency, int maxConnections, int requests) {
+        ConnectionProvider provider = ConnectionProvider.builder("load-" + protocol)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        LoopResources loop = LoopResources.create("load-" + protocol,
+                Math.max(2, Runtime.getRuntime().availableProcessors() / 2), true);
+        try {
+            HttpClient client = HttpClient.create(provider)
+                    .runOn(loop)
+                    .protocol(protocol)
+                    .baseUrl(baseUrl)
+                    .headers(requestHeaders -> headers.forEach(requestHeaders::set));
+            long[] latencies = new long[requests];
+            boolean[] failed = new boolean[requests];
+            AtomicLong errors = new AtomicLong();
+            AtomicLong bytes = new AtomicLong();
+
+            long start = System.nanoTime();
+            arrivals
+                    .flatMap(i -> {
+                        long requestStart = System.nanoTime();
+                        return client.get().uri(path)
+                                .response((response, content) -> {
+                                    if (response.status().code() >= 400) {
+                                        errors.incrementAndGet();
+                                        failed[i] = true;
+                                    }
+                                    return content.asByteArray().map(chunk -> chunk.length).reduce(0, Integer::sum);
+                                })
+                                .doOnNext(bytes::addAndGet)
+                                .doOnComplete(() -> latencies[i] = System.nanoTime() - requestStart)
+                                .onErrorResume(e -> {
+                                    errors.incrementAndGet();
+                                    failed[i] = true;
+                                    return Flux.empty();
+                                });
+                    }, concurrency)
+                    .blockLast(Duration.ofMinutes(5));
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            long[] succeeded = IntStream.range(0, requests)
+                    .filter(i -> !failed[i])
+                    .mapToLong(i -> latencies[i])
+                    .sorted()
+                    .toArray();
+            return new Result(protocol, path, requests, errors.get(), bytes.get(), seconds,
+                    percentile(succeeded, 0.50), percentile(succeeded, 0.99),
+                    succeeded.length == 0 ? 0 : succeeded[succeeded.length - 1] / 1_000);
+        } finally {
+            provider.disposeLater().block(Duration.ofSeconds(10));
+            loop.disposeLater().block(Duration.ofSeconds(10));
+        }
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1] / 1_000;
+    }
+}
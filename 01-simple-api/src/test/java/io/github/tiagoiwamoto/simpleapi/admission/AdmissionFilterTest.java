@@ -0,0 +1,140 @@
+package io.github.tiagoiwamoto.simpleapi.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger handled = new AtomicInteger();
+
+    private final WebFilterChain completa = exchange -> {
+        handled.incrementAndGet();
+        return Mono.empty();
+    };
+    private final WebFilterChain pendurada = exchange -> {
+        handled.incrementAndGet();
+        return Mono.never();
+    };
+
+    static AdmissionProperties properties(int limit, AdmissionProperties.Route... routes) {
+        return new AdmissionProperties("X-Priority", List.of("/actuator"),
+                new AdmissionProperties.Limit(limit, 1, limit, 1.5), List.of(routes));
+    }
+
+    static MockServerWebExchange get(String path, String priority) {
+        var request = MockServerHttpRequest.get(path);
+        if (priority != null) {
+            request.header("X-Priority", priority);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    @Test
+    void tokenBucketRejeitaCom429SemChamarHandler() {
+        var filter = new AdmissionFilter(properties(100,
+                new AdmissionProperties.Route("/limitado/**", 1, 2, Priority.NORMAL, true)), meterRegistry);
+
+        for (int i = 0; i < 2; i++) {
+            var exchange = get("/limitado/x", null);
+            filter.filter(exchange, completa).block(Duration.ofSeconds(1));
+            assertThat(exchange.getResponse().getStatusCode()).isNull();
+        }
+        var rejeitada = get("/limitado/x", null);
+        filter.filter(rejeitada, completa).block(Duration.ofSeconds(1));
+
+        assertThat(rejeitada.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejeitada.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(handled).hasValue(2);
+        assertThat(meterRegistry.get(AdmissionFilter.REJECTED).tag("reason", "rate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void prioridadeBaixaPerdeVagaAntes() {
+        var filter = new AdmissionFilter(properties(10), meterRegistry);
+
+        // SHEDDABLE usa até 50% do limite
+        for (int i = 0; i < 5; i++) {
+            filter.filter(get("/qualquer", "sheddable"), pendurada).subscribe();
+        }
+        var descartavel = get("/qualquer", "sheddable");
+        filter.filter(descartavel, pendurada).subscribe();
+        var normal = get("/qualquer", null);
+        filter.filter(normal, pendurada).subscribe();
+
+        assertThat(descartavel.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(normal.getResponse().getStatusCode()).isNull();
+        assertThat(handled).hasValue(6);
+        assertThat(meterRegistry.get("http.server.admission.inflight").gauge().value()).isEqualTo(6);
+    }
+
+    @Test
+    void cabecalhoSoRebaixaPrioridade() {
+        assertThat(Priority.NORMAL.lowerOf(Priority.CRITICAL)).isEqualTo(Priority.NORMAL);
+        assertThat(Priority.CRITICAL.lowerOf(Priority.SHEDDABLE)).isEqualTo(Priority.SHEDDABLE);
+        assertThat(Priority.CRITICAL.lowerOf(Priority.parse("desconhecida"))).isEqualTo(Priority.CRITICAL);
+    }
+
+    @Test
+    void caminhosExcluidosNaoPassamPeloControle() {
+        var filter = new AdmissionFilter(properties(1), meterRegistry);
+        filter.filter(get("/ocupa", "critical"), pendurada).subscribe();
+
+        var actuator = get("/actuator/health", null);
+        filter.filter(actuator, completa).block(Duration.ofSeconds(1));
+
+        assertThat(actuator.getResponse().getStatusCode()).isNull();
+        assertThat(handled).hasValue(2);
+    }
+
+    @Test
+    void limiteCresceComLatenciaEstavelEEncolheQuandoElaSobe() {
+        var limiter = new AdaptiveConcurrencyLimiter(20, 4, 200, 1.5);
+
+        amostras(limiter, 500, TimeUnit.MILLISECONDS.toNanos(10));
+        int aposEstavel = limiter.limit();
+        amostras(limiter, 50, TimeUnit.MILLISECONDS.toNanos(40));
+
+        assertThat(aposEstavel).isGreaterThan(20);
+        assertThat(limiter.limit()).isLessThan(aposEstavel);
+    }
+
+    @Test
+    void tokenBucketRepoeNoRitmoConfigurado() {
+        AtomicLong agora = new AtomicLong();
+        var bucket = new TokenBucket(10, 1, agora::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.nanosUntilNextToken()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        agora.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(bucket.tryAcquire()).isTrue();
+    }
+
+    private static void amostras(AdaptiveConcurrencyLimiter limiter, int quantidade, long rttNanos) {
+        for (int i = 0; i < quantidade; i++) {
+            // Mantém o limite em uso para que o crescimento seja permitido
+            int ocupadas = 0;
+            while (limiter.tryAcquire(Priority.CRITICAL)) {
+                ocupadas++;
+            }
+            for (int j = 0; j < ocupadas; j++) {
+                limiter.release(rttNanos, j == 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package io.github.tiagoiwamoto.simpleapi.entrypoint;
+
+import io.github.tiagoiwamoto.simpleapi.referencia.ReferenciaStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+class ReferenciaRestTest {
+
+    @TempDir
+    Path dir;
+    @TempDir
+    Path cacheDir;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.writeString(dir.resolve("jogos.json"), "[" + "{\"nome\":\"Jogo\"},".repeat(1_000) + "{}]");
+        client = WebTestClient.bindToController(new ReferenciaRest(new ReferenciaStore(dir, cacheDir))).build();
+    }
+
+    @Test
+    void serveVarianteNegociada() {
+        client.get().uri("/explore-endpoints/referencias/jogos.json")
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .expectHeader().valueEquals(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .expectHeader().exists(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void ifNoneMatchDevolve304() {
+        String etag = client.get().uri("/explore-endpoints/referencias/jogos.json")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING)
+                .returnResult(byte[].class)
+                .getResponseHeaders().getETag();
+
+        client.get().uri("/explore-endpoints/referencias/jogos.json")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void referenciaInexistenteDevolve404() {
+        client.get().uri("/explore-endpoints/referencias/nao-existe.json")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.tiagoiwamoto.simpleapi.entrypoint;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamEndpointsRestTest {
+
+    private final StreamEndpointsRest rest = new StreamEndpointsRest(1_000);
+    private final WebTestClient client = WebTestClient.bindToController(rest).build();
+
+    @Test
+    void ndjsonDevolveUmJogoPorLinha() {
+        var jogos = client.get().uri("/explore-endpoints/jogos?quantidade=5")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(JogoResponse.class)
+                .getResponseBody();
+
+        StepVerifier.create(jogos)
+                .expectNextMatches(jogo -> jogo.id() == 0 && jogo.plataforma().equals("PS5"))
+                .expectNextCount(4)
+                .verifyComplete();
+    }
+
+    @Test
+    void sseUsaIdDoJogo() {
+        var body = client.get().uri("/explore-endpoints/jogos/eventos?quantidade=2")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseBody();
+
+        StepVerifier.create(body.collectList())
+                .assertNext(linhas -> assertThat(String.join("\n", linhas)).contains("\"id\":1"))
+                .verifyComplete();
+    }
+
+    @Test
+    void quantidadeAcimaDoLimiteDevolve400() {
+        client.get().uri("/explore-endpoints/jogos?quantidade=1001")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void geraApenasODemandado() {
+        StepVerifier.create(rest.jogos(1_000), 10)
+                .expectNextCount(10)
+                .expectNoEvent(Duration.ofMillis(100))
+                .thenRequest(5)
+                .expectNextCount(5)
+                .thenCancel()
+                .verify();
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.tiagoiwamoto.simpleapi.referencia;
+
+import io.github.tiagoiwamoto.simpleapi.referencia.ReferenciaStore.Codificacao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.MediaType;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReferenciaStoreTest {
+
+    static final Set<Codificacao> TODAS = EnumSet.allOf(Codificacao.class);
+
+    @TempDir
+    Path dir;
+    @TempDir
+    Path cacheDir;
+
+    static String jogosJson(int quantidade) {
+        return IntStream.range(0, quantidade)
+                .mapToObj(id -> "{\"id\":" + id + ",\"nome\":\"Jogo " + id + "\",\"plataforma\":\"PS5\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    @Test
+    void geraVariantesMenoresQueOOriginal() throws Exception {
+        byte[] original = jogosJson(2_000).getBytes(StandardCharsets.UTF_8);
+        Files.write(dir.resolve("jogos.json"), original);
+
+        var referencia = new ReferenciaStore(dir, cacheDir).buscar("jogos.json").orElseThrow();
+
+        assertThat(referencia.mediaType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(referencia.etag()).startsWith("W/\"");
+        assertThat(referencia.comprimidas()).containsKey(Codificacao.GZIP);
+        assertThat(referencia.comprimidas().values()).allMatch(variante -> variante.tamanho() < original.length);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(referencia.variante(Codificacao.GZIP).path()))) {
+            assertThat(in.readAllBytes()).isEqualTo(original);
+        }
+    }
+
+    @Test
+    void reaproveitaVariantesNoRestart() throws Exception {
+        Files.writeString(dir.resolve("jogos.json"), jogosJson(500));
+        var primeira = new ReferenciaStore(dir, cacheDir).buscar("jogos.json").orElseThrow();
+        long modificado = Files.getLastModifiedTime(primeira.variante(Codificacao.GZIP).path()).toMillis();
+
+        var segunda = new ReferenciaStore(dir, cacheDir).buscar("jogos.json").orElseThrow();
+
+        assertThat(segunda.etag()).isEqualTo(primeira.etag());
+        assertThat(Files.getLastModifiedTime(segunda.variante(Codificacao.GZIP).path()).toMillis()).isEqualTo(modificado);
+    }
+
+    @Test
+    void descartaVarianteMaiorQueOOriginal() throws Exception {
+        Files.writeString(dir.resolve("curto.txt"), "ok");
+
+        var referencia = new ReferenciaStore(dir, cacheDir).buscar("curto.txt").orElseThrow();
+
+        assertThat(referencia.comprimidas()).isEmpty();
+    }
+
+    @Test
+    void negociaPorPesoEPreferencia() {
+        assertThat(ReferenciaStore.negociar("gzip, deflate, br, zstd", TODAS)).isEqualTo(Codificacao.BR);
+        assertThat(ReferenciaStore.negociar("gzip;q=1.0, br;q=0.5", TODAS)).isEqualTo(Codificacao.GZIP);
+        assertThat(ReferenciaStore.negociar("br;q=0, *;q=0.1", TODAS)).isEqualTo(Codificacao.ZSTD);
+        assertThat(ReferenciaStore.negociar("br", EnumSet.of(Codificacao.GZIP))).isNull();
+        assertThat(ReferenciaStore.negociar("identity", TODAS)).isNull();
+        assertThat(ReferenciaStore.negociar(null, TODAS)).isNull();
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.tiagoiwamoto.springjpa.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concorrência guiado pela latência, no estilo gradient: compara a latência recente (média curta) com a
+ * linha de base, a menor latência da janela anterior de {@value #BASELINE_WINDOW} amostras (a latência sem fila).
+ * Enquanto a recente fica abaixo de {@code tolerance} vezes a base, o limite cresce em raiz do limite por amostra;
+ * acima disso ele encolhe na proporção do gradiente. A fila que se formaria no servidor vira rejeição imediata na
+ * entrada.
+ * <p>
+ * A base não pode ser uma média: sob sobrecarga sustentada ela acompanharia a fila e o limite nunca encolheria.
+ * Com o limite segurando a fila, o mínimo de cada janela continua perto do tempo de serviço; se o serviço ficar
+ * mais lento de vez, a base sobe na janela seguinte.
+ */
+final class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_ALPHA = 0.1;
+    private static final double SMOOTHING = 0.2;
+    static final int BASELINE_WINDOW = 500;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile int limit;
+
+    // Protegidos por this
+    private double estimatedLimit;
+    private double shortRtt;
+    private long baselineRtt;
+    private long windowMinRtt = Long.MAX_VALUE;
+    private int windowSamples;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double tolerance) {
+        if (minLimit < 1 || minLimit > maxLimit || tolerance < 1) {
+            throw new IllegalArgumentException("exige 1 <= min <= max e tolerance >= 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.share()));
+        while (true) {
+            int current = inflight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @param sample {@code false} para respostas com erro ou canceladas, que não dizem nada sobre a capacidade
+     */
+    void release(long rttNanos, boolean sample) {
+        int inflightAtRelease = inflight.getAndDecrement();
+        if (sample) {
+            update(rttNanos, inflightAtRelease);
+        }
+    }
+
+    int limit() {
+        return limit;
+    }
+
+    int inflight() {
+        return inflight.get();
+    }
+
+    private synchronized void update(long rttNanos, int inflightAtRelease) {
+        shortRtt = shortRtt == 0 ? rttNanos : shortRtt + SHORT_ALPHA * (rttNanos - shortRtt);
+        windowMinRtt = Math.min(windowMinRtt, rttNanos);
+        baselineRtt = baselineRtt == 0 ? rttNanos : Math.min(baselineRtt, rttNanos);
+        if (++windowSamples >= BASELINE_WINDOW) {
+            baselineRtt = windowMinRtt;
+            windowMinRtt = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+
+        double gradient = Math.clamp(tolerance * baselineRtt / shortRtt, 0.5, 1.0);
+        double candidate = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        // Sem uso de ao menos metade do limite, a latência baixa não prova que cabe mais
+        if (candidate > estimatedLimit && inflightAtRelease < estimatedLimit / 2) {
+            return;
+        }
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - SMOOTHING) + candidate * SMOOTHING, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
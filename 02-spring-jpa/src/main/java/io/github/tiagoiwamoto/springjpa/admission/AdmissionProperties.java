@@ -0,0 +1,44 @@
+package io.github.tiagoiwamoto.springjpa.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Configuração do {@link AdmissionFilter} ({@code app.admission.*}). Rotas são avaliadas na ordem declarada e a
+ * primeira que casar vale; requisições sem rota usam prioridade NORMAL, sem token bucket e com limite adaptativo.
+ */
+@ConfigurationProperties("app.admission")
+public record AdmissionProperties(
+        @DefaultValue("X-Priority") String priorityHeader,
+        @DefaultValue("/actuator") List<String> excludedPaths,
+        @DefaultValue Limit limit,
+        @DefaultValue List<Route> routes) {
+
+    /**
+     * Limite de concorrência compartilhado por todas as rotas adaptativas.
+     *
+     * @param tolerance quanto a latência recente pode passar da linha de base antes de o limite encolher
+     */
+    public record Limit(
+            @DefaultValue("20") int initial,
+            @DefaultValue("4") int min,
+            @DefaultValue("1000") int max,
+            @DefaultValue("1.5") double tolerance) {
+    }
+
+    /**
+     * @param pattern       padrão de caminho do Spring ({@code /explore-endpoints/jogos/**})
+     * @param ratePerSecond requisições por segundo do token bucket; 0 desliga o bucket
+     * @param burst         rajada máxima do token bucket
+     * @param adaptive      {@code false} para streams longos, cuja duração não mede capacidade
+     */
+    public record Route(
+            String pattern,
+            @DefaultValue("0") double ratePerSecond,
+            @DefaultValue("1") int burst,
+            @DefaultValue("NORMAL") Priority priority,
+            @DefaultValue("true") boolean adaptive) {
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.tiagoiwamoto.springjpa.admission;
+
+import java.util.Locale;
+
+/**
+ * Classes de prioridade. Cada uma só ocupa uma fração do limite de concorrência, então sob sobrecarga o tráfego
+ * descartável é rejeitado antes do normal, e o normal antes do crítico.
+ */
+public enum Priority {
+
+    CRITICAL(1.0),
+    NORMAL(0.9),
+    SHEDDABLE(0.5);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    public double share() {
+        return share;
+    }
+
+    /**
+     * O cabeçalho do cliente só pode rebaixar a prioridade da rota, nunca elevá-la.
+     */
+    public Priority lowerOf(Priority other) {
+        return other == null || other.ordinal() <= ordinal() ? this : other;
+    }
+
+    public static Priority parse(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
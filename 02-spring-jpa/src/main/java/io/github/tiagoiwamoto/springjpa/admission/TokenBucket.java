@@ -0,0 +1,48 @@
+package io.github.tiagoiwamoto.springjpa.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket sem lock no formato GCRA: guarda só o instante teórico da próxima chegada. Aceita rajadas de até
+ * {@code burst} requisições e repõe {@code ratePerSecond} tokens por segundo.
+ */
+final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this(ratePerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double ratePerSecond, int burst, LongSupplier nanoClock) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("ratePerSecond deve ser positivo e burst >= 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / ratePerSecond);
+        this.toleranceNanos = (burst - 1) * intervalNanos;
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    boolean tryAcquire() {
+        long now = nanoClock.getAsLong();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long start = Math.max(current, now);
+            if (start - now > toleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, start + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    long nanosUntilNextToken() {
+        return Math.max(0, theoreticalArrival.get() - toleranceNanos - nanoClock.getAsLong());
+    }
+}
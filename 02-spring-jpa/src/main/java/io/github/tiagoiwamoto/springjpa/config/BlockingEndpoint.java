@@ -0,0 +1,18 @@
+package io.github.tiagoiwamoto.springjpa.config;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um endpoint (ou um controller inteiro) que faz I/O bloqueante. Fora do modo {@code event-loop}, a invocação
+ * e a assinatura do retorno são desviadas para o scheduler de {@code app.execution.mode}; veja
+ * {@link ExecutionModeConfig}.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface BlockingEndpoint {
+}
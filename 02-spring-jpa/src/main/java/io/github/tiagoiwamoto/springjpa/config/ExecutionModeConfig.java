@@ -0,0 +1,72 @@
+package io.github.tiagoiwamoto.springjpa.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Define onde rodam os endpoints anotados com {@link BlockingEndpoint} ({@code app.execution.mode}):
+ * <ul>
+ *     <li>{@code event-loop}: no próprio event loop do Netty, nada é desviado;</li>
+ *     <li>{@code virtual-threads}: uma virtual thread por requisição;</li>
+ *     <li>{@code bounded-elastic}: um bounded elastic dedicado do Reactor, com threads de plataforma (até 10 por
+ *     núcleo, com fila). O {@code Schedulers.boundedElastic()} global não serve: com
+ *     {@code spring.threads.virtual.enabled=true} ele roda em virtual threads.</li>
+ * </ul>
+ * Endpoints sem a anotação rodam sempre no event loop. Roda depois da configuração do Boot, que com
+ * {@code spring.threads.virtual.enabled=true} desviaria todo endpoint de retorno não reativo.
+ */
+@Configuration
+@Order(Ordered.LOWEST_PRECEDENCE)
+@Slf4j
+public class ExecutionModeConfig implements WebFluxConfigurer, DisposableBean {
+
+    public enum ExecutionMode {
+        EVENT_LOOP, VIRTUAL_THREADS, BOUNDED_ELASTIC
+    }
+
+    private final ExecutionMode mode;
+    private Scheduler boundedElastic;
+
+    public ExecutionModeConfig(@Value("${app.execution.mode:virtual-threads}") ExecutionMode mode) {
+        this.mode = mode;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        configurer.setControllerMethodPredicate(handlerMethod -> mode != ExecutionMode.EVENT_LOOP && isBlocking(handlerMethod));
+        switch (mode) {
+            case VIRTUAL_THREADS -> configurer.setExecutor(new VirtualThreadTaskExecutor("blocking-vt-"));
+            case BOUNDED_ELASTIC -> {
+                boundedElastic = Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                        Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "blocking-elastic");
+                configurer.setExecutor(new TaskExecutorAdapter(task -> boundedElastic.schedule(task)));
+            }
+            case EVENT_LOOP -> {
+            }
+        }
+        log.info("Endpoints @BlockingEndpoint executando em modo {}", mode);
+    }
+
+    @Override
+    public void destroy() {
+        if (boundedElastic != null) {
+            boundedElastic.dispose();
+        }
+    }
+
+    static boolean isBlocking(HandlerMethod handlerMethod) {
+        return handlerMethod.hasMethodAnnotation(BlockingEndpoint.class)
+                || handlerMethod.getBeanType().isAnnotationPresent(BlockingEndpoint.class);
+    }
+}
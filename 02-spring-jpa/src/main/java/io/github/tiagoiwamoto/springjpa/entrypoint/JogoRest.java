@@ -0,0 +1,37 @@
+package io.github.tiagoiwamoto.springjpa.entrypoint;
+
+import io.github.tiagoiwamoto.springjpa.config.BlockingEndpoint;
+import io.github.tiagoiwamoto.springjpa.entity.Jogo;
+import io.github.tiagoiwamoto.springjpa.repository.JogoRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Consultas JPA (JDBC bloqueante) expostas no WebFlux; rodam fora do event loop conforme {@code app.execution.mode}.
+ */
+@RestController
+@RequestMapping(path = "/jogos")
+@RequiredArgsConstructor
+@BlockingEndpoint
+public class JogoRest {
+
+    private final JogoRepository repository;
+
+    @GetMapping
+    public List<Jogo> listar() {
+        return repository.findAll();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Jogo> recuperar(@PathVariable Long id) {
+        return repository.findById(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,95 @@
+package io.github.tiagoiwamoto.springjpa.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Smoke test do controle de admissão deste módulo: rejeição por taxa (429), descarte por prioridade (503) e
+ * caminhos excluídos.
+ */
+class AdmissionFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger handled = new AtomicInteger();
+
+    private final WebFilterChain completa = exchange -> {
+        handled.incrementAndGet();
+        return Mono.empty();
+    };
+    private final WebFilterChain pendurada = exchange -> {
+        handled.incrementAndGet();
+        return Mono.never();
+    };
+
+    static AdmissionProperties properties(int limit, AdmissionProperties.Route... routes) {
+        return new AdmissionProperties("X-Priority", List.of("/actuator"),
+                new AdmissionProperties.Limit(limit, 1, limit, 1.5), List.of(routes));
+    }
+
+    static MockServerWebExchange get(String path, String priority) {
+        var request = MockServerHttpRequest.get(path);
+        if (priority != null) {
+            request.header("X-Priority", priority);
+        }
+        return MockServerWebExchange.from(request);
+    }
+
+    @Test
+    void tokenBucketRejeitaCom429SemChamarHandler() {
+        var filter = new AdmissionFilter(properties(100,
+                new AdmissionProperties.Route("/users/**", 1, 1, Priority.NORMAL, true)), meterRegistry);
+
+        var aceita = get("/users/1", null);
+        filter.filter(aceita, completa).block(Duration.ofSeconds(1));
+        var rejeitada = get("/users/1", null);
+        filter.filter(rejeitada, completa).block(Duration.ofSeconds(1));
+
+        assertThat(aceita.getResponse().getStatusCode()).isNull();
+        assertThat(rejeitada.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(rejeitada.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotNull();
+        assertThat(handled).hasValue(1);
+        assertThat(meterRegistry.get(AdmissionFilter.REJECTED).tag("reason", "rate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void sheddableAcimaDaMetadeDoLimiteRecebe503() {
+        var filter = new AdmissionFilter(properties(4), meterRegistry);
+
+        // SHEDDABLE usa até 50% do limite
+        for (int i = 0; i < 2; i++) {
+            filter.filter(get("/users", "sheddable"), pendurada).subscribe();
+        }
+        var descartavel = get("/users", "sheddable");
+        filter.filter(descartavel, pendurada).subscribe();
+        var normal = get("/users", null);
+        filter.filter(normal, pendurada).subscribe();
+
+        assertThat(descartavel.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(normal.getResponse().getStatusCode()).isNull();
+        assertThat(handled).hasValue(3);
+    }
+
+    @Test
+    void actuatorNaoPassaPeloControle() {
+        var filter = new AdmissionFilter(properties(1), meterRegistry);
+        filter.filter(get("/users", "critical"), pendurada).subscribe();
+
+        var actuator = get("/actuator/health", null);
+        filter.filter(actuator, completa).block(Duration.ofSeconds(1));
+
+        assertThat(actuator.getResponse().getStatusCode()).isNull();
+        assertThat(handled).hasValue(2);
+    }
+}
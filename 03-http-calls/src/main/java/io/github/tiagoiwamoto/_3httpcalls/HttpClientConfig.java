@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ReactorResourceFactory;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
@@ -40,14 +41,29 @@ public class HttpClientConfig {
     private Long timoutMilis;
 
 
+    /**
+     * Connector sobre o {@link ReactorResourceFactory} do Boot, compartilhado pelos dois WebClients. Ele é um
+     * {@code SmartLifecycle}: no stop do contexto (checkpoint CRaC) fecha pool de conexões e event loop e no start
+     * recria o {@link HttpClient} com a mesma configuração, o que um {@code HttpClient.create()} solto não faz.
+     */
     @Bean
-    public WebClient swapiWebClient() {
-        return this.webClient(swapiBaseUrl);
+    public ReactorClientHttpConnector reactorClientHttpConnector(ReactorResourceFactory reactorResourceFactory) {
+        return new ReactorClientHttpConnector(reactorResourceFactory, httpClient -> httpClient
+                .responseTimeout(Duration.ofMillis(timoutMilis))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
+                .doOnConnected(conn ->
+                        conn.addHandlerLast(new ReadTimeoutHandler(2000, TimeUnit.MILLISECONDS))
+                                .addHandlerLast(new WriteTimeoutHandler(2000, TimeUnit.MILLISECONDS))));
+    }
+
+    @Bean
+    public WebClient swapiWebClient(ReactorClientHttpConnector connector) {
+        return this.webClient(swapiBaseUrl, connector);
     }
 
     @Bean
-    public WebClient pokeWebClient() {
-        return this.webClient(pokeapiBaseUrl);
+    public WebClient pokeWebClient(ReactorClientHttpConnector connector) {
+        return this.webClient(pokeapiBaseUrl, connector);
     }
 
     @Bean
@@ -60,15 +76,7 @@ public class HttpClientConfig {
         return httpServiceProxyFactory(pokeWebClient).createClient(PokePort.class);
     }
 
-    private WebClient webClient(String baseUrl) {
-        HttpClient httpClient = HttpClient.create()
-                .responseTimeout(Duration.ofMillis(timoutMilis))
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 5000)
-                .doOnConnected(conn ->
-                        conn.addHandlerLast(new ReadTimeoutHandler(2000, TimeUnit.MILLISECONDS))
-                                .addHandlerLast(new WriteTimeoutHandler(2000, TimeUnit.MILLISECONDS)));
-
-        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+    private WebClient webClient(String baseUrl, ReactorClientHttpConnector connector) {
         return WebClient.builder()
                 .baseUrl(baseUrl)
                 .filter(errorHandlingFilter())
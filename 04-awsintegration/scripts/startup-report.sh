@@ -0,0 +1,36 @@
+#!/usr/bin/env bash
+# Mede tempo de startup e RSS do 04-awsintegration.
+#
+# Uso:
+#   ./scripts/startup-report.sh jar      # java -jar target/awsintegration-0.0.1-SNAPSHOT.jar
+#   ./scripts/startup-report.sh native   # target/awsintegration (./mvnw -Pnative native:compile)
+#
+# Rode uma vez no commit anterior à AwsClientFactory e outra depois para comparar.
+set -euo pipefail
+
+MODE="${1:-jar}"
+RUNS="${RUNS:-5}"
+cd "$(dirname "$0")/.."
+
+case "$MODE" in
+  jar)    CMD=(java ${JAVA_OPTS:-} -jar target/awsintegration-0.0.1-SNAPSHOT.jar) ;;
+  native) CMD=(target/awsintegration) ;;
+  *) echo "modo desconhecido: $MODE" >&2; exit 1 ;;
+esac
+
+printf "%-6s %-4s %12s %10s %10s\n" mode run started_ms rss_kb hwm_kb
+for run in $(seq 1 "$RUNS"); do
+  log=$(mktemp)
+  "${CMD[@]}" --server.port=0 >"$log" 2>&1 &
+  pid=$!
+  for _ in $(seq 1 300); do
+    grep -q "Started Application in" "$log" && break
+    sleep 0.1
+  done
+  started=$(grep -o "Started Application in [0-9.]* seconds" "$log" | awk '{printf "%d", $4 * 1000}')
+  rss=$(awk '/VmRSS/ {print $2}' /proc/$pid/status)
+  hwm=$(awk '/VmHWM/ {print $2}' /proc/$pid/status)
+  printf "%-6s %-4s %12s %10s %10s\n" "$MODE" "$run" "${started:-n/a}" "$rss" "$hwm"
+  kill "$pid"; wait "$pid" 2>/dev/null || true
+  rm -f "$log"
+done
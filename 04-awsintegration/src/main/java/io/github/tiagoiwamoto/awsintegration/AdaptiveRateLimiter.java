@@ -0,0 +1,67 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Token bucket cuja taxa se ajusta por AIMD: cai multiplicativamente a cada throttling
+ * e sobe de forma aditiva a cada sucesso, até o teto configurado.
+ */
+public class AdaptiveRateLimiter {
+
+    private static final double DECREASE_FACTOR = 0.7;
+
+    private final double minRate;
+    private final double maxRate;
+    private final double increaseStep;
+    private final double burst;
+
+    private double rate;
+    private double tokens;
+    private long lastRefill;
+
+    public AdaptiveRateLimiter(double initialRate, double minRate, double maxRate) {
+        this.minRate = minRate;
+        this.maxRate = maxRate;
+        this.increaseStep = Math.max(maxRate / 100, 0.1);
+        this.burst = Math.max(1, initialRate);
+        this.rate = initialRate;
+        this.tokens = burst;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Bloqueia a thread (virtual, de preferência) até existir um token disponível.
+     */
+    public void acquire() {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+
+    private synchronized long reserve() {
+        refill(System.nanoTime());
+        tokens -= 1;
+        return tokens >= 0 ? 0 : (long) (-tokens / rate * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(burst, tokens + (now - lastRefill) * rate / TimeUnit.SECONDS.toNanos(1));
+        lastRefill = now;
+    }
+
+    public synchronized void onThrottle() {
+        refill(System.nanoTime());
+        rate = Math.max(minRate, rate * DECREASE_FACTOR);
+    }
+
+    public synchronized void onSuccess() {
+        refill(System.nanoTime());
+        rate = Math.min(maxRate, rate + increaseStep);
+    }
+
+    public synchronized double rate() {
+        return rate;
+    }
+}
@@ -2,8 +2,10 @@ package io.github.tiagoiwamoto.awsintegration;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(AwsRuntimeHints.class)
 public class Application {
 
     public static void main(String[] args) {
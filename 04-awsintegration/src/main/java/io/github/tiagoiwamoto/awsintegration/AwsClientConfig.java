@@ -0,0 +1,65 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+
+import java.net.URI;
+import java.time.Duration;
+
+@Configuration
+@Slf4j
+public class AwsClientConfig {
+
+    @Value(value = "${app.aws.region:sa-east-1}")
+    private String region;
+    @Value(value = "${app.aws.environment:local}")
+    private String environment;
+    @Value(value = "${app.aws.http.max-connections:100}")
+    private Integer maxConnections;
+    @Value(value = "${app.aws.http.connection-timeout-ms:2000}")
+    private Long connectionTimeoutMillis;
+    @Value(value = "${app.aws.http.socket-timeout-ms:30000}")
+    private Long socketTimeoutMillis;
+
+    @Bean
+    public AwsClientFactory awsClientFactory(MicrometerMetricPublisher awsMetricPublisher,
+                                             PayloadSizeInterceptor awsPayloadSizeInterceptor,
+                                             AwsRetrySettings awsRetrySettings) {
+        var overrideConfiguration = ClientOverrideConfiguration.builder()
+                .addMetricPublisher(awsMetricPublisher)
+                .addExecutionInterceptor(awsPayloadSizeInterceptor)
+                .build();
+
+        boolean local = "local".equals(environment);
+        // Suppliers: a factory recria pools e credenciais depois de um stop/restore (CRaC)
+        var factory = new AwsClientFactory(
+                () -> ApacheHttpClient.builder()
+                        .maxConnections(maxConnections)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMillis))
+                        .socketTimeout(Duration.ofMillis(socketTimeoutMillis))
+                        .build(),
+                () -> NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(maxConnections)
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMillis))
+                        .readTimeout(Duration.ofMillis(socketTimeoutMillis))
+                        .build(),
+                () -> local ? AnonymousCredentialsProvider.create() : DefaultCredentialsProvider.builder().build(),
+                Region.of(region),
+                local ? URI.create("http://localhost:4566") : null,
+                overrideConfiguration,
+                awsRetrySettings.adaptive());
+
+        log.info("Factory de clientes AWS criada. Region: {}, Environment: {}, Max connections: {}",
+                region, environment, maxConnections);
+        return factory;
+    }
+
+}
@@ -0,0 +1,216 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.awscore.client.builder.AwsClientBuilder;
+import software.amazon.awssdk.core.client.builder.SdkAsyncClientBuilder;
+import software.amazon.awssdk.core.client.builder.SdkSyncClientBuilder;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Monta todos os clientes AWS do módulo a partir de um único HTTP client, um único
+ * provider de credenciais e uma região resolvida uma vez só.
+ * Sem isso cada cliente subia seu próprio pool de conexões e sua própria cadeia de credenciais.
+ * <p>
+ * Os clientes recebem delegates: no stop do contexto (inclusive antes de um checkpoint CRaC) os pools e o
+ * provider de credenciais são fechados, e na próxima chamada são recriados pelos suppliers. Assim o checkpoint
+ * não leva sockets abertos e, no restore, as credenciais vêm do ambiente novo.
+ */
+@Slf4j
+public class AwsClientFactory implements AutoCloseable, SmartLifecycle {
+
+    private final Reopenable<SdkHttpClient> httpClient;
+    private final Reopenable<SdkAsyncHttpClient> asyncHttpClient;
+    private final Reopenable<AwsCredentialsProvider> credentialsProvider;
+    private final Region region;
+    private final URI endpointOverride;
+    private final ClientOverrideConfiguration overrideConfiguration;
+    private final boolean adaptiveRetry;
+    private volatile boolean running;
+
+    private final SdkHttpClient sharedHttpClient = new SdkHttpClient() {
+        @Override
+        public ExecutableHttpRequest prepareRequest(HttpExecuteRequest request) {
+            return httpClient.get().prepareRequest(request);
+        }
+
+        @Override
+        public String clientName() {
+            return httpClient.get().clientName();
+        }
+
+        @Override
+        public void close() {
+            // clientes criados aqui não fecham um HTTP client recebido de fora; o dono é a factory
+        }
+    };
+
+    private final SdkAsyncHttpClient sharedAsyncHttpClient = new SdkAsyncHttpClient() {
+        @Override
+        public CompletableFuture<Void> execute(AsyncExecuteRequest request) {
+            return asyncHttpClient.get().execute(request);
+        }
+
+        @Override
+        public String clientName() {
+            return asyncHttpClient.get().clientName();
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final AwsCredentialsProvider sharedCredentialsProvider = new AwsCredentialsProvider() {
+        @Override
+        public AwsCredentials resolveCredentials() {
+            return credentialsProvider.get().resolveCredentials();
+        }
+    };
+
+    public AwsClientFactory(Supplier<SdkHttpClient> httpClient,
+                            Supplier<SdkAsyncHttpClient> asyncHttpClient,
+                            Supplier<AwsCredentialsProvider> credentialsProvider,
+                            Region region,
+                            URI endpointOverride,
+                            ClientOverrideConfiguration overrideConfiguration,
+                            boolean adaptiveRetry) {
+        this.httpClient = new Reopenable<>(httpClient);
+        this.asyncHttpClient = new Reopenable<>(asyncHttpClient);
+        this.credentialsProvider = new Reopenable<>(credentialsProvider);
+        this.region = region;
+        this.endpointOverride = endpointOverride;
+        this.overrideConfiguration = overrideConfiguration;
+        this.adaptiveRetry = adaptiveRetry;
+    }
+
+    public <B extends AwsClientBuilder<B, C> & SdkSyncClientBuilder<B, C>, C> C create(B builder, int numRetries) {
+        return configure(builder)
+                .overrideConfiguration(overrideConfiguration.toBuilder()
+                        // no modo adaptive quem repete é o AwsRetryExecutor; evita retry em cascata
+                        .retryPolicy(adaptiveRetry
+                                ? RetryPolicy.none()
+                                : RetryPolicy.builder()
+                                        .numRetries(numRetries)
+                                        .build())
+                        .build())
+                .build();
+    }
+
+    /**
+     * Clientes assíncronos (SqsAsyncClient do SqsTemplate e dos listeners) não passam pelo AwsRetryExecutor,
+     * então sempre usam o retry do SDK.
+     */
+    public <B extends AwsClientBuilder<B, C> & SdkAsyncClientBuilder<B, C>, C> C createAsync(B builder, int numRetries) {
+        builder.httpClient(sharedAsyncHttpClient);
+        return common(builder)
+                .overrideConfiguration(overrideConfiguration.toBuilder()
+                        .retryPolicy(RetryPolicy.builder()
+                                .numRetries(numRetries)
+                                .build())
+                        .build())
+                .build();
+    }
+
+    public <B extends AwsClientBuilder<B, C> & SdkSyncClientBuilder<B, C>, C> B configure(B builder) {
+        builder.httpClient(sharedHttpClient);
+        return common(builder);
+    }
+
+    private <B extends AwsClientBuilder<B, C>, C> B common(B builder) {
+        builder.credentialsProvider(sharedCredentialsProvider)
+                .region(region)
+                .overrideConfiguration(overrideConfiguration);
+        if (endpointOverride != null) {
+            builder.endpointOverride(endpointOverride);
+        }
+        return builder;
+    }
+
+    public Region region() {
+        return region;
+    }
+
+    public URI endpointOverride() {
+        return endpointOverride;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        close();
+        running = false;
+        log.info("Pools HTTP e credenciais AWS fechados; serão recriados na próxima chamada");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Listeners e servidor web usam os clientes (ordem das fases no readme da raiz, "Fast start")
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void close() {
+        httpClient.close();
+        asyncHttpClient.close();
+        credentialsProvider.close();
+    }
+
+    /**
+     * Instância criada sob demanda pelo supplier e descartada em {@link #close()}.
+     */
+    private static final class Reopenable<T> {
+
+        private final Supplier<T> factory;
+        private volatile T current;
+
+        Reopenable(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        T get() {
+            T instance = current;
+            if (instance == null) {
+                synchronized (this) {
+                    instance = current;
+                    if (instance == null) {
+                        instance = factory.get();
+                        current = instance;
+                    }
+                }
+            }
+            return instance;
+        }
+
+        synchronized void close() {
+            T instance = current;
+            current = null;
+            if (instance instanceof SdkAutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
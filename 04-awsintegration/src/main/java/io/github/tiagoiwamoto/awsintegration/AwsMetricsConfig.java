@@ -0,0 +1,20 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AwsMetricsConfig {
+
+    @Bean
+    public MicrometerMetricPublisher awsMetricPublisher(MeterRegistry meterRegistry) {
+        return new MicrometerMetricPublisher(meterRegistry);
+    }
+
+    @Bean
+    public PayloadSizeInterceptor awsPayloadSizeInterceptor(MeterRegistry meterRegistry) {
+        return new PayloadSizeInterceptor(meterRegistry);
+    }
+
+}
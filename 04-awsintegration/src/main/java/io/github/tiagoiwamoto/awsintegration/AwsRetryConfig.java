@@ -0,0 +1,61 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Configuration
+public class AwsRetryConfig {
+
+    // standard: retries feitos pelo SDK (RetryPolicy.numRetries); adaptive: retries feitos pelo AwsRetryExecutor
+    @Value(value = "${app.aws.retry.mode:standard}")
+    private String retryMode;
+    @Value(value = "${app.aws.retry.attempts:3}")
+    private Integer maxRetryAttempts;
+    @Value(value = "#{${app.aws.retry.base-delay-ms:{'SendMessage':50,'SendMessageBatch':50,'Publish':50,'Invoke':200}}}")
+    private Map<String, Long> baseDelaysMillis;
+    @Value(value = "${app.aws.retry.default-base-delay-ms:100}")
+    private Long defaultBaseDelayMillis;
+    @Value(value = "${app.aws.retry.max-delay-ms:20000}")
+    private Long maxDelayMillis;
+    @Value(value = "${app.aws.retry.max-concurrency-per-target:64}")
+    private Integer maxConcurrency;
+    @Value(value = "${app.aws.retry.rate.initial:100}")
+    private Double initialRate;
+    @Value(value = "${app.aws.retry.rate.min:1}")
+    private Double minRate;
+    @Value(value = "${app.aws.retry.rate.max:3000}")
+    private Double maxRate;
+    @Value(value = "${app.aws.retry.budget.ratio:0.1}")
+    private Double budgetRatio;
+    @Value(value = "${app.aws.retry.budget.capacity:100}")
+    private Double budgetCapacity;
+
+    @Bean
+    public AwsRetrySettings awsRetrySettings() {
+        return new AwsRetrySettings(
+                "adaptive".equals(retryMode),
+                maxRetryAttempts + 1,
+                baseDelaysMillis.entrySet().stream()
+                        .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, e -> Duration.ofMillis(e.getValue()))),
+                Duration.ofMillis(defaultBaseDelayMillis),
+                Duration.ofMillis(maxDelayMillis),
+                maxConcurrency,
+                initialRate,
+                minRate,
+                maxRate,
+                budgetRatio,
+                budgetCapacity);
+    }
+
+    @Bean
+    public AwsRetryExecutor awsRetryExecutor(AwsRetrySettings awsRetrySettings, MeterRegistry meterRegistry) {
+        return new AwsRetryExecutor(awsRetrySettings, meterRegistry);
+    }
+
+}
@@ -0,0 +1,113 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.exception.SdkException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Executa chamadas AWS com limite de concorrência por fila/tópico/função. No modo adaptativo acrescenta a taxa
+ * adaptativa (AIMD) por alvo, backoff exponencial com jitter por operação e orçamento global de retries; no modo
+ * standard só a concorrência é limitada.
+ */
+@Slf4j
+public class AwsRetryExecutor {
+
+    private final AwsRetrySettings settings;
+    private final MeterRegistry meterRegistry;
+    private final RetryBudget retryBudget;
+    private final Map<String, Semaphore> concurrency = new ConcurrentHashMap<>();
+    private final Map<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public AwsRetryExecutor(AwsRetrySettings settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.retryBudget = new RetryBudget(settings.budgetRatio(), settings.budgetCapacity());
+        Gauge.builder("aws.retry.budget.available", retryBudget, RetryBudget::available)
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(String operation, String target, Supplier<T> call) {
+        Semaphore permits = concurrency.computeIfAbsent(target, ignored -> new Semaphore(settings.maxConcurrency()));
+        AdaptiveRateLimiter limiter = settings.adaptive() ? limiters.computeIfAbsent(target, this::newLimiter) : null;
+        permits.acquireUninterruptibly();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                if (limiter != null) {
+                    limiter.acquire();
+                }
+                counter("aws.retry.sent", operation, target).increment();
+                try {
+                    T result = call.get();
+                    if (limiter != null) {
+                        limiter.onSuccess();
+                    }
+                    retryBudget.deposit();
+                    return result;
+                } catch (SdkException e) {
+                    boolean throttled = e instanceof AwsServiceException ase && ase.isThrottlingException();
+                    if (throttled) {
+                        if (limiter != null) {
+                            limiter.onThrottle();
+                        }
+                        counter("aws.retry.throttles", operation, target).increment();
+                    }
+                    if (!settings.adaptive() || !(throttled || e.retryable()) || attempt >= settings.maxAttempts()) {
+                        throw e;
+                    }
+                    if (!retryBudget.tryWithdraw()) {
+                        counter("aws.retry.budget.exhausted", operation, target).increment();
+                        log.warn("Orcamento de retries esgotado. Operacao: {}, Alvo: {}", operation, target);
+                        throw e;
+                    }
+                    counter("aws.retry.retries", operation, target).increment();
+                    LockSupport.parkNanos(backoff(operation, attempt).toNanos());
+                }
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Taxa atual do alvo no modo adaptativo; no standard não há limite de taxa e o valor é sempre o inicial.
+     */
+    public double currentRate(String target) {
+        AdaptiveRateLimiter limiter = limiters.get(target);
+        return limiter == null ? settings.initialRate() : limiter.rate();
+    }
+
+    /**
+     * Full jitter: sorteia entre zero e base * 2^(tentativa - 1), limitado ao teto.
+     */
+    Duration backoff(String operation, int attempt) {
+        long base = settings.baseDelay(operation).toNanos();
+        long ceiling = Math.min(settings.maxDelay().toNanos(), base << Math.min(attempt - 1, 30));
+        return Duration.ofNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private AdaptiveRateLimiter newLimiter(String target) {
+        AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(settings.initialRate(), settings.minRate(), settings.maxRate());
+        Gauge.builder("aws.retry.send.rate.limit", limiter, AdaptiveRateLimiter::rate)
+                .tag("target", target)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private Counter counter(String name, String operation, String target) {
+        return Counter.builder(name)
+                .tag("operation", operation)
+                .tag("target", target)
+                .register(meterRegistry);
+    }
+}
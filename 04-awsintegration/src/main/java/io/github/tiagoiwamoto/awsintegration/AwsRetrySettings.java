@@ -0,0 +1,36 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Parâmetros do subsistema de retry/throttling compartilhado pelos clientes AWS.
+ *
+ * @param adaptive        quando {@code true}, o {@link AwsRetryExecutor} faz os retries e os clientes do SDK não repetem
+ * @param maxAttempts     tentativas por chamada, incluindo a primeira
+ * @param baseDelays      atraso base do backoff por operação (ex.: SendMessage, Publish, Invoke)
+ * @param defaultBaseDelay atraso base para operações sem configuração própria
+ * @param maxDelay        teto do backoff
+ * @param maxConcurrency  chamadas simultâneas por fila/tópico/função
+ * @param initialRate     taxa inicial de envio por alvo (req/s); as três taxas só valem no modo adaptativo
+ * @param minRate         piso da taxa após throttling
+ * @param maxRate         teto da taxa
+ * @param budgetRatio     fração de retries permitida em relação aos sucessos
+ * @param budgetCapacity  retries acumuláveis para rajadas
+ */
+public record AwsRetrySettings(boolean adaptive,
+                               int maxAttempts,
+                               Map<String, Duration> baseDelays,
+                               Duration defaultBaseDelay,
+                               Duration maxDelay,
+                               int maxConcurrency,
+                               double initialRate,
+                               double minRate,
+                               double maxRate,
+                               double budgetRatio,
+                               double budgetCapacity) {
+
+    public Duration baseDelay(String operation) {
+        return baseDelays.getOrDefault(operation, defaultBaseDelay);
+    }
+}
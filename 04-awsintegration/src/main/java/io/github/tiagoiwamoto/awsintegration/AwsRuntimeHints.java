@@ -0,0 +1,26 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+
+public class AwsRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // interceptors que o SDK descobre pelo classpath (ClasspathInterceptorChainFactory)
+        hints.resources()
+                .registerPattern("software/amazon/awssdk/global/handlers/execution.interceptors")
+                .registerPattern("software/amazon/awssdk/services/*/execution.interceptors");
+
+        hints.reflection()
+                .registerType(TypeReference.of("software.amazon.awssdk.services.sqs.internal.MessageMD5ChecksumInterceptor"),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                .registerType(TypeReference.of("software.amazon.awssdk.http.apache.ApacheSdkHttpService"),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                // ponteiro do claim-check é (de)serializado pelo Jackson
+                .registerType(ClaimCheckCodec.Envelope.class, MemberCategory.values())
+                .registerType(ClaimCheckCodec.Pointer.class, MemberCategory.values());
+    }
+}
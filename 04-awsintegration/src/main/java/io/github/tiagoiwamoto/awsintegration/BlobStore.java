@@ -0,0 +1,20 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import java.io.InputStream;
+
+/**
+ * Armazenamento de corpos de mensagens grandes (claim-check) fora da fila/tópico.
+ */
+public interface BlobStore {
+
+    /**
+     * Nome curto do store, gravado no ponteiro para que o consumidor saiba onde buscar.
+     */
+    String name();
+
+    void put(String key, byte[] content);
+
+    InputStream open(String key);
+
+    void delete(String key);
+}
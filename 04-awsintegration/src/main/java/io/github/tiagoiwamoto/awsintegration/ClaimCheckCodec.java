@@ -0,0 +1,99 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Claim-check para SQS/SNS: corpos acima do limite são gravados no {@link BlobStore}
+ * e a mensagem passa a carregar apenas um ponteiro pequeno.
+ * O consumidor só busca o conteúdo quando abre o corpo, e o lê como stream.
+ * <p>
+ * O ponteiro é marcado pelo atributo {@value #POINTER_ATTRIBUTE} da mensagem, nunca pelo conteúdo do corpo:
+ * um payload inline que por acaso comece como um ponteiro continua inline.
+ */
+@Slf4j
+public class ClaimCheckCodec {
+
+    public static final String POINTER_ATTRIBUTE = "claim-check";
+
+    private final ObjectMapper objectMapper;
+    private final BlobStore blobStore;
+    private final int thresholdBytes;
+
+    public ClaimCheckCodec(ObjectMapper objectMapper, BlobStore blobStore, int thresholdBytes) {
+        this.objectMapper = objectMapper;
+        this.blobStore = blobStore;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    /**
+     * Serializa direto para bytes; só vira String quando cabe na mensagem. Strings seguem como estão.
+     * Quando {@link Encoded#pointer()} é verdadeiro, quem envia deve gravar o atributo {@value #POINTER_ATTRIBUTE}.
+     */
+    public Encoded encode(Object payload) throws IOException {
+        byte[] body = payload instanceof String text
+                ? text.getBytes(StandardCharsets.UTF_8)
+                : objectMapper.writeValueAsBytes(payload);
+        if (body.length <= thresholdBytes) {
+            return new Encoded(new String(body, StandardCharsets.UTF_8), false);
+        }
+        String key = UUID.randomUUID().toString();
+        blobStore.put(key, body);
+        log.debug("Payload de {} bytes enviado ao store {} com chave {}", body.length, blobStore.name(), key);
+        return new Encoded(objectMapper.writeValueAsString(new Envelope(new Pointer(blobStore.name(), key, body.length))), true);
+    }
+
+    /**
+     * Abre o corpo real da mensagem: o próprio texto quando inline, ou o blob quando é um ponteiro.
+     */
+    public InputStream open(String body, boolean pointer) throws IOException {
+        if (!pointer) {
+            return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+        }
+        Pointer pointer = objectMapper.readValue(body, Envelope.class).claimCheck();
+        if (!blobStore.name().equals(pointer.store())) {
+            throw new IllegalStateException("Claim-check aponta para store desconhecido: " + pointer.store());
+        }
+        return blobStore.open(pointer.key());
+    }
+
+    public <T> T decode(String body, boolean pointer, Class<T> clazz) throws IOException {
+        if (!pointer) {
+            return objectMapper.readValue(body, clazz);
+        }
+        try (InputStream in = open(body, true)) {
+            return objectMapper.readValue(in, clazz);
+        }
+    }
+
+    /**
+     * Remove o blob depois que a mensagem foi consumida com sucesso.
+     */
+    public void release(String body, boolean pointer) {
+        if (!pointer) {
+            return;
+        }
+        try {
+            blobStore.delete(objectMapper.readValue(body, Envelope.class).claimCheck().key());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read claim-check pointer", e);
+        }
+    }
+
+    public record Encoded(String body, boolean pointer) {
+    }
+
+    record Envelope(@JsonProperty("@claimCheck") Pointer claimCheck) {
+    }
+
+    record Pointer(String store, String key, long size) {
+    }
+}
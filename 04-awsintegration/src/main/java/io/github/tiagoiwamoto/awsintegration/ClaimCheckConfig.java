@@ -0,0 +1,52 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.nio.file.Path;
+
+@Configuration
+@Slf4j
+public class ClaimCheckConfig {
+
+    // SQS/SNS aceitam até 256 KB; deixa folga para atributos e para o envelope do SNS
+    @Value(value = "${app.aws.claim-check.threshold-bytes:204800}")
+    private Integer thresholdBytes;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.aws.claim-check.store", havingValue = "fs", matchIfMissing = true)
+    public BlobStore fileSystemBlobStore(@Value("${app.aws.claim-check.fs.directory:${java.io.tmpdir}/claim-check}") String directory) {
+        log.info("Claim-check usando filesystem em {}", directory);
+        return new FileSystemBlobStore(Path.of(directory));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.aws.claim-check.store", havingValue = "s3")
+    public BlobStore s3BlobStore(@Value("${app.aws.claim-check.s3.bucket}") String bucket,
+                                 @Value("${app.aws.claim-check.s3.prefix:claim-check/}") String prefix,
+                                 AwsClientFactory awsClientFactory) {
+        var s3 = awsClientFactory.configure(S3Client.builder())
+                // LocalStack/MinIO só resolvem bucket no path
+                .forcePathStyle(awsClientFactory.endpointOverride() != null)
+                .build();
+
+        log.info("Claim-check usando S3. Bucket: {}, Prefix: {}", bucket, prefix);
+        return new S3BlobStore(s3, bucket, prefix);
+    }
+
+    @Bean
+    public ClaimCheckCodec claimCheckCodec(ObjectMapper objectMapper, BlobStore blobStore) {
+        return new ClaimCheckCodec(objectMapper, blobStore, thresholdBytes);
+    }
+
+    @Bean
+    public ClaimCheckMessageConverter claimCheckMessageConverter(ClaimCheckCodec claimCheckCodec) {
+        return new ClaimCheckMessageConverter(claimCheckCodec);
+    }
+
+}
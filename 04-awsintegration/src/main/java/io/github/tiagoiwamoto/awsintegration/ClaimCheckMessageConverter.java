@@ -0,0 +1,77 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.messaging.converter.SmartMessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converter do Spring Messaging sobre o {@link ClaimCheckCodec}, usado pelo SqsTemplate, pelo SnsTemplate e pelos
+ * {@code @SqsListener}. No envio grava o header {@value ClaimCheckCodec#POINTER_ATTRIBUTE}, que o Spring Cloud AWS
+ * mapeia para atributo da mensagem; no recebimento é esse atributo que diz se o corpo é um ponteiro.
+ */
+public class ClaimCheckMessageConverter implements SmartMessageConverter {
+
+    private final ClaimCheckCodec codec;
+
+    public ClaimCheckMessageConverter(ClaimCheckCodec codec) {
+        this.codec = codec;
+    }
+
+    static boolean isPointer(MessageHeaders headers) {
+        return "true".equals(String.valueOf(headers.get(ClaimCheckCodec.POINTER_ATTRIBUTE)));
+    }
+
+    @Override
+    public Object fromMessage(Message<?> message, Class<?> targetClass) {
+        if (!(message.getPayload() instanceof String body)) {
+            return null;
+        }
+        boolean pointer = isPointer(message.getHeaders());
+        try {
+            if (targetClass == String.class) {
+                if (!pointer) {
+                    return body;
+                }
+                try (InputStream in = codec.open(body, true)) {
+                    return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                }
+            }
+            return codec.decode(body, pointer, targetClass);
+        } catch (IOException e) {
+            throw new MessageConversionException(message, "Failed to deserialize message body", e);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        return fromMessage(message, targetClass);
+    }
+
+    @Override
+    public Message<?> toMessage(Object payload, MessageHeaders headers) {
+        try {
+            ClaimCheckCodec.Encoded encoded = codec.encode(payload);
+            MessageBuilder<String> builder = MessageBuilder.withPayload(encoded.body());
+            if (headers != null) {
+                builder.copyHeaders(headers);
+            }
+            if (encoded.pointer()) {
+                builder.setHeader(ClaimCheckCodec.POINTER_ATTRIBUTE, "true");
+            }
+            return builder.build();
+        } catch (IOException e) {
+            throw new MessageConversionException("Failed to serialize payload to message body", e);
+        }
+    }
+
+    @Override
+    public Message<?> toMessage(Object payload, MessageHeaders headers, Object conversionHint) {
+        return toMessage(payload, headers);
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.acknowledgement.AcknowledgementResultCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+
+import java.util.Collection;
+
+/**
+ * Apaga o blob do claim-check depois que a mensagem foi reconhecida (deletada da fila).
+ * Mensagens que vão para a DLQ ou expiram não passam aqui; a regra de lifecycle do bucket cobre esses blobs.
+ */
+@Slf4j
+public class ClaimCheckReleaseCallback implements AcknowledgementResultCallback<Object> {
+
+    private final ClaimCheckCodec codec;
+
+    public ClaimCheckReleaseCallback(ClaimCheckCodec codec) {
+        this.codec = codec;
+    }
+
+    @Override
+    public void onSuccess(Collection<Message<Object>> messages) {
+        for (Message<Object> message : messages) {
+            // O payload já foi convertido; o ponteiro original está na mensagem do SDK
+            if (message.getHeaders().get(SqsHeaders.SQS_SOURCE_DATA_HEADER)
+                    instanceof software.amazon.awssdk.services.sqs.model.Message source
+                    && source.messageAttributes().containsKey(ClaimCheckCodec.POINTER_ATTRIBUTE)) {
+                try {
+                    codec.release(source.body(), true);
+                } catch (RuntimeException e) {
+                    log.warn("Falha ao apagar blob do claim-check da mensagem {}", source.messageId(), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.function.SingletonSupplier;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.InvocationType;
+import software.amazon.awssdk.services.lambda.model.InvokeResponse;
+import software.amazon.awssdk.services.lambda.model.LogType;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Invoca funções Lambda em paralelo com concorrência limitada.
+ * Os payloads trafegam como bytes ({@link SdkBytes}) e nunca são convertidos para String.
+ */
+@Service
+@Slf4j
+public class LambdaInvoker {
+
+    private static final String INIT_DURATION_MARKER = "Init Duration";
+
+    // o LambdaClient é @Lazy: só é montado na primeira invocação
+    private final Supplier<LambdaClient> lambdaClient;
+    private final MeterRegistry meterRegistry;
+    private final AwsRetryExecutor awsRetryExecutor;
+    private final Semaphore permits;
+    private final boolean tailLogs;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public LambdaInvoker(ObjectFactory<LambdaClient> lambdaClient,
+                         MeterRegistry meterRegistry,
+                         AwsRetryExecutor awsRetryExecutor,
+                         @Value("${app.aws.lambda.invoke.max-concurrency:32}") int maxConcurrency,
+                         @Value("${app.aws.lambda.invoke.tail-logs:true}") boolean tailLogs) {
+        this.lambdaClient = SingletonSupplier.of(lambdaClient::getObject);
+        this.meterRegistry = meterRegistry;
+        this.awsRetryExecutor = awsRetryExecutor;
+        this.permits = new Semaphore(maxConcurrency);
+        this.tailLogs = tailLogs;
+    }
+
+    public LambdaInvocationResult invoke(String functionName, byte[] payload, InvocationType invocationType) {
+        return invoke(new LambdaInvocationRequest(functionName, SdkBytes.fromByteArrayUnsafe(payload), invocationType));
+    }
+
+    public LambdaInvocationResult invoke(String functionName, InputStream payload, InvocationType invocationType) {
+        return invoke(new LambdaInvocationRequest(functionName, SdkBytes.fromInputStream(payload), invocationType));
+    }
+
+    public LambdaInvocationResult invoke(LambdaInvocationRequest request) {
+        permits.acquireUninterruptibly();
+        try {
+            return doInvoke(request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    public CompletableFuture<LambdaInvocationResult> invokeAsync(LambdaInvocationRequest request) {
+        return CompletableFuture.supplyAsync(() -> invoke(request), executor);
+    }
+
+    /**
+     * Dispara todas as invocações em virtual threads; o semáforo garante que no máximo
+     * {@code app.aws.lambda.invoke.max-concurrency} chamadas fiquem em voo ao mesmo tempo.
+     */
+    public CompletableFuture<List<LambdaInvocationResult>> invokeAll(List<LambdaInvocationRequest> requests) {
+        List<CompletableFuture<LambdaInvocationResult>> futures = requests.stream()
+                .map(this::invokeAsync)
+                .toList();
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private LambdaInvocationResult doInvoke(LambdaInvocationRequest request) {
+        boolean requestResponse = request.invocationType() == InvocationType.REQUEST_RESPONSE;
+        long start = System.nanoTime();
+        InvokeResponse response = awsRetryExecutor.execute("Invoke", request.functionName(), () ->
+                lambdaClient.get().invoke(builder -> builder
+                        .functionName(request.functionName())
+                        .invocationType(request.invocationType())
+                        .logType(requestResponse && tailLogs ? LogType.TAIL : LogType.NONE)
+                        .payload(request.payload())));
+        long elapsed = System.nanoTime() - start;
+
+        ColdStart coldStart = coldStart(response.logResult());
+        Timer.builder("aws.lambda.invoke")
+                .tag("function", request.functionName())
+                .tag("type", request.invocationType().toString())
+                .tag("cold_start", coldStart.tag)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (coldStart == ColdStart.YES) {
+            Counter.builder("aws.lambda.invoke.cold.starts")
+                    .tag("function", request.functionName())
+                    .register(meterRegistry)
+                    .increment();
+        }
+        if (response.functionError() != null) {
+            log.warn("Funcao Lambda {} retornou erro: {}", request.functionName(), response.functionError());
+        }
+
+        return new LambdaInvocationResult(request.functionName(), response.statusCode(),
+                response.functionError(), coldStart == ColdStart.YES, elapsed, response.payload());
+    }
+
+    private ColdStart coldStart(String logResult) {
+        if (logResult == null || logResult.isEmpty()) {
+            return ColdStart.UNKNOWN;
+        }
+        String tail = new String(Base64.getDecoder().decode(logResult), StandardCharsets.UTF_8);
+        return tail.contains(INIT_DURATION_MARKER) ? ColdStart.YES : ColdStart.NO;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private enum ColdStart {
+        YES("true"), NO("false"), UNKNOWN("unknown");
+
+        private final String tag;
+
+        ColdStart(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public record LambdaInvocationRequest(String functionName, SdkBytes payload, InvocationType invocationType) {
+    }
+
+    public record LambdaInvocationResult(String functionName,
+                                         Integer statusCode,
+                                         String functionError,
+                                         boolean coldStart,
+                                         long durationNanos,
+                                         SdkBytes payload) {
+
+        public InputStream payloadStream() {
+            return payload == null ? InputStream.nullInputStream() : payload.asInputStream();
+        }
+
+        public ByteBuffer payloadBuffer() {
+            return payload == null ? ByteBuffer.allocate(0) : payload.asByteBuffer();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Ponte entre as métricas do AWS SDK v2 e o Micrometer.
+ * Cada chamada de API chega como uma árvore ApiCall -> ApiCallAttempt -> HttpClient.
+ */
+public class MicrometerMetricPublisher implements MetricPublisher {
+
+    private static final String ATTEMPT = "ApiCallAttempt";
+    // valor de CoreMetric.ERROR_TYPE quando o serviço responde com throttling
+    private static final String THROTTLING = "Throttling";
+
+    private final MeterRegistry meterRegistry;
+
+    public MicrometerMetricPublisher(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void publish(MetricCollection metrics) {
+        String service = first(metrics.metricValues(CoreMetric.SERVICE_ID), "unknown");
+        String operation = first(metrics.metricValues(CoreMetric.OPERATION_NAME), "unknown");
+        boolean success = first(metrics.metricValues(CoreMetric.API_CALL_SUCCESSFUL), Boolean.FALSE);
+
+        Duration duration = first(metrics.metricValues(CoreMetric.API_CALL_DURATION), null);
+        if (duration != null) {
+            Timer.builder("aws.sdk.api.call")
+                    .tag("service", service)
+                    .tag("operation", operation)
+                    .tag("outcome", success ? "success" : "failure")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(duration);
+        }
+
+        int retries = first(metrics.metricValues(CoreMetric.RETRY_COUNT), 0);
+        if (retries > 0) {
+            Counter.builder("aws.sdk.api.call.retries")
+                    .tag("service", service)
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment(retries);
+        }
+
+        List<MetricCollection> attempts = metrics.childrenWithName(ATTEMPT).toList();
+        DistributionSummary.builder("aws.sdk.api.call.attempts")
+                .tag("service", service)
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(attempts.size());
+
+        for (MetricCollection attempt : attempts) {
+            if (attempt.metricValues(CoreMetric.ERROR_TYPE).contains(THROTTLING)) {
+                Counter.builder("aws.sdk.api.call.throttles")
+                        .tag("service", service)
+                        .tag("operation", operation)
+                        .register(meterRegistry)
+                        .increment();
+            }
+            attempt.children().forEach(http ->
+                    http.metricValues(HttpMetric.CONCURRENCY_ACQUIRE_DURATION).forEach(acquire ->
+                            Timer.builder("aws.sdk.http.acquire")
+                                    .tag("service", service)
+                                    // histograma alimenta o painel de p99 de espera por conexão
+                                    .publishPercentileHistogram()
+                                    .register(meterRegistry)
+                                    .record(acquire)));
+        }
+    }
+
+    @Override
+    public void close() {
+        // Nada a liberar: o MeterRegistry pertence ao contexto Spring
+    }
+
+    private static <T> T first(List<T> values, T fallback) {
+        return values.isEmpty() ? fallback : values.get(0);
+    }
+}
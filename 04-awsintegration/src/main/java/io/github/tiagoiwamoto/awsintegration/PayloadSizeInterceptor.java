@@ -0,0 +1,75 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.core.sync.RequestBody;
+
+
+/**
+ * Registra o tamanho dos payloads HTTP por operação e por fila/tópico/função.
+ * O {@link MicrometerMetricPublisher} não enxerga o request, por isso o alvo vem daqui.
+ */
+public class PayloadSizeInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<String> TARGET = new ExecutionAttribute<>("MetricsTarget");
+
+    private final MeterRegistry meterRegistry;
+
+    public PayloadSizeInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(TARGET, target(context.request()));
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        context.requestBody()
+                .flatMap(RequestBody::optionalContentLength)
+                .ifPresent(size -> record("request", size, executionAttributes));
+    }
+
+    @Override
+    public void afterTransmission(Context.AfterTransmission context, ExecutionAttributes executionAttributes) {
+        context.httpResponse().firstMatchingHeader("Content-Length")
+                .map(Long::parseLong)
+                .ifPresent(size -> record("response", size, executionAttributes));
+    }
+
+    private void record(String direction, long size, ExecutionAttributes executionAttributes) {
+        DistributionSummary.builder("aws.sdk.payload.size")
+                .baseUnit("bytes")
+                .tag("service", executionAttributes.getAttribute(SdkExecutionAttribute.SERVICE_NAME))
+                .tag("operation", executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME))
+                .tag("target", executionAttributes.getAttribute(TARGET))
+                .tag("direction", direction)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
+    }
+
+    /**
+     * Nome curto da fila, tópico ou função: último segmento da URL/ARN.
+     */
+    static String target(SdkRequest request) {
+        return request.getValueForField("QueueUrl", String.class)
+                .or(() -> request.getValueForField("TopicArn", String.class))
+                .or(() -> request.getValueForField("FunctionName", String.class))
+                .or(() -> request.getValueForField("Bucket", String.class))
+                .map(PayloadSizeInterceptor::lastSegment)
+                .orElse("none");
+    }
+
+    private static String lastSegment(String value) {
+        int cut = Math.max(value.lastIndexOf('/'), value.lastIndexOf(':'));
+        return cut < 0 ? value : value.substring(cut + 1);
+    }
+}
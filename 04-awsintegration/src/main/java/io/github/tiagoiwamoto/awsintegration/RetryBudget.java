@@ -0,0 +1,34 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+/**
+ * Orçamento de retries: cada sucesso deposita uma fração de token e cada retry consome um token inteiro.
+ * Em regime, isso limita os retries a {@code ratio} das chamadas bem-sucedidas e corta tempestades de retry.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+    private final double capacity;
+    private double tokens;
+
+    public RetryBudget(double ratio, double capacity) {
+        this.ratio = ratio;
+        this.capacity = capacity;
+        this.tokens = capacity;
+    }
+
+    public synchronized void deposit() {
+        tokens = Math.min(capacity, tokens + ratio);
+    }
+
+    public synchronized boolean tryWithdraw() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double available() {
+        return tokens;
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.io.InputStream;
+
+/**
+ * {@link BlobStore} sobre qualquer endpoint compatível com S3 (AWS, LocalStack, MinIO).
+ * O download é devolvido como stream, sem materializar o objeto em memória.
+ * Objetos de mensagens que nunca são reconhecidas dependem da regra de lifecycle do bucket sobre o prefixo
+ * (ver application.properties).
+ */
+public class S3BlobStore implements BlobStore {
+
+    private final S3Client s3Client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3BlobStore(S3Client s3Client, String bucket, String prefix) {
+        this.s3Client = s3Client;
+        this.bucket = bucket;
+        this.prefix = prefix;
+    }
+
+    @Override
+    public String name() {
+        return "s3";
+    }
+
+    @Override
+    public void put(String key, byte[] content) {
+        s3Client.putObject(builder -> builder.bucket(bucket).key(prefix + key).contentLength((long) content.length),
+                RequestBody.fromBytes(content));
+    }
+
+    @Override
+    public InputStream open(String key) {
+        return s3Client.getObject(builder -> builder.bucket(bucket).key(prefix + key));
+    }
+
+    @Override
+    public void delete(String key) {
+        s3Client.deleteObject(builder -> builder.bucket(bucket).key(prefix + key));
+    }
+}
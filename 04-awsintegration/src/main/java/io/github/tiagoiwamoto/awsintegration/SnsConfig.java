@@ -1,107 +1,37 @@
 package io.github.tiagoiwamoto.awsintegration;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
-import io.awspring.cloud.sqs.support.converter.SnsMessageConverter;
+import io.awspring.cloud.sns.core.SnsTemplate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
-import software.amazon.awssdk.core.retry.RetryPolicy;
-import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.sns.SnsClient;
-import software.amazon.awssdk.services.sqs.SqsClient;
 
-import java.io.IOException;
-import java.io.UncheckedIOException;
 import java.net.URI;
-import java.util.Optional;
 
 @Configuration
 @Slf4j
 public class SnsConfig {
 
-    @Value(value = "${app.aws.region:sa-east-1}")
-    private String region;
-    @Value(value = "${app.aws.environment:local}")
-    private String environment;
     @Value(value = "${app.aws.sns.retry.attempts:3}")
     private Integer maxRetryAttempts;
 
     @Bean
-    public SnsClient snsClient() {
-        var snsBuilder = SnsClient.builder()
-                .overrideConfiguration(ClientOverrideConfiguration.builder()
-                        .retryPolicy(RetryPolicy.builder()
-                                .numRetries(maxRetryAttempts)
-                                .build())
-                        .build())
-                .region(Region.of(region));
+    public SnsClient snsClient(AwsClientFactory awsClientFactory) {
+        var sns = awsClientFactory.create(SnsClient.builder(), maxRetryAttempts);
+        log.info("Cliente Sns criado com sucesso. Region: {}, Endpoint: {}",
+                awsClientFactory.region(), sns.serviceClientConfiguration().endpointOverride().map(URI::toString).orElse("(default)"));
 
-        if("local".equals(environment)) {
-            snsBuilder.endpointOverride(URI.create("http://localhost:4566"));
-            snsBuilder.credentialsProvider(AnonymousCredentialsProvider.create());
-        }else{
-            snsBuilder.credentialsProvider(DefaultCredentialsProvider.create());
-        }
-
-        var sqs = snsBuilder.build();
-        Optional<URI> endpoint = sqs.serviceClientConfiguration().endpointOverride();
-        log.info("Cliente Sns criado com sucesso. Region: {}, Environment: {}, Endpoint: {}",
-                region, environment, endpoint.map(URI::toString).orElse("(default)"));
-
-        return sqs;
+        return sns;
     }
 
-    // Bean for Jackson ObjectMapper configured to support Java records and Java Time types
-    @Bean
-    public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-        // Support parameter names (useful for records), and Java Time module
-        mapper.registerModule(new ParameterNamesModule())
-                .registerModule(new JavaTimeModule());
-        mapper.configure(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, false);
-        return mapper;
-    }
+    // O ObjectMapper compartilhado é definido em SqsConfig; declarar outro aqui quebrava o contexto
 
-    // Simple SNS message converter that (de)serializes message bodies to/from Java records using Jackson
+    // Publicações passam pelo claim-check; o SnsTemplate mapeia o header do ponteiro para atributo da mensagem.
+    // Assinaturas SQS precisam de raw message delivery para o atributo chegar ao @SqsListener.
     @Bean
-    public SnsMessageConverter snsMessageConverter(ObjectMapper objectMapper) {
-        return new SnsMessageConverter(objectMapper);
-    }
-
-    /**
-     * Utility class to convert SNS message bodies to/from POJOs / records using Jackson.
-     * Keep as a simple helper so consumers can inject and use it in listeners / processors.
-     */
-    public static class SnsMessageConverter {
-        private final ObjectMapper objectMapper;
-
-        public SnsMessageConverter(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
-        }
-
-        public <T> T fromMessageBody(String body, Class<T> clazz) {
-            try {
-                return objectMapper.readValue(body, clazz);
-            } catch (IOException e) {
-                throw new UncheckedIOException("Failed to deserialize SQS message body", e);
-            }
-        }
-
-        public String toMessageBody(Object payload) {
-            try {
-                return objectMapper.writeValueAsString(payload);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize payload to SQS message body", e);
-            }
-        }
+    public SnsTemplate snsTemplate(SnsClient snsClient, ClaimCheckMessageConverter claimCheckMessageConverter) {
+        return new SnsTemplate(snsClient, claimCheckMessageConverter);
     }
 
 }
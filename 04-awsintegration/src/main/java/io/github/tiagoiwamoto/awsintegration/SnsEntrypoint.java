@@ -9,8 +9,11 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.sns.SnsAsyncClient;
 import software.amazon.awssdk.services.sns.SnsClient;
+import software.amazon.awssdk.services.sns.model.MessageAttributeValue;
 import software.amazon.eventstream.MessageBuilder;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.Map;
 
 import static io.awspring.cloud.sqs.annotation.SqsListenerAcknowledgementMode.ON_SUCCESS;
@@ -21,26 +24,36 @@ public class SnsEntrypoint {
 
     private final SnsClient snsClient;
     private final SnsTemplate snsTemplate;
+    private final AwsRetryExecutor awsRetryExecutor;
+    private final ClaimCheckCodec claimCheckCodec;
 
-    public void sendMessage() {
-        //Usando o spring
+    public void sendMessage() throws IOException {
+        //Usando o spring (SnsTemplate converte pelo ClaimCheckMessageConverter)
         snsTemplate.convertAndSend("arn:aws:sns:sa-east-1:123456789012:my-topic",
             Map.of("event", "GREETING", "text", "Hello, SNS!"),
             Map.of("contentType", "application/json")
         );
 
-        //usando apenas o sdk
-        snsClient.publish(builder ->
-            builder
-                .topicArn("arn:aws:sns:sa-east-1:123456789012:my-topic")
-                .message("{\"event\":\"GREETING\",\"text\":\"Hello, SNS!\"}")
-                .messageAttributes(Map.of(
-                    "contentType",
-                    software.amazon.awssdk.services.sns.model.MessageAttributeValue.builder()
-                        .dataType("String")
-                        .stringValue("application/json")
-                        .build()
-                ))
+        //usando apenas o sdk: o codec é chamado aqui e o ponteiro vai como atributo
+        var encoded = claimCheckCodec.encode(Map.of("event", "GREETING", "text", "Hello, SNS!"));
+        Map<String, MessageAttributeValue> attributes = new HashMap<>();
+        attributes.put("contentType", MessageAttributeValue.builder()
+            .dataType("String")
+            .stringValue("application/json")
+            .build());
+        if (encoded.pointer()) {
+            attributes.put(ClaimCheckCodec.POINTER_ATTRIBUTE, MessageAttributeValue.builder()
+                .dataType("String")
+                .stringValue("true")
+                .build());
+        }
+        awsRetryExecutor.execute("Publish", "my-topic", () ->
+            snsClient.publish(builder ->
+                builder
+                    .topicArn("arn:aws:sns:sa-east-1:123456789012:my-topic")
+                    .message(encoded.body())
+                    .messageAttributes(attributes)
+            )
         );
     }
 }
@@ -1,63 +1,45 @@
 package io.github.tiagoiwamoto.awsintegration;
 
+import io.awspring.cloud.sqs.config.SqsListenerConfigurer;
+import io.awspring.cloud.sqs.config.SqsMessageListenerContainerFactory;
+import io.awspring.cloud.sqs.operations.SqsTemplate;
+import io.awspring.cloud.sqs.support.converter.SqsMessagingMessageConverter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import software.amazon.awssdk.auth.credentials.AnonymousCredentialsProvider;
-import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
-import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
-import software.amazon.awssdk.core.retry.RetryPolicy;
-import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 import software.amazon.awssdk.services.sqs.SqsClient;
 
 import java.net.URI;
-import java.util.Optional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.fasterxml.jackson.module.paramnames.ParameterNamesModule;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import java.io.IOException;
-import java.io.UncheckedIOException;
 
 @Configuration
 @Slf4j
 public class SqsConfig {
 
-    @Value(value = "${app.aws.region:sa-east-1}")
-    private String region;
-    @Value(value = "${app.aws.environment:local}")
-    private String environment;
     @Value(value = "${app.aws.sqs.retry.attempts:3}")
     private Integer maxRetryAttempts;
 
     @Bean
-    public SqsClient sqsClient() {
-        var sqsBuilder = SqsClient.builder()
-                .overrideConfiguration(ClientOverrideConfiguration.builder()
-                        .retryPolicy(RetryPolicy.builder()
-                                .numRetries(maxRetryAttempts)
-                                .build())
-                        .build())
-                .region(Region.of(region));
-
-        if("local".equals(environment)) {
-            sqsBuilder.endpointOverride(URI.create("http://localhost:4566"));
-            sqsBuilder.credentialsProvider(AnonymousCredentialsProvider.create());
-        }else{
-            sqsBuilder.credentialsProvider(DefaultCredentialsProvider.create());
-        }
-
-        var sqs = sqsBuilder.build();
-        Optional<URI> endpoint = sqs.serviceClientConfiguration().endpointOverride();
-        log.info("Cliente Sqs criado com sucesso. Region: {}, Environment: {}, Endpoint: {}",
-                region, environment, endpoint.map(URI::toString).orElse("(default)"));
+    public SqsClient sqsClient(AwsClientFactory awsClientFactory) {
+        var sqs = awsClientFactory.create(SqsClient.builder(), maxRetryAttempts);
+        log.info("Cliente Sqs criado com sucesso. Region: {}, Endpoint: {}",
+                awsClientFactory.region(), sqs.serviceClientConfiguration().endpointOverride().map(URI::toString).orElse("(default)"));
 
         return sqs;
     }
 
+    // Substitui o cliente do Spring Cloud AWS (SqsTemplate e @SqsListener) para que o pool dele também feche no stop
+    @Bean
+    public SqsAsyncClient sqsAsyncClient(AwsClientFactory awsClientFactory) {
+        return awsClientFactory.createAsync(SqsAsyncClient.builder(), maxRetryAttempts);
+    }
+
     // Bean for Jackson ObjectMapper configured to support Java records and Java Time types
     @Bean
     public ObjectMapper objectMapper() {
@@ -69,38 +51,38 @@ public class SqsConfig {
         return mapper;
     }
 
-    // Simple SQS message converter that (de)serializes message bodies to/from Java records using Jackson
+    // Envio e recebimento passam pelo claim-check; o ponteiro viaja no atributo ClaimCheckCodec.POINTER_ATTRIBUTE
     @Bean
-    public SqsMessageConverter sqsMessageConverter(ObjectMapper objectMapper) {
-        return new SqsMessageConverter(objectMapper);
+    public SqsMessagingMessageConverter sqsMessagingMessageConverter(ClaimCheckMessageConverter claimCheckMessageConverter) {
+        var converter = new SqsMessagingMessageConverter();
+        converter.setPayloadMessageConverter(claimCheckMessageConverter);
+        return converter;
     }
 
-    /**
-     * Utility class to convert SQS message bodies to/from POJOs / records using Jackson.
-     * Keep as a simple helper so consumers can inject and use it in listeners / processors.
-     */
-    public static class SqsMessageConverter {
-        private final ObjectMapper objectMapper;
-
-        public SqsMessageConverter(ObjectMapper objectMapper) {
-            this.objectMapper = objectMapper;
-        }
+    @Bean
+    public SqsTemplate sqsTemplate(SqsAsyncClient sqsAsyncClient, SqsMessagingMessageConverter sqsMessagingMessageConverter) {
+        return SqsTemplate.builder()
+                .sqsAsyncClient(sqsAsyncClient)
+                .messageConverter(sqsMessagingMessageConverter)
+                .build();
+    }
 
-        public <T> T fromMessageBody(String body, Class<T> clazz) {
-            try {
-                return objectMapper.readValue(body, clazz);
-            } catch (IOException e) {
-                throw new UncheckedIOException("Failed to deserialize SQS message body", e);
-            }
-        }
+    // Mesmo nome do factory do Spring Cloud AWS, usado por padrão pelos @SqsListener
+    @Bean
+    public SqsMessageListenerContainerFactory<Object> defaultSqsListenerContainerFactory(
+            SqsAsyncClient sqsAsyncClient, SqsMessagingMessageConverter sqsMessagingMessageConverter,
+            ClaimCheckCodec claimCheckCodec) {
+        return SqsMessageListenerContainerFactory.builder()
+                .sqsAsyncClient(sqsAsyncClient)
+                .configure(options -> options.messageConverter(sqsMessagingMessageConverter))
+                .acknowledgementResultCallback(new ClaimCheckReleaseCallback(claimCheckCodec))
+                .build();
+    }
 
-        public String toMessageBody(Object payload) {
-            try {
-                return objectMapper.writeValueAsString(payload);
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Failed to serialize payload to SQS message body", e);
-            }
-        }
+    // Conversão do @Payload do listener (Message<Map<...>>, records) também resolve o ponteiro
+    @Bean
+    public SqsListenerConfigurer claimCheckListenerConfigurer(ClaimCheckMessageConverter claimCheckMessageConverter) {
+        return registrar -> registrar.manageMessageConverters(converters -> converters.add(0, claimCheckMessageConverter));
     }
 
 }
@@ -3,35 +3,53 @@ package io.github.tiagoiwamoto.awsintegration;
 import io.awspring.cloud.sqs.annotation.SqsListener;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
 
+import java.io.IOException;
 import java.util.Map;
 
 import static io.awspring.cloud.sqs.annotation.SqsListenerAcknowledgementMode.ON_SUCCESS;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class SqsEntrypoint {
 
     private final SqsClient sqsClient;
     private final SqsTemplate sqsTemplate;
+    private final AwsRetryExecutor awsRetryExecutor;
+    private final ClaimCheckCodec claimCheckCodec;
 
     @SqsListener(value = "my-queue-name", acknowledgementMode = ON_SUCCESS)
     public void receiveMessage(@Payload Message<Map<String, Object>> message) {
-        System.out.println("Received message: " + message);
+        log.info("Mensagem recebida: {}", message.getHeaders().getId());
+        log.debug("Payload da mensagem {}: {}", message.getHeaders().getId(), message.getPayload());
     }
 
-    public void sendMessage() {
+    public void sendMessage() throws IOException {
+        // SqsTemplate converte pelo ClaimCheckMessageConverter
         sqsTemplate.send("my-queue-name",
             Map.of("event", "GREETING", "text", "Hello, SQS!"));
 
-        sqsClient.sendMessage(builder ->
-            builder
-                .queueUrl("http://localhost:4566/000000000000/my-queue-name")
-                .messageBody("{\"event\":\"GREETING\",\"text\":\"Hello, SQS!\"}")
+        // No SDK puro o codec é chamado aqui e o ponteiro vai como atributo
+        var encoded = claimCheckCodec.encode(Map.of("event", "GREETING", "text", "Hello, SQS!"));
+        awsRetryExecutor.execute("SendMessage", "my-queue-name", () ->
+            sqsClient.sendMessage(builder ->
+                builder
+                    .queueUrl("http://localhost:4566/000000000000/my-queue-name")
+                    .messageBody(encoded.body())
+                    .messageAttributes(encoded.pointer()
+                        ? Map.of(ClaimCheckCodec.POINTER_ATTRIBUTE, MessageAttributeValue.builder()
+                            .dataType("String")
+                            .stringValue("true")
+                            .build())
+                        : Map.of())
+            )
         );
     }
 }
@@ -0,0 +1,162 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageResponse;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exercita o {@link AwsRetryExecutor} contra um stand-in local do SQS que responde com throttling.
+ */
+class AwsRetryExecutorTest {
+
+    private static final String QUEUE = "my-queue-name";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile int throttleFirst;
+
+    private HttpServer server;
+    private SqsClient sqsClient;
+    private SimpleMeterRegistry meterRegistry;
+
+    static AwsRetrySettings settings(boolean adaptive, int maxConcurrency) {
+        return settings(adaptive, maxConcurrency, 100);
+    }
+
+    static AwsRetrySettings settings(boolean adaptive, int maxConcurrency, double budgetCapacity) {
+        return new AwsRetrySettings(adaptive, 5, Map.of("SendMessage", Duration.ofMillis(1)),
+                Duration.ofMillis(1), Duration.ofMillis(10), maxConcurrency,
+                1_000, 1, 5_000, 0.1, budgetCapacity);
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                JsonNode request = mapper.readTree(exchange.getRequestBody());
+                Thread.sleep(5);
+                exchange.getResponseHeaders().add("Content-Type", "application/x-amz-json-1.0");
+                byte[] response;
+                if (hits.incrementAndGet() <= throttleFirst) {
+                    response = "{\"__type\":\"ThrottlingException\",\"message\":\"Rate exceeded\"}".getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(429, response.length);
+                } else {
+                    byte[] digest = MessageDigest.getInstance("MD5")
+                            .digest(request.get("MessageBody").asText().getBytes(StandardCharsets.UTF_8));
+                    response = ("{\"MD5OfMessageBody\":\"" + HexFormat.of().formatHex(digest) + "\",\"MessageId\":\"1\"}")
+                            .getBytes(StandardCharsets.UTF_8);
+                    exchange.sendResponseHeaders(200, response.length);
+                }
+                exchange.getResponseBody().write(response);
+            } catch (Exception e) {
+                exchange.sendResponseHeaders(500, -1);
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        sqsClient = SqsClient.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .region(Region.SA_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .retryPolicy(RetryPolicy.none())
+                        .build())
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqsClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void repeteThrottlingEReduzTaxa() {
+        throttleFirst = 3;
+        var executor = new AwsRetryExecutor(settings(true, 8), meterRegistry);
+
+        var response = executor.execute("SendMessage", QUEUE, this::send);
+
+        assertThat(response.messageId()).isEqualTo("1");
+        assertThat(hits.get()).isEqualTo(4);
+        assertThat(meterRegistry.get("aws.retry.throttles").tag("target", QUEUE).counter().count()).isEqualTo(3);
+        assertThat(executor.currentRate(QUEUE)).isLessThan(1_000);
+    }
+
+    @Test
+    void orcamentoEsgotadoInterrompeRetries() {
+        throttleFirst = Integer.MAX_VALUE;
+        var executor = new AwsRetryExecutor(settings(true, 8, 2), meterRegistry);
+
+        assertThatThrownBy(() -> executor.execute("SendMessage", QUEUE, this::send))
+                .isInstanceOfSatisfying(AwsServiceException.class, e -> assertThat(e.isThrottlingException()).isTrue());
+        assertThat(hits.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("aws.retry.budget.exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void modoStandardNaoRepete() {
+        throttleFirst = 1;
+        var executor = new AwsRetryExecutor(settings(false, 8), meterRegistry);
+
+        assertThatThrownBy(() -> executor.execute("SendMessage", QUEUE, this::send))
+                .isInstanceOf(AwsServiceException.class);
+        assertThat(hits.get()).isEqualTo(1);
+        // Sem limitador de taxa no modo standard
+        assertThat(meterRegistry.find("aws.retry.send.rate.limit").gauge()).isNull();
+    }
+
+    @Test
+    void limitaConcorrenciaPorFila() throws Exception {
+        var executor = new AwsRetryExecutor(settings(true, 2), meterRegistry);
+
+        try (var threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            IntStream.range(0, 20).forEach(i -> threads.submit(() -> executor.execute("SendMessage", QUEUE, this::send)));
+        }
+
+        assertThat(hits.get()).isEqualTo(20);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        assertThat(meterRegistry.get("aws.retry.sent").tag("target", QUEUE).counter().count()).isEqualTo(20);
+    }
+
+    private SendMessageResponse send() {
+        return sqsClient.sendMessage(builder -> builder
+                .queueUrl("http://localhost:4566/000000000000/" + QUEUE)
+                .messageBody("{\"event\":\"GREETING\"}"));
+    }
+}
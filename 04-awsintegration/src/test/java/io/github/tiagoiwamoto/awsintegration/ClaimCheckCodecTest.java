@@ -0,0 +1,119 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.support.MessageBuilder;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClaimCheckCodecTest {
+
+    private static final int THRESHOLD = 200 * 1024;
+    // SQS cobra cada bloco de 64 KB do corpo como uma requisição
+    private static final int SQS_BILLING_CHUNK = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private ClaimCheckCodec codec;
+    private ClaimCheckMessageConverter converter;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        codec = new ClaimCheckCodec(mapper, new FileSystemBlobStore(dir), THRESHOLD);
+        converter = new ClaimCheckMessageConverter(codec);
+    }
+
+    @Test
+    void payloadPequenoSegueInline() throws Exception {
+        Message<?> message = converter.toMessage(Map.of("event", "GREETING"), null);
+
+        assertThat(message.getHeaders()).doesNotContainKey(ClaimCheckCodec.POINTER_ATTRIBUTE);
+        assertThat(Files.list(dir)).isEmpty();
+    }
+
+    @Test
+    void payloadGrandeViraPonteiroEResolveSobDemanda() throws Exception {
+        Map<String, String> payload = Map.of("data", "x".repeat(THRESHOLD + 1));
+
+        Message<?> message = converter.toMessage(payload, new MessageHeaders(Map.of("contentType", "application/json")));
+        String body = (String) message.getPayload();
+
+        assertThat(message.getHeaders()).containsEntry(ClaimCheckCodec.POINTER_ATTRIBUTE, "true")
+                .containsEntry("contentType", "application/json");
+        assertThat(body.length()).isLessThan(256);
+        assertThat(converter.fromMessage(message, Map.class)).isEqualTo(payload);
+        try (var in = codec.open(body, true)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).startsWith("{\"data\":\"xxx");
+        }
+
+        codec.release(body, true);
+        assertThat(Files.list(dir)).isEmpty();
+    }
+
+    @Test
+    void corpoInlineParecidoComPonteiroNaoEhResolvido() {
+        String body = "{\"@claimCheck\":{\"store\":\"fs\",\"key\":\"inexistente\",\"size\":1}}";
+
+        Object payload = converter.fromMessage(MessageBuilder.withPayload(body).build(), Map.class);
+
+        assertThat(payload).isEqualTo(Map.of("@claimCheck", Map.of("store", "fs", "key", "inexistente", "size", 1)));
+    }
+
+    @Test
+    void releaseCallbackApagaBlobDepoisDoAck() throws Exception {
+        ClaimCheckCodec.Encoded encoded = codec.encode(Map.of("data", "x".repeat(THRESHOLD + 1)));
+        var source = software.amazon.awssdk.services.sqs.model.Message.builder()
+                .messageId("1")
+                .body(encoded.body())
+                .messageAttributes(Map.of(ClaimCheckCodec.POINTER_ATTRIBUTE, MessageAttributeValue.builder()
+                        .dataType("String").stringValue("true").build()))
+                .build();
+        Message<Object> message = MessageBuilder.<Object>withPayload(Map.of())
+                .setHeader(SqsHeaders.SQS_SOURCE_DATA_HEADER, source)
+                .build();
+
+        new ClaimCheckReleaseCallback(codec).onSuccess(List.of(message));
+
+        assertThat(Files.list(dir)).isEmpty();
+    }
+
+    /**
+     * Tamanho da mensagem, blocos cobrados pelo SQS e custo de encode/decode por tamanho de payload.
+     */
+    @Test
+    @Tag("benchmark")
+    void medePorTamanhoDePayload() throws Exception {
+        System.out.printf("%10s %10s %8s %10s %10s%n", "payload", "msg", "chunks", "enc(us)", "dec(us)");
+        for (int size : new int[]{1_024, 16_384, 65_536, 131_072, 262_144, 1_048_576, 4_194_304}) {
+            Map<String, String> payload = Map.of("data", "x".repeat(size));
+            long encStart = System.nanoTime();
+            Message<?> message = converter.toMessage(payload, null);
+            String body = (String) message.getPayload();
+            long encNanos = System.nanoTime() - encStart;
+            long decStart = System.nanoTime();
+            converter.fromMessage(message, Map.class);
+            long decNanos = System.nanoTime() - decStart;
+
+            int messageBytes = body.getBytes(StandardCharsets.UTF_8).length;
+            assertThat(messageBytes).isLessThanOrEqualTo(256 * 1024);
+            System.out.printf("%10d %10d %8d %10d %10d%n", size, messageBytes,
+                    (messageBytes + SQS_BILLING_CHUNK - 1) / SQS_BILLING_CHUNK, encNanos / 1_000, decNanos / 1_000);
+            codec.release(body, ClaimCheckMessageConverter.isPointer(message.getHeaders()));
+        }
+    }
+}
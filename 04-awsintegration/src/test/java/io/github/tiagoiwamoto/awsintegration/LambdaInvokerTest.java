@@ -0,0 +1,126 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.lambda.LambdaClient;
+import software.amazon.awssdk.services.lambda.model.InvocationType;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exercita o {@link LambdaInvoker} contra um stand-in HTTP local da API de invocação do Lambda.
+ */
+class LambdaInvokerTest {
+
+    private static final int MAX_CONCURRENCY = 4;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final AtomicBoolean cold = new AtomicBoolean(true);
+
+    private HttpServer server;
+    private LambdaClient lambdaClient;
+    private SimpleMeterRegistry meterRegistry;
+    private LambdaInvoker invoker;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/2015-03-31/functions/", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                byte[] body = exchange.getRequestBody().readAllBytes();
+                Thread.sleep(20);
+                boolean event = "Event".equals(exchange.getRequestHeaders().getFirst("X-Amz-Invocation-Type"));
+                if (event) {
+                    exchange.sendResponseHeaders(202, -1);
+                    return;
+                }
+                String report = cold.getAndSet(false)
+                        ? "REPORT RequestId: 1 Duration: 1 ms Init Duration: 120.00 ms"
+                        : "REPORT RequestId: 1 Duration: 1 ms";
+                exchange.getResponseHeaders().add("X-Amz-Log-Result",
+                        Base64.getEncoder().encodeToString(report.getBytes(StandardCharsets.UTF_8)));
+                exchange.getResponseHeaders().add("X-Amz-Executed-Version", "$LATEST");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+
+        lambdaClient = LambdaClient.builder()
+                .endpointOverride(URI.create("http://localhost:" + server.getAddress().getPort()))
+                .region(Region.SA_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+        meterRegistry = new SimpleMeterRegistry();
+        var retryExecutor = new AwsRetryExecutor(AwsRetryExecutorTest.settings(false, MAX_CONCURRENCY), meterRegistry);
+        invoker = new LambdaInvoker(() -> lambdaClient, meterRegistry, retryExecutor, MAX_CONCURRENCY, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        invoker.shutdown();
+        lambdaClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void requestResponseDevolvePayloadEmBytes() throws Exception {
+        byte[] payload = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+        var result = invoker.invoke("my-function", payload, InvocationType.REQUEST_RESPONSE);
+
+        assertThat(result.statusCode()).isEqualTo(200);
+        assertThat(result.coldStart()).isTrue();
+        assertThat(result.payloadStream().readAllBytes()).isEqualTo(payload);
+    }
+
+    @Test
+    void eventNaoAguardaPayload() {
+        var result = invoker.invoke("my-function", new byte[]{'{', '}'}, InvocationType.EVENT);
+
+        assertThat(result.statusCode()).isEqualTo(202);
+        assertThat(result.coldStart()).isFalse();
+    }
+
+    @Test
+    void fanOutRespeitaConcorrenciaMaxima() {
+        List<LambdaInvoker.LambdaInvocationRequest> requests = IntStream.range(0, 20)
+                .mapToObj(i -> new LambdaInvoker.LambdaInvocationRequest("fn-" + (i % 2),
+                        SdkBytes.fromUtf8String("{\"n\":" + i + "}"), InvocationType.REQUEST_RESPONSE))
+                .toList();
+
+        var results = invoker.invokeAll(requests).join();
+
+        assertThat(results).hasSize(20).allMatch(r -> r.statusCode() == 200);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(MAX_CONCURRENCY);
+        assertThat(meterRegistry.find("aws.lambda.invoke").timers())
+                .extracting(t -> t.getId().getTag("function"))
+                .contains("fn-0", "fn-1");
+        assertThat(meterRegistry.find("aws.lambda.invoke.cold.starts").counter().count()).isEqualTo(1.0);
+    }
+}
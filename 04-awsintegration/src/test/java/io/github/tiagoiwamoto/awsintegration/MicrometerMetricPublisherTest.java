@@ -0,0 +1,85 @@
+package io.github.tiagoiwamoto.awsintegration;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MicrometerMetricPublisherTest {
+
+    private static final long MAX_OVERHEAD_NANOS = TimeUnit.MILLISECONDS.toNanos(5) / 100;
+
+    @Test
+    void publicaDuracaoTentativasEThrottling() {
+        var registry = new SimpleMeterRegistry();
+        var publisher = new MicrometerMetricPublisher(registry);
+
+        publisher.publish(apiCall(2));
+
+        assertThat(registry.get("aws.sdk.api.call").tag("operation", "SendMessage").timer().count()).isEqualTo(1);
+        assertThat(registry.get("aws.sdk.api.call.attempts").summary().totalAmount()).isEqualTo(3);
+        assertThat(registry.get("aws.sdk.api.call.retries").counter().count()).isEqualTo(2);
+        assertThat(registry.get("aws.sdk.api.call.throttles").counter().count()).isEqualTo(2);
+        assertThat(registry.get("aws.sdk.http.acquire").timer().count()).isEqualTo(3);
+        // o painel do Grafana consulta aws_sdk_http_acquire_seconds_bucket
+        assertThat(registry.get("aws.sdk.http.acquire").timer().takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    /**
+     * Custo do publisher por chamada de API. Como referência imprime o custo do próprio SDK para coletar as
+     * métricas da chamada ({@code apiCall}); o limite é 1% de uma chamada SQS rápida (5 ms). Mede tempo de
+     * parede, então só roda com {@code -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    void overheadDaInstrumentacao() {
+        var publisher = new MicrometerMetricPublisher(new SimpleMeterRegistry());
+        MetricCollection metrics = apiCall(0);
+        int iterations = 200_000;
+
+        for (int i = 0; i < iterations; i++) {
+            publisher.publish(metrics);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            publisher.publish(metrics);
+        }
+        long instrumented = (System.nanoTime() - start) / iterations;
+
+        long collectStart = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            apiCall(0);
+        }
+        long collectOnly = (System.nanoTime() - collectStart) / iterations;
+
+        System.out.printf("publish: %d ns/call, coleta do SDK: %d ns/call%n", instrumented, collectOnly);
+        assertThat(instrumented).isLessThan(MAX_OVERHEAD_NANOS);
+    }
+
+    private static MetricCollection apiCall(int throttledAttempts) {
+        MetricCollector call = MetricCollector.create("ApiCall");
+        call.reportMetric(CoreMetric.SERVICE_ID, "SQS");
+        call.reportMetric(CoreMetric.OPERATION_NAME, "SendMessage");
+        call.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, true);
+        call.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(12));
+        call.reportMetric(CoreMetric.RETRY_COUNT, throttledAttempts);
+        for (int i = 0; i <= throttledAttempts; i++) {
+            MetricCollector attempt = call.createChild("ApiCallAttempt");
+            attempt.reportMetric(CoreMetric.SERVICE_CALL_DURATION, Duration.ofMillis(4));
+            if (i < throttledAttempts) {
+                attempt.reportMetric(CoreMetric.ERROR_TYPE, "Throttling");
+            }
+            MetricCollector http = attempt.createChild("HttpClient");
+            http.reportMetric(HttpMetric.CONCURRENCY_ACQUIRE_DURATION, Duration.ofNanos(800));
+        }
+        return call.collect();
+    }
+}
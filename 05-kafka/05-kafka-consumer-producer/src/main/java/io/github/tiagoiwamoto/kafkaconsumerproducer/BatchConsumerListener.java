@@ -0,0 +1,71 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumer.mode", havingValue = "batch")
+@Slf4j
+public class BatchConsumerListener {
+
+    private final UserProcessor userProcessor;
+    private final KeyOrderedBatchProcessor<String, User> batchProcessor;
+
+    /**
+     * Falhas voltam com atraso exponencial; esgotadas as tentativas o registro vai para o mesmo DLT do
+     * {@link ConsumerListener}, com os headers x-failure-*, e a partição segue.
+     */
+    public BatchConsumerListener(UserProcessor userProcessor,
+                                 @Qualifier("kafkaTemplate") KafkaTemplate<String, User> kafkaTemplate,
+                                 KafkaRetryConfig kafkaRetryConfig,
+                                 @Value("${app.kafka.retry.dlt-suffix:-dlt}") String dltSuffix,
+                                 @Value("${app.kafka.batch.retry.attempts:4}") int maxRetries,
+                                 @Value("${app.kafka.batch.retry.delay-ms:500}") long delayMs,
+                                 @Value("${app.kafka.batch.retry.multiplier:2}") double multiplier,
+                                 @Value("${app.kafka.batch.retry.max-delay-ms:10000}") long maxDelayMs) {
+        this.userProcessor = userProcessor;
+        var recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> new TopicPartition(record.topic() + dltSuffix, -1));
+        recoverer.addHeadersFunction(kafkaRetryConfig.failureHeaders());
+        var backOff = new ExponentialBackOff(delayMs, multiplier);
+        backOff.setMaxInterval(maxDelayMs);
+        backOff.setMaxAttempts(maxRetries);
+        this.batchProcessor = new KeyOrderedBatchProcessor<>(backOff, recoverer);
+    }
+
+    @KafkaListener(id = "users-batch-consumer", topics = "${kafka.topic.user:users}",
+            groupId = "${spring.kafka.consumer.group-id}", containerFactory = "batchKafkaListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, User>> records, Consumer<?, ?> consumer) throws InterruptedException {
+        var result = batchProcessor.process(records, userProcessor::process);
+
+        // commit e seek na própria thread do listener, que é a dona do consumer
+        consumer.commitSync(result.commits());
+        result.rewinds().forEach((partition, offset) -> {
+            log.warn("Reposicionando {} no offset {} para reprocessar falhas", partition, offset);
+            consumer.seek(partition, offset);
+        });
+        if (result.backOffMillis() > 0) {
+            // max-delay-ms fica bem abaixo de max.poll.interval.ms
+            Thread.sleep(result.backOffMillis());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        batchProcessor.close();
+    }
+}
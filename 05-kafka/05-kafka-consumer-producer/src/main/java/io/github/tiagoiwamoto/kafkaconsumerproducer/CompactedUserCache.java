@@ -0,0 +1,196 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Visão local do último User por id, alimentada por um tópico compactado. Cada instância lê todas as partições
+ * (assign, sem grupo) e guarda os bytes do tópico; na subida carrega o snapshot e continua dos offsets gravados
+ * nele em vez de reler o tópico desde o início. Um snapshot ilegível é apagado e o tópico relido do início.
+ * <p>
+ * O consumer segue o ciclo de vida do contexto: no stop (shutdown ou checkpoint CRaC) fecha a conexão e grava o
+ * snapshot; no start seguinte (restore) volta a consumir dos offsets que já estão em memória.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.user-cache.enabled", havingValue = "true")
+@Slf4j
+public class CompactedUserCache implements SmartLifecycle {
+
+    private final Map<String, Object> consumerProps;
+    private final Deserializer<User> deserializer;
+    private final String topic;
+    private final Path snapshotFile;
+    private final long snapshotIntervalMs;
+    private final UserCacheStore store;
+    private final CountDownLatch caughtUp = new CountDownLatch(1);
+
+    private volatile KafkaConsumer<String, byte[]> consumer;
+    private volatile boolean running;
+    private boolean snapshotLoaded;
+    private Thread pollThread;
+
+    public CompactedUserCache(ConsumerFactory<String, User> consumerFactory,
+                              KafkaConfig kafkaConfig,
+                              @Value("${app.kafka.user-cache.topic:${kafka.topic.user:users}}") String topic,
+                              @Value("${app.kafka.user-cache.snapshot-file:${java.io.tmpdir}/users-cache.snapshot}") String snapshotFile,
+                              @Value("${app.kafka.user-cache.snapshot-interval-ms:60000}") long snapshotIntervalMs,
+                              @Value("${app.kafka.user-cache.expected-size:1000000}") int expectedSize) {
+        this.consumerProps = new HashMap<>(consumerFactory.getConfigurationProperties());
+        this.consumerProps.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        this.consumerProps.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        this.consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.deserializer = UserSerdes.newDeserializer(kafkaConfig.serdeMode());
+        this.deserializer.configure(kafkaConfig.userSerdeConfigs(), false);
+        this.topic = topic;
+        this.snapshotFile = Path.of(snapshotFile);
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        this.store = new UserCacheStore(expectedSize);
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!snapshotLoaded) {
+            long start = System.nanoTime();
+            try {
+                if (store.loadSnapshot(snapshotFile)) {
+                    log.info("Snapshot {} carregado: {} users em {} ms", snapshotFile, store.size(),
+                            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+            } catch (IOException e) {
+                // Snapshot ilegível não impede a subida: o cache é reconstruído desde o início do tópico
+                log.warn("Snapshot {} inválido; descartado, relendo {} desde o início", snapshotFile, topic, e);
+                deleteSnapshot();
+            }
+            snapshotLoaded = true;
+        }
+        running = true;
+        pollThread = Thread.ofVirtual().name("user-cache-" + topic).start(this::run);
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+        KafkaConsumer<String, byte[]> current = consumer;
+        if (current != null) {
+            current.wakeup();
+        }
+        try {
+            pollThread.join(Duration.ofSeconds(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // O cache está pronto antes do servidor web, como no antigo @PostConstruct (fases no readme da raiz, "Fast start")
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    public Optional<User> get(String id) {
+        byte[] value = store.get(id);
+        return value == null ? Optional.empty() : Optional.of(deserializer.deserialize(topic, value));
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Aguarda o cache alcançar os end offsets lidos na subida.
+     */
+    public boolean awaitCaughtUp(Duration timeout) throws InterruptedException {
+        return caughtUp.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void run() {
+        try (KafkaConsumer<String, byte[]> kafkaConsumer = new KafkaConsumer<>(consumerProps,
+                new StringDeserializer(), new ByteArrayDeserializer())) {
+            consumer = kafkaConsumer;
+            List<TopicPartition> partitions = kafkaConsumer.partitionsFor(topic).stream()
+                    .map(info -> new TopicPartition(topic, info.partition()))
+                    .toList();
+            kafkaConsumer.assign(partitions);
+            Map<Integer, Long> offsets = store.nextOffsets();
+            for (TopicPartition partition : partitions) {
+                Long next = offsets.get(partition.partition());
+                if (next == null) {
+                    kafkaConsumer.seekToBeginning(List.of(partition));
+                } else {
+                    kafkaConsumer.seek(partition, next);
+                }
+            }
+            Map<TopicPartition, Long> endOffsets = kafkaConsumer.endOffsets(partitions);
+            long lastSnapshot = System.currentTimeMillis();
+            while (running) {
+                for (ConsumerRecord<String, byte[]> record : kafkaConsumer.poll(Duration.ofSeconds(1))) {
+                    store.apply(record.key(), record.value(), record.partition(), record.offset());
+                }
+                if (caughtUp.getCount() > 0 && endOffsets.entrySet().stream()
+                        .allMatch(end -> kafkaConsumer.position(end.getKey()) >= end.getValue())) {
+                    log.info("Cache de users em dia com {}: {} users", topic, store.size());
+                    caughtUp.countDown();
+                }
+                if (System.currentTimeMillis() - lastSnapshot >= snapshotIntervalMs) {
+                    snapshot();
+                    lastSnapshot = System.currentTimeMillis();
+                }
+            }
+        } catch (WakeupException e) {
+            // shutdown
+        } catch (RuntimeException e) {
+            log.error("Consumer do cache de users parou", e);
+        } finally {
+            consumer = null;
+            snapshot();
+        }
+    }
+
+    private void deleteSnapshot() {
+        try {
+            Files.deleteIfExists(snapshotFile);
+        } catch (IOException e) {
+            log.warn("Falha ao apagar snapshot {}", snapshotFile, e);
+        }
+    }
+
+    private void snapshot() {
+        try {
+            long start = System.nanoTime();
+            store.writeSnapshot(snapshotFile);
+            log.debug("Snapshot {} gravado: {} users em {} ms", snapshotFile, store.size(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException e) {
+            log.warn("Falha ao gravar snapshot {}", snapshotFile, e);
+        }
+    }
+}
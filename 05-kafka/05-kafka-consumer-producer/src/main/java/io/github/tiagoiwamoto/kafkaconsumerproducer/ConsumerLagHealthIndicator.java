@@ -0,0 +1,56 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lag dos consumers a partir do {@code records-lag} por partição publicado pelo MicrometerConsumerListener.
+ * Acima do limite o status é LAGGING (HTTP 200): sinal para escalar, não para reiniciar o pod.
+ * O total também sai no gauge {@code kafka.consumer.lag.total} para o autoscaler via Prometheus.
+ */
+@Component("consumerLag")
+public class ConsumerLagHealthIndicator implements HealthIndicator {
+
+    public static final Status LAGGING = new Status("LAGGING", "Lag acima do limite configurado");
+
+    private static final String RECORDS_LAG = "kafka.consumer.fetch.manager.records.lag";
+
+    private final MeterRegistry meterRegistry;
+    private final long threshold;
+
+    public ConsumerLagHealthIndicator(MeterRegistry meterRegistry,
+                                      @Value("${app.kafka.consumer.lag-threshold:10000}") long threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        Gauge.builder("kafka.consumer.lag.total", this, ConsumerLagHealthIndicator::totalLag)
+                .baseUnit("records")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Health health() {
+        double total = totalLag();
+        double max = meterRegistry.find(RECORDS_LAG).gauges().stream()
+                .mapToDouble(Gauge::value)
+                .filter(Double::isFinite)
+                .max()
+                .orElse(0);
+        return Health.status(max > threshold ? LAGGING : Status.UP)
+                .withDetail("totalLag", (long) total)
+                .withDetail("maxPartitionLag", (long) max)
+                .withDetail("threshold", threshold)
+                .build();
+    }
+
+    double totalLag() {
+        return meterRegistry.find(RECORDS_LAG).gauges().stream()
+                .mapToDouble(Gauge::value)
+                .filter(Double::isFinite)
+                .sum();
+    }
+}
@@ -1,17 +1,47 @@
 package io.github.tiagoiwamoto.kafkaconsumerproducer;
 
 import io.github.tiagoiwamoto.avro.User;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "app.kafka.consumer.mode", havingValue = "record", matchIfMissing = true)
+@Slf4j
 public class ConsumerListener {
 
-    @KafkaListener(topics = "${kafka.topic.user:users}", groupId = "${spring.kafka.consumer.group-id}")
+    private final UserProcessor userProcessor;
+
+    public ConsumerListener(UserProcessor userProcessor) {
+        this.userProcessor = userProcessor;
+    }
+
+    // Falhas seguem para users-retry-<delay> e users-dlt sem bloquear a partição (ver KafkaRetryConfig)
+    @RetryableTopic(
+            attempts = "${app.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.retry.delay-ms:1000}",
+                    multiplierExpression = "${app.kafka.retry.multiplier:4}",
+                    maxDelayExpression = "${app.kafka.retry.max-delay-ms:60000}"),
+            listenerContainerFactory = "retryKafkaListenerContainerFactory",
+            kafkaTemplate = "kafkaTemplate",
+            concurrency = "${app.kafka.retry.concurrency:1}",
+            autoCreateTopics = "${app.kafka.retry.auto-create-topics:true}")
+    @KafkaListener(id = "users-consumer", topics = "${kafka.topic.user:users}",
+            groupId = "${spring.kafka.consumer.group-id}", containerFactory = "kafkaListenerContainerFactory")
     public void listen(ConsumerRecord<String, User> record) {
-        User user = record.value();
-        System.out.println("Consumed user: " + user);
+        userProcessor.process(record);
     }
-}
 
+    @DltHandler
+    public void dlt(ConsumerRecord<String, User> record,
+                    @Header(name = KafkaHeaders.DLT_EXCEPTION_MESSAGE, required = false) String exceptionMessage) {
+        log.error("User {} enviado ao DLT {}: {}", record.key(), record.topic(), exceptionMessage);
+    }
+}
@@ -0,0 +1,24 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/kafka/dlt")
+public class DltReplayRest {
+
+    private final DltReplayer dltReplayer;
+
+    public DltReplayRest(DltReplayer dltReplayer) {
+        this.dltReplayer = dltReplayer;
+    }
+
+    @PostMapping("/replay")
+    public Map<String, Integer> replay(@RequestParam(defaultValue = "1000") int max) {
+        return Map.of("replayed", dltReplayer.replay(max));
+    }
+}
@@ -0,0 +1,130 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Republica registros do DLT no tópico principal, byte a byte (sem deserializar o User).
+ * O progresso fica no grupo {@code app.kafka.retry.replay-group-id}: cada chamada continua de onde a anterior parou.
+ * Os headers de controle do retry (retry_topic-*, kafka_dlt-*) são removidos para o registro recomeçar as
+ * tentativas; os x-failure-* ficam como histórico.
+ */
+@Service
+@Slf4j
+public class DltReplayer {
+
+    public static final String REPLAYED_FROM = "x-replayed-from";
+
+    private final Map<String, Object> consumerProps;
+    private final Map<String, Object> producerProps;
+    private final String topic;
+    private final String dltTopic;
+
+    public DltReplayer(ConsumerFactory<String, User> consumerFactory,
+                       ProducerFactory<String, User> producerFactory,
+                       @Value("${kafka.topic.user:users}") String topic,
+                       @Value("${app.kafka.retry.dlt-suffix:-dlt}") String dltSuffix,
+                       @Value("${app.kafka.retry.replay-group-id:users-dlt-replay}") String replayGroupId) {
+        this.consumerProps = new HashMap<>(consumerFactory.getConfigurationProperties());
+        this.consumerProps.put(ConsumerConfig.GROUP_ID_CONFIG, replayGroupId);
+        this.consumerProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        this.consumerProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        this.consumerProps.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+        this.producerProps = new HashMap<>(producerFactory.getConfigurationProperties());
+        this.topic = topic;
+        this.dltTopic = topic + dltSuffix;
+    }
+
+    /**
+     * Reenvia até {@code max} registros e commita o DLT só depois que todos os envios do poll foram confirmados.
+     * O commit leva o offset explícito de cada partição; se algum envio falhar nada do poll é commitado e o
+     * próximo replay reenvia o lote inteiro (pode duplicar no tópico principal, nunca perde).
+     *
+     * @return quantidade de registros reenviados
+     */
+    public int replay(int max) {
+        int replayed = 0;
+        try (var consumer = new KafkaConsumer<>(consumerProps, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+             var producer = new KafkaProducer<>(producerProps, new ByteArraySerializer(), new ByteArraySerializer())) {
+            consumer.subscribe(List.of(dltTopic));
+            while (replayed < max) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(Duration.ofSeconds(2));
+                if (records.isEmpty()) {
+                    break;
+                }
+                List<Future<RecordMetadata>> sends = new ArrayList<>();
+                Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+                for (TopicPartition partition : records.partitions()) {
+                    for (ConsumerRecord<byte[], byte[]> record : records.records(partition)) {
+                        if (replayed == max) {
+                            // Volta uma vez só, para o primeiro registro não reenviado desta partição
+                            consumer.seek(partition, record.offset());
+                            break;
+                        }
+                        sends.add(producer.send(new ProducerRecord<>(topic, null, record.key(), record.value(),
+                                replayHeaders(record))));
+                        commits.put(partition, new OffsetAndMetadata(record.offset() + 1));
+                        replayed++;
+                    }
+                }
+                producer.flush();
+                awaitSends(sends);
+                consumer.commitSync(commits);
+            }
+        }
+        log.info("Reenviados {} registros de {} para {}", replayed, dltTopic, topic);
+        return replayed;
+    }
+
+    private void awaitSends(List<Future<RecordMetadata>> sends) {
+        for (Future<RecordMetadata> send : sends) {
+            try {
+                send.get();
+            } catch (ExecutionException e) {
+                throw new KafkaException("Falha ao reenviar registro de " + dltTopic + " para " + topic, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new KafkaException("Replay de " + dltTopic + " interrompido", e);
+            }
+        }
+    }
+
+    private static RecordHeaders replayHeaders(ConsumerRecord<byte[], byte[]> record) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("retry_topic-") && !header.key().startsWith("kafka_dlt-")) {
+                headers.add(header);
+            }
+        }
+        headers.add(REPLAYED_FROM, (record.topic() + "-" + record.partition() + "@" + record.offset())
+                .getBytes(StandardCharsets.UTF_8));
+        return headers;
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.transaction.KafkaTransactionManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Consume-transform-produce exactly-once: o container abre uma transação por poll, o listener publica
+ * os Users enriquecidos no mesmo producer transacional e os offsets entram na transação antes do commit.
+ * {@code app.kafka.eos.transaction-size} (max.poll.records) define quantos registros cada commit amortiza.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.kafka.eos.enabled", havingValue = "true")
+public class EosPipelineConfig {
+
+    @Value("${app.kafka.eos.transaction-id-prefix:users-enrichment-tx-}")
+    private String transactionIdPrefix;
+
+    @Value("${app.kafka.eos.transaction-size:500}")
+    private Integer transactionSize;
+
+    @Value("${app.kafka.eos.concurrency:1}")
+    private Integer concurrency;
+
+    @Bean
+    public ProducerFactory<String, User> transactionalProducerFactory(ProducerFactory<String, User> producerFactory) {
+        // Mesmas propriedades do producer @Primary (serde, SSL, tuning)
+        Map<String, Object> props = new HashMap<>(producerFactory.getConfigurationProperties());
+        // Transações exigem idempotência e acks=all
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        DefaultKafkaProducerFactory<String, User> factory = new DefaultKafkaProducerFactory<>(props);
+        factory.setTransactionIdPrefix(transactionIdPrefix);
+        return factory;
+    }
+
+    @Bean
+    public KafkaTemplate<String, User> transactionalKafkaTemplate(@Qualifier("transactionalProducerFactory") ProducerFactory<String, User> transactionalProducerFactory) {
+        return new KafkaTemplate<>(transactionalProducerFactory);
+    }
+
+    @Bean
+    public KafkaTransactionManager<String, User> kafkaTransactionManager(@Qualifier("transactionalProducerFactory") ProducerFactory<String, User> transactionalProducerFactory) {
+        return new KafkaTransactionManager<>(transactionalProducerFactory);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, User> eosKafkaListenerContainerFactory(
+            ConsumerFactory<String, User> consumerFactory, KafkaTransactionManager<String, User> kafkaTransactionManager) {
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        // Só lê o que foi commitado; offsets são commitados pela transação, nunca pelo consumer
+        props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, transactionSize);
+
+        ConcurrentKafkaListenerContainerFactory<String, User> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setKafkaAwareTransactionManager(kafkaTransactionManager);
+        return factory;
+    }
+}
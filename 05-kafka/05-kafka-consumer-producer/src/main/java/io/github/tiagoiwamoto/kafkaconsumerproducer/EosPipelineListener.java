@@ -0,0 +1,44 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Roda dentro da transação aberta pelo container: uma exceção aborta a transação e o lote é relido.
+ * O User enriquecido sai com o timestamp do registro de origem, como no Kafka Streams.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.eos.enabled", havingValue = "true")
+public class EosPipelineListener {
+
+    private final KafkaTemplate<String, User> transactionalKafkaTemplate;
+    private final UserEnricher userEnricher;
+    private final String enrichedTopic;
+
+    public EosPipelineListener(@Qualifier("transactionalKafkaTemplate") KafkaTemplate<String, User> transactionalKafkaTemplate,
+                               UserEnricher userEnricher,
+                               @Value("${app.kafka.eos.output-topic:users-enriched}") String enrichedTopic) {
+        this.transactionalKafkaTemplate = transactionalKafkaTemplate;
+        this.userEnricher = userEnricher;
+        this.enrichedTopic = enrichedTopic;
+    }
+
+    @KafkaListener(id = "users-enrichment", topics = "${kafka.topic.user:users}",
+            groupId = "${app.kafka.eos.group-id:users-enrichment}",
+            containerFactory = "eosKafkaListenerContainerFactory")
+    public void listen(List<ConsumerRecord<String, User>> records) {
+        for (ConsumerRecord<String, User> record : records) {
+            User user = record.value() == null ? null : userEnricher.enrich(record.value());
+            transactionalKafkaTemplate.send(new ProducerRecord<>(enrichedTopic, null, record.timestamp(), record.key(), user));
+        }
+    }
+}
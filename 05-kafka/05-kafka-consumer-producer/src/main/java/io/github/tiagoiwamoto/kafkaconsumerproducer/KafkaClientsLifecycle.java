@@ -0,0 +1,53 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fecha os producers em cache das {@link DefaultKafkaProducerFactory} quando o contexto para, inclusive antes de um
+ * checkpoint CRaC, que falha com sockets abertos. Containers de listener, Kafka Streams e o
+ * {@link CompactedUserCache} já seguem o ciclo de vida; consumers são criados por container e o
+ * {@link DltReplayer} abre e fecha os seus a cada replay. Depois do restore os producers são recriados no primeiro
+ * envio, com o bootstrap e as credenciais do ambiente novo.
+ */
+@Component
+@Slf4j
+public class KafkaClientsLifecycle implements SmartLifecycle {
+
+    private final ObjectProvider<ProducerFactory<?, ?>> producerFactories;
+    private volatile boolean running;
+
+    public KafkaClientsLifecycle(ObjectProvider<ProducerFactory<?, ?>> producerFactories) {
+        this.producerFactories = producerFactories;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        producerFactories.orderedStream()
+                .filter(DefaultKafkaProducerFactory.class::isInstance)
+                .map(DefaultKafkaProducerFactory.class::cast)
+                .forEach(DefaultKafkaProducerFactory::reset);
+        running = false;
+        log.info("Producers Kafka fechados; serão recriados no próximo envio");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Listeners e servidor web ainda produzem (ordem das fases no readme da raiz, "Fast start")
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.tiagoiwamoto.kafkaconsumerproducer;
 
 import io.github.tiagoiwamoto.avro.User;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -8,12 +9,16 @@ import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.MicrometerConsumerListener;
+import org.springframework.kafka.core.MicrometerProducerListener;
 import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -24,9 +29,18 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
-    @Value("${spring.kafka.properties.schema.registry.url}")
+    @Value("${spring.kafka.properties.schema.registry.url:}")
     private String schemaRegistryUrl;
 
+    @Value("${kafka.topic.user}")
+    private String topic;
+
+    @Value("${app.kafka.serde.mode:confluent}")
+    private String serdeMode;
+
+    @Value("${app.kafka.serde.auto-register:false}")
+    private String serdeAutoRegister;
+
     @Value("${spring.kafka.properties.security.protocol:}")
     private String securityProtocol;
 
@@ -45,85 +59,189 @@ public class KafkaConfig {
     @Value("${spring.kafka.properties.ssl.truststore.password:}")
     private String sslTruststorePassword;
 
+    @Value("${app.kafka.producer.acks:}")
+    private String producerAcks;
+
+    @Value("${app.kafka.producer.enable-idempotence:}")
+    private String producerIdempotence;
+
+    @Value("${app.kafka.producer.linger-ms:}")
+    private String producerLingerMs;
+
+    @Value("${app.kafka.producer.batch-size:}")
+    private String producerBatchSize;
+
+    @Value("${app.kafka.producer.compression-type:}")
+    private String producerCompressionType;
+
+    @Value("${app.kafka.producer.buffer-memory:}")
+    private String producerBufferMemory;
+
+    @Value("${app.kafka.producer.max-in-flight-requests:}")
+    private String producerMaxInFlightRequests;
+
+    @Value("${spring.kafka.consumer.auto-offset-reset:latest}")
+    private String autoOffsetReset;
+
+    @Value("${app.kafka.consumer.concurrency:1}")
+    private Integer consumerConcurrency;
+
+    @Value("${app.kafka.consumer.max-poll-records:500}")
+    private Integer maxPollRecords;
+
+    @Value("${app.kafka.consumer.fetch-min-bytes:1}")
+    private Integer fetchMinBytes;
+
+    @Value("${app.kafka.consumer.fetch-max-wait-ms:500}")
+    private Integer fetchMaxWaitMs;
+
+    @Value("${app.kafka.consumer.assignment-strategy:org.apache.kafka.clients.consumer.CooperativeStickyAssignor}")
+    private String assignmentStrategy;
+
+    @Value("${app.kafka.consumer.group-instance-id:}")
+    private String groupInstanceId;
+
+    @Value("${app.kafka.consumer.session-timeout-ms:45000}")
+    private Integer sessionTimeoutMs;
+
     @Bean
-    public ProducerFactory<String, User> producerFactory() {
+    @Primary
+    public ProducerFactory<String, User> producerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        // Use Confluent Avro serializer (ensure dependency at runtime)
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, "io.confluent.kafka.serializers.KafkaAvroSerializer");
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, UserSerdes.serializerClass(serdeMode));
 
         // Schema registry
-        props.put("schema.registry.url", schemaRegistryUrl);
+        putSerdeProperties(props);
 
         // SSL properties (if provided)
-        if (securityProtocol != null && !securityProtocol.isBlank()) {
-            props.put("security.protocol", securityProtocol);
-        }
-        if (sslKeystoreLocation != null && !sslKeystoreLocation.isBlank()) {
-            props.put("ssl.keystore.location", sslKeystoreLocation);
-        }
-        if (sslKeystorePassword != null && !sslKeystorePassword.isBlank()) {
-            props.put("ssl.keystore.password", sslKeystorePassword);
-        }
-        if (sslKeyPassword != null && !sslKeyPassword.isBlank()) {
-            props.put("ssl.key.password", sslKeyPassword);
-        }
-        if (sslTruststoreLocation != null && !sslTruststoreLocation.isBlank()) {
-            props.put("ssl.truststore.location", sslTruststoreLocation);
-        }
-        if (sslTruststorePassword != null && !sslTruststorePassword.isBlank()) {
-            props.put("ssl.truststore.password", sslTruststorePassword);
-        }
-
-        return new DefaultKafkaProducerFactory<>(props);
+        putSecurityProperties(props);
+
+        // Throughput tuning (perfil "throughput"); vazio mantém o default do cliente Kafka
+        putIfPresent(props, ProducerConfig.ACKS_CONFIG, producerAcks);
+        putIfPresent(props, ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, producerIdempotence);
+        putIfPresent(props, ProducerConfig.LINGER_MS_CONFIG, producerLingerMs);
+        putIfPresent(props, ProducerConfig.BATCH_SIZE_CONFIG, producerBatchSize);
+        putIfPresent(props, ProducerConfig.COMPRESSION_TYPE_CONFIG, producerCompressionType);
+        putIfPresent(props, ProducerConfig.BUFFER_MEMORY_CONFIG, producerBufferMemory);
+        putIfPresent(props, ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION_CONFIG, producerMaxInFlightRequests);
+
+        DefaultKafkaProducerFactory<String, User> factory = new DefaultKafkaProducerFactory<>(props);
+        // Tempo de serialização e métricas do cliente (batch-size, request-latency, record-send-rate)
+        factory.setValueSerializerSupplier(() -> new TimedSerializer<>(UserSerdes.newSerializer(serdeMode), meterRegistry));
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public KafkaTemplate<String, User> kafkaTemplate() {
-        return new KafkaTemplate<>(producerFactory());
+    @Primary
+    public KafkaTemplate<String, User> kafkaTemplate(ProducerFactory<String, User> producerFactory,
+                                                     ProducerMetricsListener producerMetricsListener) {
+        KafkaTemplate<String, User> template = new KafkaTemplate<>(producerFactory);
+        template.setProducerListener(producerMetricsListener);
+        return template;
     }
 
     @Bean
-    public ConsumerFactory<String, User> consumerFactory() {
+    @Primary
+    public ConsumerFactory<String, User> consumerFactory(MeterRegistry meterRegistry) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        // Confluent Avro deserializer
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, "io.confluent.kafka.serializers.KafkaAvroDeserializer");
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, UserSerdes.deserializerClass(serdeMode));
 
         // Schema registry
-        props.put("schema.registry.url", schemaRegistryUrl);
+        putSerdeProperties(props);
         // Avro deserializer specific: return type as SpecificRecord
         props.put("specific.avro.reader", true);
 
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+
+        // Fetch tuning: lotes maiores por poll reduzem round-trips ao broker
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
+
+        // Rebalance incremental: só as partições que mudam de dono param.
+        // Com group.instance.id (membro estático) um restart dentro do session timeout não dispara rebalance;
+        // o container concatena -n ao id de cada consumer filho.
+        props.put(ConsumerConfig.PARTITION_ASSIGNMENT_STRATEGY_CONFIG, assignmentStrategy);
+        putIfPresent(props, ConsumerConfig.GROUP_INSTANCE_ID_CONFIG, groupInstanceId);
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, sessionTimeoutMs);
+
         // SSL
-        if (securityProtocol != null && !securityProtocol.isBlank()) {
-            props.put("security.protocol", securityProtocol);
-        }
-        if (sslKeystoreLocation != null && !sslKeystoreLocation.isBlank()) {
-            props.put("ssl.keystore.location", sslKeystoreLocation);
-        }
-        if (sslKeystorePassword != null && !sslKeystorePassword.isBlank()) {
-            props.put("ssl.keystore.password", sslKeystorePassword);
-        }
-        if (sslKeyPassword != null && !sslKeyPassword.isBlank()) {
-            props.put("ssl.key.password", sslKeyPassword);
-        }
-        if (sslTruststoreLocation != null && !sslTruststoreLocation.isBlank()) {
-            props.put("ssl.truststore.location", sslTruststoreLocation);
-        }
-        if (sslTruststorePassword != null && !sslTruststorePassword.isBlank()) {
-            props.put("ssl.truststore.password", sslTruststorePassword);
-        }
+        putSecurityProperties(props);
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        DefaultKafkaConsumerFactory<String, User> factory = new DefaultKafkaConsumerFactory<>(props);
+        // Tempo de deserialização e métricas do cliente (records-lag por partição, bytes/records consumidos)
+        factory.setValueDeserializerSupplier(() -> new TimedDeserializer<>(UserSerdes.newDeserializer(serdeMode), meterRegistry));
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, User> kafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, User> kafkaListenerContainerFactory(
+            ConsumerFactory<String, User> consumerFactory, KafkaConsumerMetrics consumerMetrics,
+            RebalanceMetrics rebalanceMetrics) {
         ConcurrentKafkaListenerContainerFactory<String, User> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(consumerFactory());
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(consumerConcurrency);
+        factory.setRecordInterceptor(consumerMetrics);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceMetrics);
         return factory;
     }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, User> batchKafkaListenerContainerFactory(
+            ConsumerFactory<String, User> consumerFactory, KafkaConsumerMetrics consumerMetrics,
+            RebalanceMetrics rebalanceMetrics) {
+        ConcurrentKafkaListenerContainerFactory<String, User> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.setConcurrency(consumerConcurrency);
+        factory.setBatchListener(true);
+        factory.setBatchInterceptor(consumerMetrics);
+        factory.getContainerProperties().setConsumerRebalanceListener(rebalanceMetrics);
+        // BatchConsumerListener commita o menor offset concluído por partição
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    /**
+     * Propriedades do serde do User para clientes fora das factories (ex.: Kafka Streams).
+     */
+    public Map<String, Object> userSerdeConfigs() {
+        Map<String, Object> props = new HashMap<>();
+        putSerdeProperties(props);
+        props.put("specific.avro.reader", true);
+        return props;
+    }
+
+    public String serdeMode() {
+        return serdeMode;
+    }
+
+    void putSecurityProperties(Map<String, Object> props) {
+        putIfPresent(props, "security.protocol", securityProtocol);
+        putIfPresent(props, "ssl.keystore.location", sslKeystoreLocation);
+        putIfPresent(props, "ssl.keystore.password", sslKeystorePassword);
+        putIfPresent(props, "ssl.key.password", sslKeyPassword);
+        putIfPresent(props, "ssl.truststore.location", sslTruststoreLocation);
+        putIfPresent(props, "ssl.truststore.password", sslTruststorePassword);
+    }
+
+    private void putSerdeProperties(Map<String, Object> props) {
+        putIfPresent(props, "schema.registry.url", schemaRegistryUrl);
+        if ("registry".equals(serdeMode)) {
+            // Schema pré-registrado por padrão: o serializer só consulta o id no startup
+            props.put(RegistryUserSerializer.SUBJECT, topic + "-value");
+            props.put(RegistryUserSerializer.AUTO_REGISTER, serdeAutoRegister);
+        }
+    }
+
+    private static void putIfPresent(Map<String, Object> props, String key, String value) {
+        if (value != null && !value.isBlank()) {
+            props.put(key, value);
+        }
+    }
 }
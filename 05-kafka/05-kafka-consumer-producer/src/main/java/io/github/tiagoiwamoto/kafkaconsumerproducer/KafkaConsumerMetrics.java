@@ -0,0 +1,92 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Métricas dos listeners de User, com tag apenas por tópico (sem partição/chave):
+ * <ul>
+ *     <li>{@code kafka.consumer.records} (outcome) e {@code kafka.consumer.bytes}: taxas via rate() no Prometheus</li>
+ *     <li>{@code kafka.consumer.e2e.latency}: timestamp do registro até o fim do processamento</li>
+ *     <li>{@code kafka.consumer.batch.size}: registros por lote no listener batch</li>
+ * </ul>
+ */
+@Component
+public class KafkaConsumerMetrics implements RecordInterceptor<String, User>, BatchInterceptor<String, User> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TopicMeters> meters = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSize;
+
+    public KafkaConsumerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.batchSize = DistributionSummary.builder("kafka.consumer.batch.size")
+                .baseUnit("records")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ConsumerRecord<String, User> intercept(ConsumerRecord<String, User> record, Consumer<String, User> consumer) {
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<String, User> record, Consumer<String, User> consumer) {
+        record(record, true);
+    }
+
+    @Override
+    public void failure(ConsumerRecord<String, User> record, Exception exception, Consumer<String, User> consumer) {
+        record(record, false);
+    }
+
+    @Override
+    public ConsumerRecords<String, User> intercept(ConsumerRecords<String, User> records, Consumer<String, User> consumer) {
+        batchSize.record(records.count());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<String, User> records, Consumer<String, User> consumer) {
+        records.forEach(record -> record(record, true));
+    }
+
+    @Override
+    public void failure(ConsumerRecords<String, User> records, Exception exception, Consumer<String, User> consumer) {
+        records.forEach(record -> record(record, false));
+    }
+
+    private void record(ConsumerRecord<?, ?> record, boolean success) {
+        TopicMeters topicMeters = meters.computeIfAbsent(record.topic(), this::register);
+        (success ? topicMeters.succeeded() : topicMeters.failed()).increment();
+        topicMeters.bytes().increment(Math.max(record.serializedKeySize(), 0) + Math.max(record.serializedValueSize(), 0));
+        if (record.timestamp() > 0) {
+            topicMeters.latency().record(Duration.ofMillis(Math.max(System.currentTimeMillis() - record.timestamp(), 0)));
+        }
+    }
+
+    private TopicMeters register(String topic) {
+        return new TopicMeters(
+                Counter.builder("kafka.consumer.records").tag("topic", topic).tag("outcome", "success").register(meterRegistry),
+                Counter.builder("kafka.consumer.records").tag("topic", topic).tag("outcome", "failure").register(meterRegistry),
+                Counter.builder("kafka.consumer.bytes").baseUnit("bytes").tag("topic", topic).register(meterRegistry),
+                Timer.builder("kafka.consumer.e2e.latency").tag("topic", topic).publishPercentileHistogram().register(meterRegistry));
+    }
+
+    private record TopicMeters(Counter succeeded, Counter failed, Counter bytes, Timer latency) {
+    }
+}
@@ -0,0 +1,93 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.retrytopic.DeadLetterPublishingRecovererFactory;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Retry não bloqueante do {@link ConsumerListener}: falhas vão para tópicos de retry com atraso exponencial
+ * e, esgotadas as tentativas, para o DLT. Os consumers de retry/DLT usam uma factory própria, com poucos
+ * registros por poll e taxa limitada, e cada registro publicado leva os headers x-failure-* além dos
+ * kafka_dlt-* do Spring Kafka.
+ */
+@Configuration
+public class KafkaRetryConfig extends RetryTopicConfigurationSupport {
+
+    public static final String FAILURE_HOST = "x-failure-host";
+    public static final String FAILURE_APPLICATION = "x-failure-application";
+    public static final String FAILURE_ROOT_CAUSE = "x-failure-root-cause";
+    public static final String FAILURE_TIMESTAMP = "x-failure-timestamp";
+
+    @Value("${spring.application.name}")
+    private String applicationName;
+
+    @Value("${app.kafka.retry.max-poll-records:10}")
+    private Integer retryMaxPollRecords;
+
+    @Value("${app.kafka.retry.rate-per-second:50}")
+    private Double retryRatePerSecond;
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, User> retryKafkaListenerContainerFactory(
+            ConsumerFactory<String, User> consumerFactory) {
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, retryMaxPollRecords);
+        // Membro estático só no listener principal; cada tópico de retry tem seu próprio consumer
+        props.remove(ConsumerConfig.GROUP_INSTANCE_ID_CONFIG);
+
+        ConcurrentKafkaListenerContainerFactory<String, User> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setRecordInterceptor(new RateLimitingRecordInterceptor(retryRatePerSecond));
+        return factory;
+    }
+
+    @Override
+    protected Consumer<DeadLetterPublishingRecovererFactory> configureDeadLetterPublishingContainerFactory() {
+        return factory -> factory.setDeadLetterPublishingRecovererCustomizer(recoverer ->
+                recoverer.addHeadersFunction(failureHeaders()));
+    }
+
+    /**
+     * Headers x-failure-* gravados em todo registro publicado no DLT, também pelo {@link BatchConsumerListener}.
+     */
+    public BiFunction<ConsumerRecord<?, ?>, Exception, Headers> failureHeaders() {
+        byte[] host = hostName().getBytes(StandardCharsets.UTF_8);
+        byte[] application = applicationName.getBytes(StandardCharsets.UTF_8);
+        return (record, exception) -> {
+            Throwable rootCause = NestedExceptionUtils.getMostSpecificCause(exception);
+            return new RecordHeaders()
+                    .add(FAILURE_HOST, host)
+                    .add(FAILURE_APPLICATION, application)
+                    .add(FAILURE_ROOT_CAUSE, rootCause.getClass().getName().getBytes(StandardCharsets.UTF_8))
+                    .add(FAILURE_TIMESTAMP, Instant.now().toString().getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.KStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Configuration
+@EnableKafkaStreams
+@ConditionalOnProperty(name = "app.kafka.streams.enabled", havingValue = "true")
+public class KafkaStreamsConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${kafka.topic.user}")
+    private String topic;
+
+    @Value("${app.kafka.streams.application-id:users-stats}")
+    private String applicationId;
+
+    @Value("${app.kafka.streams.threads:1}")
+    private Integer threads;
+
+    @Value("${app.kafka.streams.commit-interval-ms:1000}")
+    private Long commitIntervalMs;
+
+    @Value("${app.kafka.streams.cache-max-bytes:67108864}")
+    private Long cacheMaxBytes;
+
+    @Value("${app.kafka.streams.state-dir:${java.io.tmpdir}/kafka-streams}")
+    private String stateDir;
+
+    @Value("${app.kafka.streams.rocksdb.block-cache-bytes:33554432}")
+    private Long rocksDbBlockCacheBytes;
+
+    @Value("${app.kafka.streams.rocksdb.write-buffer-bytes:8388608}")
+    private Long rocksDbWriteBufferBytes;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration kafkaStreamsConfiguration(KafkaConfig kafkaConfig) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.NUM_STREAM_THREADS_CONFIG, threads);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+
+        // Commit curto deixa as consultas interativas mais frescas; o cache agrupa updates do mesmo id entre commits
+        props.put(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, commitIntervalMs);
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, cacheMaxBytes);
+
+        // RocksDB com block cache compartilhado
+        props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, UserStatsRocksDBConfig.class);
+        props.put(UserStatsRocksDBConfig.BLOCK_CACHE_BYTES, rocksDbBlockCacheBytes);
+        props.put(UserStatsRocksDBConfig.WRITE_BUFFER_BYTES, rocksDbWriteBufferBytes);
+
+        kafkaConfig.putSecurityProperties(props);
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    @Bean
+    public KStream<String, User> userStatsStream(StreamsBuilder builder, KafkaConfig kafkaConfig) {
+        return UserStatsTopology.build(builder, topic,
+                UserSerdes.serde(kafkaConfig.serdeMode(), kafkaConfig.userSerdeConfigs()));
+    }
+}
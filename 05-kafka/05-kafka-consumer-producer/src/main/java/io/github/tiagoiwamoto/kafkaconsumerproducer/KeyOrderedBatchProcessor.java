@@ -0,0 +1,143 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerRecordRecoverer;
+import org.springframework.util.backoff.BackOff;
+import org.springframework.util.backoff.BackOffExecution;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Processa um lote do poll em paralelo, em virtual threads, mantendo a ordem por chave dentro da partição.
+ * Registros da mesma chave rodam em sequência; chaves diferentes rodam em paralelo.
+ * O offset a commitar por partição é o menor offset que ainda não foi concluído com sucesso.
+ * <p>
+ * Cada offset que falha ganha uma {@link BackOffExecution}; enquanto ela devolve atrasos o registro volta na
+ * próxima entrega depois de {@link BatchResult#backOffMillis()}. Quando ela devolve {@link BackOffExecution#STOP}
+ * o registro vai para o recoverer (ex.: DeadLetterPublishingRecoverer) e conta como concluído.
+ */
+@Slf4j
+public class KeyOrderedBatchProcessor<K, V> implements AutoCloseable {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BackOff backOff;
+    private final ConsumerRecordRecoverer recoverer;
+    private final Map<FailedOffset, BackOffExecution> failures = new ConcurrentHashMap<>();
+
+    /**
+     * Sem limite de tentativas nem atraso: o registro que falha é reentregue até dar certo.
+     */
+    public KeyOrderedBatchProcessor() {
+        this(new FixedBackOff(0, FixedBackOff.UNLIMITED_ATTEMPTS), (record, exception) -> {
+        });
+    }
+
+    public KeyOrderedBatchProcessor(BackOff backOff, ConsumerRecordRecoverer recoverer) {
+        this.backOff = backOff;
+        this.recoverer = recoverer;
+    }
+
+    public BatchResult process(List<ConsumerRecord<K, V>> records, Consumer<ConsumerRecord<K, V>> handler) {
+        Map<TopicPartition, Map<Object, List<ConsumerRecord<K, V>>>> chains = new LinkedHashMap<>();
+        Map<TopicPartition, Long> nextOffsets = new HashMap<>();
+        for (ConsumerRecord<K, V> record : records) {
+            TopicPartition partition = new TopicPartition(record.topic(), record.partition());
+            chains.computeIfAbsent(partition, ignored -> new LinkedHashMap<>())
+                    .computeIfAbsent(chainKey(record), ignored -> new ArrayList<>())
+                    .add(record);
+            nextOffsets.merge(partition, record.offset() + 1, Math::max);
+        }
+
+        // menor offset não concluído por partição; ausente quando tudo deu certo
+        Map<TopicPartition, Long> firstIncomplete = new ConcurrentHashMap<>();
+        AtomicLong backOffMillis = new AtomicLong();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        chains.forEach((partition, byKey) -> byKey.values().forEach(chain ->
+                futures.add(CompletableFuture.runAsync(
+                        () -> runChain(partition, chain, handler, firstIncomplete, backOffMillis), executor))));
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        Map<TopicPartition, OffsetAndMetadata> commits = new HashMap<>();
+        nextOffsets.forEach((partition, next) ->
+                commits.put(partition, new OffsetAndMetadata(firstIncomplete.getOrDefault(partition, next))));
+        return new BatchResult(commits, Map.copyOf(firstIncomplete), backOffMillis.get());
+    }
+
+    private void runChain(TopicPartition partition, List<ConsumerRecord<K, V>> chain,
+                          Consumer<ConsumerRecord<K, V>> handler, Map<TopicPartition, Long> firstIncomplete,
+                          AtomicLong backOffMillis) {
+        for (ConsumerRecord<K, V> record : chain) {
+            FailedOffset failed = new FailedOffset(partition, record.offset());
+            try {
+                handler.accept(record);
+                if (!failures.isEmpty()) {
+                    failures.remove(failed);
+                }
+            } catch (RuntimeException e) {
+                long delay = failures.computeIfAbsent(failed, ignored -> backOff.start()).nextBackOff();
+                if (delay == BackOffExecution.STOP && recover(record, e)) {
+                    failures.remove(failed);
+                    continue;
+                }
+                // os demais registros desta chave ficam para a próxima entrega, preservando a ordem
+                log.error("Falha ao processar {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+                firstIncomplete.merge(partition, record.offset(), Math::min);
+                if (delay != BackOffExecution.STOP) {
+                    backOffMillis.accumulateAndGet(delay, Math::max);
+                }
+                return;
+            }
+        }
+    }
+
+    private boolean recover(ConsumerRecord<K, V> record, Exception exception) {
+        try {
+            recoverer.accept(record, exception);
+            log.warn("Tentativas esgotadas para {}-{}@{}; registro enviado ao recoverer",
+                    record.topic(), record.partition(), record.offset());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Recoverer falhou para {}-{}@{}", record.topic(), record.partition(), record.offset(), e);
+            return false;
+        }
+    }
+
+    private Object chainKey(ConsumerRecord<K, V> record) {
+        // registros sem chave não têm ordem a preservar entre si; NullKey nunca é igual a uma chave real
+        return record.key() != null ? record.key() : new NullKey(record.offset());
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    /**
+     * @param commits        offsets a commitar por partição
+     * @param rewinds        partições que precisam voltar ao offset indicado para reprocessar o que falhou
+     * @param backOffMillis  espera antes da próxima entrega (maior atraso entre os registros que falharam)
+     */
+    public record BatchResult(Map<TopicPartition, OffsetAndMetadata> commits, Map<TopicPartition, Long> rewinds,
+                              long backOffMillis) {
+    }
+
+    private record FailedOffset(TopicPartition partition, long offset) {
+    }
+
+    private record NullKey(long offset) {
+    }
+}
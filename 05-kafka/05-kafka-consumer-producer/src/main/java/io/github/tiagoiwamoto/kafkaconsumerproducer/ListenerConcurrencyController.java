@@ -0,0 +1,200 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Ajusta a concorrência do container do listener principal em runtime.
+ * A cada ciclo estima quantos consumers drenam o lag atual em {@code target-drain-seconds}, usando o tempo médio
+ * de processamento do último intervalo ({@code spring.kafka.listener}), limitado a [min, min(max, partições)].
+ * Sobe na hora; desce só depois de {@code scale-down-after} ciclos seguidos abaixo da concorrência atual.
+ * Mudar a concorrência para e reinicia o container inteiro: todos os consumers saem do grupo e todas as partições
+ * ficam paradas até a nova atribuição, qualquer que seja o assignor. A pausa aparece em
+ * {@code kafka.consumer.rebalance.pause} ({@link RebalanceMetrics}); por isso a descida é amortecida.
+ */
+@Component
+@ConditionalOnProperty(name = "app.kafka.consumer.autoscale.enabled", havingValue = "true")
+@Slf4j
+public class ListenerConcurrencyController {
+
+    private static final String RECORDS_LAG = "kafka.consumer.fetch.manager.records.lag";
+    private static final String LISTENER_TIMER = "spring.kafka.listener";
+
+    private final KafkaListenerEndpointRegistry registry;
+    private final MeterRegistry meterRegistry;
+    private final String listenerId;
+    private final Pattern childContainerName;
+    private final String topic;
+    private final String clientIdPrefix;
+    private final int minConcurrency;
+    private final int maxConcurrency;
+    private final double targetDrainSeconds;
+    private final int scaleDownAfter;
+    private final long intervalMs;
+    private final Counter scaleEvents;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofVirtual().name("listener-concurrency-controller").factory());
+
+    private double lastTotalSeconds;
+    private long lastCount;
+    private double meanProcessingSeconds;
+    private int ticksBelow;
+
+    public ListenerConcurrencyController(KafkaListenerEndpointRegistry registry,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.kafka.consumer.autoscale.listener-id:users-consumer}") String listenerId,
+                                         @Value("${kafka.topic.user:users}") String topic,
+                                         @Value("${spring.kafka.consumer.group-id}") String groupId,
+                                         @Value("${app.kafka.consumer.autoscale.min-concurrency:1}") int minConcurrency,
+                                         @Value("${app.kafka.consumer.autoscale.max-concurrency:8}") int maxConcurrency,
+                                         @Value("${app.kafka.consumer.autoscale.target-drain-seconds:30}") double targetDrainSeconds,
+                                         @Value("${app.kafka.consumer.autoscale.scale-down-after:3}") int scaleDownAfter,
+                                         @Value("${app.kafka.consumer.autoscale.interval-ms:15000}") long intervalMs) {
+        this.registry = registry;
+        this.meterRegistry = meterRegistry;
+        this.listenerId = listenerId;
+        this.childContainerName = Pattern.compile(Pattern.quote(listenerId) + "-\\d+");
+        this.topic = topic;
+        // client.id default do KafkaConsumer: consumer-<group>-<n>
+        this.clientIdPrefix = "consumer-" + groupId + "-";
+        this.minConcurrency = minConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.targetDrainSeconds = targetDrainSeconds;
+        this.scaleDownAfter = scaleDownAfter;
+        this.intervalMs = intervalMs;
+        this.scaleEvents = Counter.builder("kafka.consumer.scale.events").register(meterRegistry);
+        Gauge.builder("kafka.consumer.concurrency", this, ListenerConcurrencyController::currentConcurrency)
+                .tag("listener", listenerId)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::evaluateSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    public synchronized void evaluate() {
+        ConcurrentMessageListenerContainer<?, ?> container = container();
+        if (container == null || !container.isRunning()) {
+            return;
+        }
+        updateMeanProcessingSeconds();
+        int current = container.getConcurrency();
+        int desired = desiredConcurrency(lag(), meanProcessingSeconds, partitions());
+        if (desired > current) {
+            ticksBelow = 0;
+            scaleTo(desired);
+        } else if (desired < current && ++ticksBelow >= scaleDownAfter) {
+            ticksBelow = 0;
+            scaleTo(desired);
+        } else if (desired == current) {
+            ticksBelow = 0;
+        }
+    }
+
+    int desiredConcurrency(double lag, double processingSeconds, int partitions) {
+        int upperBound = partitions > 0 ? Math.min(maxConcurrency, partitions) : maxConcurrency;
+        int desired = (int) Math.ceil(lag * processingSeconds / targetDrainSeconds);
+        return Math.clamp(desired, minConcurrency, Math.max(minConcurrency, upperBound));
+    }
+
+    /**
+     * Para o container, troca a concorrência e reinicia. Bloqueia até o stop terminar; todas as partições do
+     * listener ficam sem consumer até a nova atribuição.
+     */
+    public synchronized void scaleTo(int concurrency) {
+        ConcurrentMessageListenerContainer<?, ?> container = container();
+        if (container == null || container.getConcurrency() == concurrency) {
+            return;
+        }
+        log.info("Ajustando concorrência do listener {} de {} para {}", listenerId, container.getConcurrency(), concurrency);
+        CountDownLatch stopped = new CountDownLatch(1);
+        container.stop(stopped::countDown);
+        try {
+            if (!stopped.await(1, TimeUnit.MINUTES)) {
+                log.warn("Listener {} não parou em 1 minuto; concorrência mantida", listenerId);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        container.setConcurrency(concurrency);
+        container.start();
+        scaleEvents.increment();
+    }
+
+    private void evaluateSafely() {
+        try {
+            evaluate();
+        } catch (RuntimeException e) {
+            log.warn("Falha ao avaliar concorrência do listener {}", listenerId, e);
+        }
+    }
+
+    private void updateMeanProcessingSeconds() {
+        double totalSeconds = 0;
+        long count = 0;
+        for (Timer timer : meterRegistry.find(LISTENER_TIMER).timers()) {
+            String name = timer.getId().getTag("name");
+            if (name != null && childContainerName.matcher(name).matches()) {
+                totalSeconds += timer.totalTime(TimeUnit.SECONDS);
+                count += timer.count();
+            }
+        }
+        // Média do último intervalo; sem registros novos mantém a anterior
+        if (count > lastCount) {
+            meanProcessingSeconds = (totalSeconds - lastTotalSeconds) / (count - lastCount);
+        }
+        lastTotalSeconds = totalSeconds;
+        lastCount = count;
+    }
+
+    private double lag() {
+        return meterRegistry.find(RECORDS_LAG).tag("topic", topic).gauges().stream()
+                .filter(gauge -> {
+                    String clientId = gauge.getId().getTag("client.id");
+                    return clientId != null && clientId.startsWith(clientIdPrefix);
+                })
+                .mapToDouble(Gauge::value)
+                .filter(Double::isFinite)
+                .sum();
+    }
+
+    private int partitions() {
+        return (int) meterRegistry.find(RECORDS_LAG).tag("topic", topic).gauges().stream()
+                .map(gauge -> gauge.getId().getTag("partition"))
+                .distinct()
+                .count();
+    }
+
+    private double currentConcurrency() {
+        ConcurrentMessageListenerContainer<?, ?> container = container();
+        return container == null ? 0 : container.getConcurrency();
+    }
+
+    private ConcurrentMessageListenerContainer<?, ?> container() {
+        return (ConcurrentMessageListenerContainer<?, ?>) registry.getListenerContainer(listenerId);
+    }
+}
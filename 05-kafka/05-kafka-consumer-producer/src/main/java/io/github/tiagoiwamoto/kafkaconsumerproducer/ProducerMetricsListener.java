@@ -0,0 +1,52 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.springframework.kafka.support.LoggingProducerListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Complementa o timer {@code spring.kafka.template} (latência de envio até o ack) com o tamanho serializado
+ * de cada registro e a contagem por resultado. Mantém o log de erro do LoggingProducerListener.
+ */
+@Component
+public class ProducerMetricsListener extends LoggingProducerListener<String, User> {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, TopicMeters> meters = new ConcurrentHashMap<>();
+
+    public ProducerMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void onSuccess(ProducerRecord<String, User> producerRecord, RecordMetadata recordMetadata) {
+        TopicMeters topicMeters = meters.computeIfAbsent(producerRecord.topic(), this::register);
+        topicMeters.recordSize().record(Math.max(recordMetadata.serializedValueSize(), 0));
+        topicMeters.succeeded().increment();
+    }
+
+    @Override
+    public void onError(ProducerRecord<String, User> producerRecord, RecordMetadata recordMetadata, Exception exception) {
+        meters.computeIfAbsent(producerRecord.topic(), this::register).failed().increment();
+        super.onError(producerRecord, recordMetadata, exception);
+    }
+
+    private TopicMeters register(String topic) {
+        return new TopicMeters(
+                DistributionSummary.builder("kafka.producer.record.size").baseUnit("bytes").tag("topic", topic)
+                        .publishPercentileHistogram().register(meterRegistry),
+                Counter.builder("kafka.producer.records").tag("topic", topic).tag("outcome", "success").register(meterRegistry),
+                Counter.builder("kafka.producer.records").tag("topic", topic).tag("outcome", "failure").register(meterRegistry));
+    }
+
+    private record TopicMeters(DistributionSummary recordSize, Counter succeeded, Counter failed) {
+    }
+}
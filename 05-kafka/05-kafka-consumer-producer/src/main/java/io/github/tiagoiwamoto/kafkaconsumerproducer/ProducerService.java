@@ -3,20 +3,54 @@ package io.github.tiagoiwamoto.kafkaconsumerproducer;
 import io.github.tiagoiwamoto.avro.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
 @Service
 public class ProducerService {
 
     private final KafkaTemplate<String, User> kafkaTemplate;
     private final String topic;
+    private final Semaphore inFlight;
 
-    public ProducerService(KafkaTemplate<String, User> kafkaTemplate, @Value("${kafka.topic.user:users}") String topic) {
+    public ProducerService(KafkaTemplate<String, User> kafkaTemplate,
+                           @Value("${kafka.topic.user:users}") String topic,
+                           @Value("${app.kafka.producer.max-pending-sends:10000}") int maxPendingSends) {
         this.kafkaTemplate = kafkaTemplate;
         this.topic = topic;
+        this.inFlight = new Semaphore(maxPendingSends);
     }
 
     public void sendUser(User user) {
         kafkaTemplate.send(topic, user.getId().toString(), user);
     }
+
+    /**
+     * Envia em pipeline sem esperar cada ack. O número de envios pendentes é limitado para que o chamador
+     * desacelere antes de o buffer.memory do producer se esgotar (quando send() bloquearia até max.block.ms).
+     * O future completa quando todos os envios terminam, e falha se algum falhar.
+     */
+    public CompletableFuture<Void> sendUsers(Collection<User> users) {
+        List<CompletableFuture<SendResult<String, User>>> futures = new ArrayList<>(users.size());
+        for (User user : users) {
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<SendResult<String, User>> future;
+            try {
+                future = kafkaTemplate.send(topic, user.getId().toString(), user);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                futures.add(CompletableFuture.failedFuture(e));
+                continue;
+            }
+            future.whenComplete((result, error) -> inFlight.release());
+            futures.add(future);
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
 }
@@ -0,0 +1,40 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.listener.RecordInterceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Espaça os registros entregues ao listener para no máximo {@code permitsPerSecond}, somando todas as
+ * threads do container. Usado nos consumers de retry/DLT para que reprocessamentos não disputem
+ * recursos com o listener principal.
+ */
+class RateLimitingRecordInterceptor implements RecordInterceptor<String, User> {
+
+    private final long intervalNanos;
+    private long nextFreeNanos = System.nanoTime();
+
+    RateLimitingRecordInterceptor(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    @Override
+    public ConsumerRecord<String, User> intercept(ConsumerRecord<String, User> record, Consumer<String, User> consumer) {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+        return record;
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(nextFreeNanos, now);
+        nextFreeNanos = slot + intervalNanos;
+        return slot - now;
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede a pausa de rebalance ({@code kafka.consumer.rebalance.pause}) por partição: do revoke em um consumer
+ * até a atribuição em qualquer consumer do container. Num rebalance do grupo, o cooperative-sticky só revoga as
+ * partições que mudam de dono e o eager revoga todas. Os restarts do {@link ListenerConcurrencyController} são
+ * diferentes: o container inteiro para, então todas as partições são revogadas e ficam paradas até a nova
+ * atribuição, com qualquer assignor. É essa pausa que o {@code ConsumerScalingTest} mede a cada escala.
+ */
+@Component
+@Slf4j
+public class RebalanceMetrics implements ConsumerAwareRebalanceListener {
+
+    private final Map<TopicPartition, Long> revokedAt = new ConcurrentHashMap<>();
+    private final Timer pause;
+    private final Counter revokedPartitions;
+    private final Counter assignedPartitions;
+
+    public RebalanceMetrics(MeterRegistry meterRegistry) {
+        this.pause = Timer.builder("kafka.consumer.rebalance.pause")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.revokedPartitions = Counter.builder("kafka.consumer.rebalance.partitions").tag("event", "revoked").register(meterRegistry);
+        this.assignedPartitions = Counter.builder("kafka.consumer.rebalance.partitions").tag("event", "assigned").register(meterRegistry);
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        long now = System.nanoTime();
+        partitions.forEach(partition -> revokedAt.put(partition, now));
+        revokedPartitions.increment(partitions.size());
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        assignedPartitions.increment(partitions.size());
+        long now = System.nanoTime();
+        long maxPause = 0;
+        for (TopicPartition partition : partitions) {
+            Long start = revokedAt.remove(partition);
+            if (start != null) {
+                pause.record(now - start, TimeUnit.NANOSECONDS);
+                maxPause = Math.max(maxPause, now - start);
+            }
+        }
+        if (maxPause > 0) {
+            log.info("Rebalance: {} partições atribuídas, pausa máxima {} ms", partitions.size(),
+                    TimeUnit.NANOSECONDS.toMillis(maxPause));
+        }
+    }
+
+    public Timer pause() {
+        return pause;
+    }
+}
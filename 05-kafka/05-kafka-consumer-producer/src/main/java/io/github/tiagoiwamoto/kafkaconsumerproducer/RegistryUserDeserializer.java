@@ -0,0 +1,52 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.specific.SpecificDatumReader;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Deserializer do wire format do Confluent direto para a classe User gerada.
+ * Um reader por id de schema do escritor fica em cache; ids desconhecidos vão ao registry uma única vez.
+ * O BinaryDecoder é reaproveitado por thread e os campos string chegam como {@code Utf8}, sem decodificar String.
+ */
+public class RegistryUserDeserializer implements ReusingUserDeserializer {
+
+    private static final int HEADER_SIZE = 1 + Integer.BYTES;
+    private static final ThreadLocal<BinaryDecoder> DECODER = new ThreadLocal<>();
+
+    private final Map<Integer, SpecificDatumReader<User>> readers = new ConcurrentHashMap<>();
+    private UserSchemaCache cache;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        cache = new UserSchemaCache(UserSchemaCache.client(String.valueOf(configs.get("schema.registry.url"))),
+                String.valueOf(configs.getOrDefault(RegistryUserSerializer.SUBJECT, "users-value")));
+    }
+
+    @Override
+    public User deserialize(String topic, byte[] data, User reuse) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length < HEADER_SIZE || data[0] != RegistryUserSerializer.MAGIC_BYTE) {
+            throw new SerializationException("Magic byte desconhecido no tópico " + topic);
+        }
+        int schemaId = (data[1] & 0xFF) << 24 | (data[2] & 0xFF) << 16 | (data[3] & 0xFF) << 8 | data[4] & 0xFF;
+        SpecificDatumReader<User> reader = readers.computeIfAbsent(schemaId,
+                id -> new SpecificDatumReader<>(cache.schemaFor(id), User.getClassSchema()));
+        try {
+            BinaryDecoder decoder = DecoderFactory.get()
+                    .binaryDecoder(data, HEADER_SIZE, data.length - HEADER_SIZE, DECODER.get());
+            DECODER.set(decoder);
+            return reader.read(reuse, decoder);
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao deserializar User do tópico " + topic, e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.avro.specific.SpecificDatumWriter;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serializer no wire format do Confluent (magic byte + id de 4 bytes + Avro binário) usando a classe User gerada.
+ * O id é resolvido uma vez no configure(); por padrão o schema precisa estar pré-registrado.
+ * Buffer e encoder são reaproveitados por thread ({@link ReusableAvroOutput}).
+ */
+public class RegistryUserSerializer implements Serializer<User> {
+
+    static final byte MAGIC_BYTE = 0x0;
+    static final String AUTO_REGISTER = "auto.register.schemas";
+    static final String SUBJECT = "user.schema.subject";
+
+    private final SpecificDatumWriter<User> writer = new SpecificDatumWriter<>(User.getClassSchema());
+    private int schemaId;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        var cache = new UserSchemaCache(UserSchemaCache.client(String.valueOf(configs.get("schema.registry.url"))),
+                String.valueOf(configs.getOrDefault(SUBJECT, "users-value")));
+        schemaId = cache.idFor(User.getClassSchema(), Boolean.parseBoolean(String.valueOf(configs.getOrDefault(AUTO_REGISTER, "false"))));
+    }
+
+    @Override
+    public byte[] serialize(String topic, User user) {
+        if (user == null) {
+            return null;
+        }
+        try {
+            ReusableAvroOutput out = ReusableAvroOutput.current();
+            out.write(MAGIC_BYTE);
+            out.writeInt(schemaId);
+            writer.write(user, out.encoder());
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao serializar User", e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.EncoderFactory;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Buffer e BinaryEncoder reaproveitados por thread nos serializers do User.
+ * Só a cópia final para o byte[] entregue ao Kafka é alocada por registro.
+ */
+final class ReusableAvroOutput extends ByteArrayOutputStream {
+
+    private static final int INITIAL_CAPACITY = 256;
+    // Buffers que cresceram por uma mensagem grande não ficam presos à thread
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+    private static final ThreadLocal<ReusableAvroOutput> CURRENT = ThreadLocal.withInitial(ReusableAvroOutput::new);
+
+    private BinaryEncoder encoder;
+
+    private ReusableAvroOutput() {
+        super(INITIAL_CAPACITY);
+    }
+
+    static ReusableAvroOutput current() {
+        ReusableAvroOutput out = CURRENT.get();
+        if (out.buf.length > MAX_RETAINED_CAPACITY) {
+            out = new ReusableAvroOutput();
+            CURRENT.set(out);
+        }
+        out.reset();
+        return out;
+    }
+
+    BinaryEncoder encoder() {
+        encoder = EncoderFactory.get().directBinaryEncoder(this, encoder);
+        return encoder;
+    }
+
+    void writeInt(int value) {
+        write(value >>> 24);
+        write(value >>> 16);
+        write(value >>> 8);
+        write(value);
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/**
+ * Deserializer do User que aceita uma instância para reaproveitar.
+ * O KafkaConsumer materializa todos os valores do poll antes do listener, então a reutilização só é segura
+ * quando o chamador processa cada valor antes de deserializar o próximo (ex.: loop de poll próprio sobre byte[]).
+ */
+public interface ReusingUserDeserializer extends Deserializer<User> {
+
+    User deserialize(String topic, byte[] data, User reuse);
+
+    @Override
+    default User deserialize(String topic, byte[] data) {
+        return deserialize(topic, data, null);
+    }
+}
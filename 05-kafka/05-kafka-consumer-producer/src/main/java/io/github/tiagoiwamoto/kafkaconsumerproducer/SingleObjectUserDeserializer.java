@@ -0,0 +1,30 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.avro.message.BinaryMessageDecoder;
+import org.apache.avro.message.SchemaStore;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * Lê o single-object encoding do User. Versões antigas do schema podem ser adicionadas ao
+ * {@link SchemaStore.Cache} e são resolvidas pelo fingerprint do header.
+ */
+public class SingleObjectUserDeserializer implements ReusingUserDeserializer {
+
+    private final SchemaStore.Cache schemaStore = new SchemaStore.Cache();
+    private final BinaryMessageDecoder<User> decoder = User.createDecoder(schemaStore);
+
+    @Override
+    public User deserialize(String topic, byte[] data, User reuse) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return decoder.decode(data, reuse);
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao deserializar User do tópico " + topic, e);
+        }
+    }
+}
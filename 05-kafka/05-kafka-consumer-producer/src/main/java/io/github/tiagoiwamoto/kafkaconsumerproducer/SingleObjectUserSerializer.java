@@ -0,0 +1,28 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.IOException;
+
+/**
+ * Avro single-object encoding (header C3 01 + fingerprint de 8 bytes), sem schema registry.
+ * Indicado para tópicos internos em que produtor e consumidor compartilham a classe User.
+ */
+public class SingleObjectUserSerializer implements Serializer<User> {
+
+    @Override
+    public byte[] serialize(String topic, User user) {
+        if (user == null) {
+            return null;
+        }
+        try {
+            ReusableAvroOutput out = ReusableAvroOutput.current();
+            User.getEncoder().encode(user, out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Falha ao serializar User", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede o tempo de serialização ({@code kafka.serde.time}, operation=serialize) do serializer delegado.
+ */
+class TimedSerializer<T> implements Serializer<T> {
+
+    private final Serializer<T> delegate;
+    private final Timer timer;
+
+    TimedSerializer(Serializer<T> delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timer = Timer.builder("kafka.serde.time")
+                .tag("operation", "serialize")
+                .tag("serde", delegate.getClass().getSimpleName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, T data) {
+        long start = System.nanoTime();
+        try {
+            return delegate.serialize(topic, data);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        long start = System.nanoTime();
+        try {
+            return delegate.serialize(topic, headers, data);
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,28 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/cache/users")
+@ConditionalOnProperty(name = "app.kafka.user-cache.enabled", havingValue = "true")
+public class UserCacheRest {
+
+    private final CompactedUserCache compactedUserCache;
+
+    public UserCacheRest(CompactedUserCache compactedUserCache) {
+        this.compactedUserCache = compactedUserCache;
+    }
+
+    @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserResponse> get(@PathVariable String id) {
+        return compactedUserCache.get(id)
+                .map(user -> ResponseEntity.ok(UserResponse.from(user)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
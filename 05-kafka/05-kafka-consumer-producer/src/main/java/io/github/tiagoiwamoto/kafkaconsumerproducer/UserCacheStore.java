@@ -0,0 +1,140 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Último valor por id, guardado como os bytes do tópico (o User só é deserializado na consulta), e o próximo
+ * offset de cada partição. O snapshot é gravado em arquivo temporário + move atômico e lido via mmap.
+ * <p>
+ * Formato (big-endian): magic, versão, [partições: id, próximo offset], [entradas: chave, valor].
+ */
+public class UserCacheStore {
+
+    private static final int MAGIC = 0x55435331; // "UCS1"
+    private static final int VERSION = 1;
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    private final Map<String, byte[]> values;
+    private final Map<Integer, Long> nextOffsets = new ConcurrentHashMap<>();
+
+    public UserCacheStore(int expectedSize) {
+        this.values = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    public byte[] get(String id) {
+        return values.get(id);
+    }
+
+    public int size() {
+        return values.size();
+    }
+
+    /**
+     * Aplica um registro do tópico compactado; valor nulo (tombstone) remove o id.
+     */
+    public void apply(String id, byte[] value, int partition, long offset) {
+        if (id != null) {
+            if (value == null) {
+                values.remove(id);
+            } else {
+                values.put(id, value);
+            }
+        }
+        nextOffsets.put(partition, offset + 1);
+    }
+
+    public Map<Integer, Long> nextOffsets() {
+        return Map.copyOf(nextOffsets);
+    }
+
+    public void writeSnapshot(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+            Map<Integer, Long> offsets = nextOffsets();
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(offsets.size());
+            for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                buffer.putInt(entry.getKey()).putLong(entry.getValue());
+            }
+            // Tamanho lido antes da iteração; o consumer fica parado durante o snapshot
+            buffer.putInt(values.size());
+            for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+                byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+                byte[] value = entry.getValue();
+                int entrySize = 2 * Integer.BYTES + key.length + value.length;
+                if (buffer.remaining() < entrySize) {
+                    flush(channel, buffer);
+                    if (buffer.capacity() < entrySize) {
+                        buffer = ByteBuffer.allocate(entrySize);
+                    }
+                }
+                buffer.putInt(key.length).put(key).putInt(value.length).put(value);
+            }
+            flush(channel, buffer);
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Carrega um snapshot num store vazio. Devolve false se o arquivo não existe; snapshots com formato
+     * desconhecido ou truncados geram IOException e deixam o store vazio.
+     */
+    public boolean loadSnapshot(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot maior que 2 GB não suportado: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Snapshot com formato desconhecido: " + file);
+            }
+            Map<Integer, Long> offsets = new HashMap<>();
+            int partitions = buffer.getInt();
+            for (int i = 0; i < partitions; i++) {
+                offsets.put(buffer.getInt(), buffer.getLong());
+            }
+            int entries = buffer.getInt();
+            for (int i = 0; i < entries; i++) {
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                values.put(new String(key, StandardCharsets.UTF_8), value);
+            }
+            nextOffsets.putAll(offsets);
+            return true;
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            values.clear();
+            throw new IOException("Snapshot truncado: " + file, e);
+        } catch (IOException e) {
+            values.clear();
+            throw e;
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Enriquecimento aplicado pelo pipeline EOS: nome sem espaços extras e email normalizado em minúsculas.
+ */
+@Component
+public class UserEnricher {
+
+    public User enrich(User user) {
+        User.Builder builder = User.newBuilder(user)
+                .setName(user.getName().toString().strip());
+        if (user.getEmail() != null) {
+            builder.setEmail(user.getEmail().toString().strip().toLowerCase(Locale.ROOT));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,18 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.stereotype.Component;
+
+/**
+ * Regra de negócio aplicada a cada User consumido, compartilhada pelos listeners record e batch.
+ */
+@Component
+@Slf4j
+public class UserProcessor {
+
+    public void process(ConsumerRecord<String, User> record) {
+        log.debug("Consumed user: {}", record.value());
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+
+/**
+ * Corpo JSON dos endpoints de leitura de User; evita expor o {@code toString} do Avro.
+ */
+public record UserResponse(String id, String name, String email) {
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId().toString(), user.getName().toString(),
+                user.getEmail() == null ? null : user.getEmail().toString());
+    }
+}
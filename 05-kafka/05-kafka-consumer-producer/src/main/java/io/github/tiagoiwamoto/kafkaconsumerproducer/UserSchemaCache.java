@@ -0,0 +1,75 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.confluent.kafka.schemaregistry.avro.AvroSchema;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.rest.exceptions.RestClientException;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaNormalization;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache local de schemas Avro do User, indexado por id do registry e por fingerprint (CRC-64-AVRO).
+ * O registry só é consultado para ids ainda desconhecidos; o schema do User gerado é resolvido uma vez.
+ */
+public class UserSchemaCache {
+
+    static final String MOCK_SCHEME = "mock://";
+
+    private final SchemaRegistryClient registry;
+    private final String subject;
+    private final Map<Integer, Schema> schemasById = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> idsByFingerprint = new ConcurrentHashMap<>();
+
+    public UserSchemaCache(SchemaRegistryClient registry, String subject) {
+        this.registry = registry;
+        this.subject = subject;
+    }
+
+    /**
+     * Cria o client a partir de {@code schema.registry.url}; {@code mock://scope} usa o registry em memória.
+     */
+    public static SchemaRegistryClient client(String url) {
+        if (url.startsWith(MOCK_SCHEME)) {
+            return MockSchemaRegistry.getClientForScope(url.substring(MOCK_SCHEME.length()));
+        }
+        return new CachedSchemaRegistryClient(url, 100);
+    }
+
+    /**
+     * Id do schema no registry. Com {@code register=false} o schema precisa estar pré-registrado.
+     */
+    public int idFor(Schema schema, boolean register) {
+        long fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+        Integer cached = idsByFingerprint.get(fingerprint);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            AvroSchema avroSchema = new AvroSchema(schema);
+            int id = register ? registry.register(subject, avroSchema) : registry.getId(subject, avroSchema);
+            idsByFingerprint.put(fingerprint, id);
+            schemasById.put(id, schema);
+            return id;
+        } catch (IOException | RestClientException e) {
+            throw new SerializationException("Schema do User não encontrado no subject " + subject, e);
+        }
+    }
+
+    public Schema schemaFor(int id) {
+        return schemasById.computeIfAbsent(id, this::fetch);
+    }
+
+    private Schema fetch(int id) {
+        try {
+            return ((AvroSchema) registry.getSchemaById(id)).rawSchema();
+        } catch (IOException | RestClientException e) {
+            throw new SerializationException("Schema id " + id + " não encontrado no registry", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Serializer/deserializer do User por {@code app.kafka.serde.mode} (confluent, registry ou single-object).
+ */
+public final class UserSerdes {
+
+    private UserSerdes() {
+    }
+
+    public static Class<?> serializerClass(String mode) {
+        return switch (mode) {
+            case "registry" -> RegistryUserSerializer.class;
+            case "single-object" -> SingleObjectUserSerializer.class;
+            // Use Confluent Avro serializer (ensure dependency at runtime)
+            default -> KafkaAvroSerializer.class;
+        };
+    }
+
+    public static Class<?> deserializerClass(String mode) {
+        return switch (mode) {
+            case "registry" -> RegistryUserDeserializer.class;
+            case "single-object" -> SingleObjectUserDeserializer.class;
+            // Confluent Avro deserializer
+            default -> KafkaAvroDeserializer.class;
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Serializer<User> newSerializer(String mode) {
+        return (Serializer<User>) newInstance(serializerClass(mode));
+    }
+
+    @SuppressWarnings("unchecked")
+    public static Deserializer<User> newDeserializer(String mode) {
+        return (Deserializer<User>) newInstance(deserializerClass(mode));
+    }
+
+    /**
+     * Serde configurado para o Kafka Streams, com as mesmas propriedades do producer/consumer.
+     */
+    public static Serde<User> serde(String mode, Map<String, ?> configs) {
+        Serde<User> serde = Serdes.serdeFrom(newSerializer(mode), newDeserializer(mode));
+        serde.configure(configs, false);
+        return serde;
+    }
+
+    private static Object newInstance(Class<?> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Serde do User indisponível: " + type.getName(), e);
+        }
+    }
+}
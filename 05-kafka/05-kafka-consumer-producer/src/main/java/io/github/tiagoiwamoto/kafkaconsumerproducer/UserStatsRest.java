@@ -0,0 +1,81 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Consultas interativas aos stores do {@link UserStatsTopology}.
+ * Respondem com as partições desta instância; com mais de uma instância cada uma vê a sua fatia.
+ */
+@RestController
+@RequestMapping("/streams/users")
+@ConditionalOnProperty(name = "app.kafka.streams.enabled", havingValue = "true")
+public class UserStatsRest {
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    public UserStatsRest(StreamsBuilderFactoryBean streamsBuilderFactoryBean) {
+        this.streamsBuilderFactoryBean = streamsBuilderFactoryBean;
+    }
+
+    @GetMapping("/domains")
+    public Map<String, Long> domains() {
+        return readAll(UserStatsTopology.DOMAINS_STORE);
+    }
+
+    @GetMapping("/domains/{domain}")
+    public ResponseEntity<Long> domain(@PathVariable String domain) {
+        Long count = this.<Long>store(UserStatsTopology.DOMAINS_STORE).get(domain.toLowerCase(Locale.ROOT));
+        return count == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(count);
+    }
+
+    @GetMapping("/changes")
+    public Map<String, Long> changes() {
+        return readAll(UserStatsTopology.CHANGES_STORE);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UserResponse> latest(@PathVariable String id) {
+        User user = this.<User>store(UserStatsTopology.LATEST_STORE).get(id);
+        return user == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(UserResponse.from(user));
+    }
+
+    @ExceptionHandler(InvalidStateStoreException.class)
+    public ResponseEntity<String> storeUnavailable(InvalidStateStoreException e) {
+        // Durante rebalance/restore o store fica indisponível
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
+    private Map<String, Long> readAll(String storeName) {
+        Map<String, Long> result = new TreeMap<>();
+        try (var iterator = this.<Long>store(storeName).all()) {
+            iterator.forEachRemaining(entry -> result.put(entry.key, entry.value));
+        }
+        return result;
+    }
+
+    private <V> ReadOnlyKeyValueStore<String, V> store(String storeName) {
+        KafkaStreams kafkaStreams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (kafkaStreams == null) {
+            throw new InvalidStateStoreException("Kafka Streams ainda não iniciado");
+        }
+        return kafkaStreams.store(StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.keyValueStore()));
+    }
+}
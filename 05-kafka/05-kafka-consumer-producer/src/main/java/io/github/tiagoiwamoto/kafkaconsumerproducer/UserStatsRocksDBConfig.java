@@ -0,0 +1,49 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import org.apache.kafka.streams.state.RocksDBConfigSetter;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.Cache;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+
+import java.util.Map;
+
+/**
+ * Limita a memória do RocksDB: um block cache LRU compartilhado por todos os stores da instância
+ * (índices e filtros contam no cache) e write buffers menores que o default de 16 MB x 3.
+ */
+public class UserStatsRocksDBConfig implements RocksDBConfigSetter {
+
+    public static final String BLOCK_CACHE_BYTES = "app.rocksdb.block-cache-bytes";
+    public static final String WRITE_BUFFER_BYTES = "app.rocksdb.write-buffer-bytes";
+
+    private static Cache blockCache;
+
+    @Override
+    public void setConfig(String storeName, Options options, Map<String, Object> configs) {
+        BlockBasedTableConfig tableConfig = (BlockBasedTableConfig) options.tableFormatConfig();
+        tableConfig.setBlockCache(blockCache(longConfig(configs, BLOCK_CACHE_BYTES, 32L * 1024 * 1024)));
+        tableConfig.setCacheIndexAndFilterBlocks(true);
+        tableConfig.setPinL0FilterAndIndexBlocksInCache(true);
+        options.setTableFormatConfig(tableConfig);
+        options.setWriteBufferSize(longConfig(configs, WRITE_BUFFER_BYTES, 8L * 1024 * 1024));
+        options.setMaxWriteBufferNumber(2);
+    }
+
+    @Override
+    public void close(String storeName, Options options) {
+        // O cache é compartilhado entre stores e vive enquanto a JVM
+    }
+
+    private static synchronized Cache blockCache(long capacity) {
+        if (blockCache == null) {
+            blockCache = new LRUCache(capacity);
+        }
+        return blockCache;
+    }
+
+    private static long longConfig(Map<String, Object> configs, String key, long defaultValue) {
+        Object value = configs.get(key);
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+}
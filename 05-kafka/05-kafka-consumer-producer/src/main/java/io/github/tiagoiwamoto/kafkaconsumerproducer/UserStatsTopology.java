@@ -0,0 +1,120 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.avro.SchemaNormalization;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessor;
+import org.apache.kafka.streams.processor.api.FixedKeyProcessorContext;
+import org.apache.kafka.streams.processor.api.FixedKeyRecord;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.Stores;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+
+/**
+ * Estatísticas em tempo real do tópico de Users: total por domínio de email (sobre o último User de cada id)
+ * e contagem de registros novos, duplicados, alterados e removidos por id.
+ * Todos os stores são RocksDB e consultáveis via {@link UserStatsRest}.
+ */
+public final class UserStatsTopology {
+
+    public static final String LATEST_STORE = "users-latest";
+    public static final String DOMAINS_STORE = "users-by-domain";
+    public static final String CHANGES_STORE = "users-changes";
+    static final String FINGERPRINTS_STORE = "users-fingerprints";
+    static final String NO_DOMAIN = "(sem-email)";
+
+    public enum Change { CREATED, DUPLICATE, CHANGED, DELETED }
+
+    private UserStatsTopology() {
+    }
+
+    public static KStream<String, User> build(StreamsBuilder builder, String topic, Serde<User> userSerde) {
+        KStream<String, User> users = builder.stream(topic, Consumed.with(Serdes.String(), userSerde));
+
+        // Último User por id; a troca de email subtrai do domínio antigo e soma no novo
+        users.toTable(Materialized.<String, User, KeyValueStore<Bytes, byte[]>>as(LATEST_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(userSerde))
+                .groupBy((id, user) -> KeyValue.pair(domain(user), user), Grouped.with(Serdes.String(), userSerde))
+                .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(DOMAINS_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        builder.addStateStore(Stores.keyValueStoreBuilder(
+                Stores.persistentKeyValueStore(FINGERPRINTS_STORE), Serdes.String(), Serdes.Long()));
+        users.processValues(ChangeDetector::new, FINGERPRINTS_STORE)
+                .groupBy((id, change) -> change.name(), Grouped.with(Serdes.String(), Serdes.String()))
+                .count(Materialized.<String, Long, KeyValueStore<Bytes, byte[]>>as(CHANGES_STORE)
+                        .withKeySerde(Serdes.String())
+                        .withValueSerde(Serdes.Long()));
+
+        return users;
+    }
+
+    static String domain(User user) {
+        if (user.getEmail() == null) {
+            return NO_DOMAIN;
+        }
+        String email = user.getEmail().toString();
+        int at = email.lastIndexOf('@');
+        return at < 0 ? NO_DOMAIN : email.substring(at + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Compara o fingerprint CRC-64 do User com o último visto para o mesmo id; guarda só 8 bytes por id.
+     */
+    static class ChangeDetector implements FixedKeyProcessor<String, User, Change> {
+
+        private FixedKeyProcessorContext<String, Change> context;
+        private KeyValueStore<String, Long> fingerprints;
+
+        @Override
+        public void init(FixedKeyProcessorContext<String, Change> context) {
+            this.context = context;
+            this.fingerprints = context.getStateStore(FINGERPRINTS_STORE);
+        }
+
+        @Override
+        public void process(FixedKeyRecord<String, User> record) {
+            String id = record.key();
+            if (id == null) {
+                return;
+            }
+            if (record.value() == null) {
+                if (fingerprints.delete(id) != null) {
+                    context.forward(record.withValue(Change.DELETED));
+                }
+                return;
+            }
+            long fingerprint = fingerprint(record.value());
+            Long previous = fingerprints.get(id);
+            if (previous != null && previous == fingerprint) {
+                context.forward(record.withValue(Change.DUPLICATE));
+                return;
+            }
+            fingerprints.put(id, fingerprint);
+            context.forward(record.withValue(previous == null ? Change.CREATED : Change.CHANGED));
+        }
+
+        private static long fingerprint(User user) {
+            try {
+                ReusableAvroOutput out = ReusableAvroOutput.current();
+                User.getEncoder().encode(user, out);
+                return SchemaNormalization.fingerprint64(out.toByteArray());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara a subida do cache relendo o tópico compactado inteiro com a subida a partir do snapshot.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://user-cache",
+        "spring.kafka.consumer.group-id=user-cache",
+        "kafka.topic.user=users-cache-test"
+})
+@EmbeddedKafka(partitions = 4, topics = "users-cache-test")
+class CompactedUserCacheTest {
+
+    static final int USERS = 200_000;
+    static final String TOPIC = "users-cache-test";
+
+    @Autowired
+    KafkaTemplate<String, User> kafkaTemplate;
+    @Autowired
+    ConsumerFactory<String, User> consumerFactory;
+    @Autowired
+    KafkaConfig kafkaConfig;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void medeReconstrucaoPeloTopicoContraSnapshot() throws Exception {
+        for (int i = 0; i < USERS; i++) {
+            String id = "user-" + i;
+            kafkaTemplate.send(TOPIC, id, User.newBuilder().setId(id).setName("User " + i)
+                    .setEmail("user" + i + "@example.com").build());
+        }
+        kafkaTemplate.flush();
+        Path snapshot = dir.resolve("users.snapshot");
+
+        CompactedUserCache rebuilt = newCache(snapshot);
+        long start = System.nanoTime();
+        rebuilt.start();
+        assertThat(rebuilt.awaitCaughtUp(Duration.ofMinutes(2))).isTrue();
+        double rebuildMs = (System.nanoTime() - start) / 1e6;
+        assertThat(rebuilt.size()).isEqualTo(USERS);
+        // O stop grava o snapshot usado pela segunda subida
+        rebuilt.stop();
+
+        CompactedUserCache restored = newCache(snapshot);
+        start = System.nanoTime();
+        restored.start();
+        assertThat(restored.awaitCaughtUp(Duration.ofMinutes(2))).isTrue();
+        double restoreMs = (System.nanoTime() - start) / 1e6;
+        restored.stop();
+
+        assertThat(restored.size()).isEqualTo(USERS);
+        assertThat(restored.get("user-42")).map(User::getName).map(CharSequence::toString).contains("User 42");
+        System.out.printf("cache: %d users, reconstrução pelo tópico %.0f ms, snapshot + alcance %.0f ms%n",
+                USERS, rebuildMs, restoreMs);
+    }
+
+    private CompactedUserCache newCache(Path snapshot) {
+        return new CompactedUserCache(consumerFactory, kafkaConfig, TOPIC, snapshot.toString(), 60_000, USERS);
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Escala o listener 1 -> 4 -> 2 com produção contínua. Cada {@code scaleTo} reinicia o container, então todas as
+ * 8 partições são revogadas e reatribuídas: a pausa tem que aparecer em {@code kafka.consumer.rebalance.pause},
+ * limitada, e nenhum registro pode se perder.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://scaling",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "spring.kafka.consumer.group-id=scaling",
+        "kafka.topic.user=users-scaling",
+        "app.kafka.consumer.autoscale.enabled=true",
+        // ciclos automáticos fora da janela do teste; as mudanças são disparadas via scaleTo
+        "app.kafka.consumer.autoscale.interval-ms=3600000"
+})
+@EmbeddedKafka(partitions = 8, topics = "users-scaling")
+@Import(ConsumerScalingTest.CountingProcessorConfig.class)
+class ConsumerScalingTest {
+
+    private static final int PARTITIONS = 8;
+
+    static class CountingUserProcessor extends UserProcessor {
+
+        final AtomicLong processed = new AtomicLong();
+
+        @Override
+        public void process(ConsumerRecord<String, User> record) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(200));
+            processed.incrementAndGet();
+        }
+    }
+
+    @TestConfiguration
+    static class CountingProcessorConfig {
+
+        @Bean
+        @Primary
+        CountingUserProcessor countingUserProcessor() {
+            return new CountingUserProcessor();
+        }
+    }
+
+    @Autowired
+    ProducerService producerService;
+    @Autowired
+    CountingUserProcessor userProcessor;
+    @Autowired
+    KafkaListenerEndpointRegistry registry;
+    @Autowired
+    ListenerConcurrencyController controller;
+    @Autowired
+    RebalanceMetrics rebalanceMetrics;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void escalaSemPerderRegistrosEComPausaMedida() throws Exception {
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("users-consumer"), PARTITIONS);
+
+        AtomicBoolean producing = new AtomicBoolean(true);
+        AtomicLong sent = new AtomicLong();
+        try (var producer = Executors.newVirtualThreadPerTaskExecutor()) {
+            producer.submit(() -> {
+                while (producing.get()) {
+                    long i = sent.getAndIncrement();
+                    producerService.sendUser(User.newBuilder().setId("user-" + (i % 1_000)).setName("User " + i).build());
+                    if (i % 100 == 0) {
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+                    }
+                }
+            });
+
+            Thread.sleep(2_000);
+            controller.scaleTo(4);
+            ContainerTestUtils.waitForAssignment(registry.getListenerContainer("users-consumer"), PARTITIONS);
+            Thread.sleep(2_000);
+            controller.scaleTo(2);
+            ContainerTestUtils.waitForAssignment(registry.getListenerContainer("users-consumer"), PARTITIONS);
+            Thread.sleep(2_000);
+            producing.set(false);
+        }
+
+        await().atMost(Duration.ofMinutes(1)).until(() -> userProcessor.processed.get() >= sent.get());
+        assertThat(userProcessor.processed.get()).isGreaterThanOrEqualTo(sent.get());
+        assertThat(meterRegistry.get("kafka.consumer.scale.events").counter().count()).isEqualTo(2);
+
+        // Restart do container: cada ajuste revoga e reatribui as 8 partições
+        Timer pause = meterRegistry.get("kafka.consumer.rebalance.pause").timer();
+        assertThat(pause).isSameAs(rebalanceMetrics.pause());
+        assertThat(pause.count()).isGreaterThanOrEqualTo(2L * PARTITIONS);
+        assertThat(pause.max(TimeUnit.MILLISECONDS)).isPositive().isLessThan(30_000);
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara records/s do listener record (um registro por vez) com o listener batch paralelo por chave.
+ * Cada User simula 1 ms de trabalho de I/O. Ao final o batch, que paraleliza por chave, precisa ser mais rápido.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://throughput",
+        "spring.kafka.consumer.group-id=throughput",
+        "spring.kafka.consumer.auto-offset-reset=earliest"
+})
+@EmbeddedKafka(partitions = 4, topics = {"users-record", "users-batch"})
+@Import(ConsumerThroughputTest.SlowProcessorConfig.class)
+class ConsumerThroughputTest {
+
+    static final int PARTITIONS = 4;
+    static final int RECORDS = 2_000;
+    static final int KEYS = 200;
+
+    static final Map<String, Double> THROUGHPUT = new ConcurrentHashMap<>();
+
+    @AfterAll
+    static void batchEhMaisRapido() {
+        Double record = THROUGHPUT.get("record");
+        Double batch = THROUGHPUT.get("batch");
+        if (record != null && batch != null) {
+            assertThat(batch).isGreaterThan(record);
+        }
+    }
+
+    static class SlowUserProcessor extends UserProcessor {
+
+        final CountDownLatch processed = new CountDownLatch(RECORDS);
+
+        @Override
+        public void process(ConsumerRecord<String, User> record) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            processed.countDown();
+        }
+    }
+
+    @TestConfiguration
+    static class SlowProcessorConfig {
+
+        @Bean
+        @Primary
+        SlowUserProcessor slowUserProcessor() {
+            return new SlowUserProcessor();
+        }
+    }
+
+    abstract static class Scenario {
+
+        @Autowired
+        KafkaTemplate<String, User> kafkaTemplate;
+        @Autowired
+        KafkaListenerEndpointRegistry registry;
+        @Autowired
+        SlowUserProcessor userProcessor;
+
+        abstract String mode();
+
+        abstract String topic();
+
+        @Test
+        void mede() throws Exception {
+            // Só o listener principal; os containers de retry/DLT têm outros tópicos
+            String listenerId = "batch".equals(mode()) ? "users-batch-consumer" : "users-consumer";
+            ContainerTestUtils.waitForAssignment(registry.getListenerContainer(listenerId), PARTITIONS);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                User user = User.newBuilder()
+                        .setId("user-" + (i % KEYS))
+                        .setName("User " + i)
+                        .setEmail("user" + i + "@example.com")
+                        .build();
+                kafkaTemplate.send(topic(), user.getId().toString(), user);
+            }
+            kafkaTemplate.flush();
+
+            assertThat(userProcessor.processed.await(2, TimeUnit.MINUTES)).isTrue();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("listener %s: %d records em %.2fs = %.0f records/s%n",
+                    mode(), RECORDS, seconds, RECORDS / seconds);
+            THROUGHPUT.put(mode(), RECORDS / seconds);
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"app.kafka.consumer.mode=record", "kafka.topic.user=users-record"})
+    class RecordListener extends Scenario {
+        @Override
+        String mode() {
+            return "record";
+        }
+
+        @Override
+        String topic() {
+            return "users-record";
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"app.kafka.consumer.mode=batch", "kafka.topic.user=users-batch"})
+    class BatchListener extends Scenario {
+        @Override
+        String mode() {
+            return "batch";
+        }
+
+        @Override
+        String topic() {
+            return "users-batch";
+        }
+    }
+}
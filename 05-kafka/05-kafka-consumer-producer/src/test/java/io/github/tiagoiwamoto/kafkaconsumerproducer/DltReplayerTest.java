@@ -0,0 +1,73 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Registros gravados direto no DLT, distribuídos em duas partições, para o replay parcial parar no meio das duas.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://replay",
+        "spring.kafka.consumer.group-id=replay",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "kafka.topic.user=users-replay-test"
+})
+@EmbeddedKafka(partitions = 2, topics = {"users-replay-test", "users-replay-test-dlt"})
+class DltReplayerTest {
+
+    @Autowired
+    KafkaTemplate<String, User> kafkaTemplate;
+    @Autowired
+    ConsumerFactory<String, User> consumerFactory;
+    @Autowired
+    DltReplayer dltReplayer;
+
+    @Test
+    void replayParcialContinuaDeOndeParouSemPularRegistros() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            kafkaTemplate.send("users-replay-test-dlt", i % 2, "dead-" + i, user("dead-" + i)).get();
+        }
+
+        assertThat(dltReplayer.replay(2)).isEqualTo(2);
+        assertThat(dltReplayer.replay(100)).isEqualTo(3);
+        assertThat(dltReplayer.replay(100)).isZero();
+
+        // Cada registro do DLT chega uma vez só ao tópico principal
+        assertThat(readReplayed(5)).containsExactlyInAnyOrder("dead-0", "dead-1", "dead-2", "dead-3", "dead-4");
+    }
+
+    private List<String> readReplayed(int expected) {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        List<String> keys = new ArrayList<>();
+        try (Consumer<String, User> consumer = consumerFactory.createConsumer("replay-check", null, null, overrides)) {
+            consumer.subscribe(List.of("users-replay-test"));
+            for (ConsumerRecord<String, User> record : KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), expected)) {
+                assertThat(record.headers().lastHeader(DltReplayer.REPLAYED_FROM)).isNotNull();
+                keys.add(record.key());
+            }
+        }
+        return keys;
+    }
+
+    private static User user(String id) {
+        return User.newBuilder().setId(id).setName("User " + id).build();
+    }
+}
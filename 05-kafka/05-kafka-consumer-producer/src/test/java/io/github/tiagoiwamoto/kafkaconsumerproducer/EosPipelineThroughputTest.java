@@ -0,0 +1,142 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tradeoff do tamanho da transação no pipeline EOS com a fila cheia, latência medida a partir do timestamp do
+ * registro de origem. {@code transaction-size} é só um teto (max.poll.records): o poll não espera encher a
+ * transação, então com backlog transações de 10 registros pagam 50x mais commits e perdem em vazão e em latência.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://eos",
+        "spring.kafka.consumer.group-id=eos",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "app.kafka.eos.enabled=true"
+})
+@EmbeddedKafka(partitions = 4,
+        topics = {"users-eos-10", "users-eos-10-enriched", "users-eos-500", "users-eos-500-enriched"},
+        brokerProperties = {"transaction.state.log.replication.factor=1", "transaction.state.log.min.isr=1"})
+class EosPipelineThroughputTest {
+
+    static final int RECORDS = 10_000;
+
+    record Result(double recordsPerSecond, long p50Millis, long p99Millis) {
+    }
+
+    static final Map<Integer, Result> RESULTS = new ConcurrentHashMap<>();
+
+    @AfterAll
+    static void transacoesGrandesAmortizamOCommit() {
+        Result pequenas = RESULTS.get(10);
+        Result grandes = RESULTS.get(500);
+        if (pequenas != null && grandes != null) {
+            assertThat(grandes.recordsPerSecond()).isGreaterThan(pequenas.recordsPerSecond());
+            assertThat(grandes.p50Millis()).isLessThan(pequenas.p50Millis());
+        }
+    }
+
+    abstract static class Scenario {
+
+        @Autowired
+        KafkaTemplate<String, User> kafkaTemplate;
+        @Autowired
+        ConsumerFactory<String, User> consumerFactory;
+        @Autowired
+        KafkaListenerEndpointRegistry registry;
+        @Value("${kafka.topic.user}")
+        String topic;
+        @Value("${app.kafka.eos.output-topic}")
+        String enrichedTopic;
+        @Value("${app.kafka.eos.transaction-size}")
+        int transactionSize;
+
+        @Test
+        void mede() {
+            ContainerTestUtils.waitForAssignment(registry.getListenerContainer("users-enrichment"), 4);
+
+            Map<String, Long> sourceTimestamps = new ConcurrentHashMap<>();
+            long start = System.nanoTime();
+            for (int i = 0; i < RECORDS; i++) {
+                User user = User.newBuilder()
+                        .setId("user-" + i)
+                        .setName("  User " + i + " ")
+                        .setEmail("User" + i + "@Example.com")
+                        .build();
+                String key = user.getId().toString();
+                kafkaTemplate.send(topic, key, user)
+                        .thenAccept(result -> sourceTimestamps.put(key, result.getRecordMetadata().timestamp()));
+            }
+            kafkaTemplate.flush();
+
+            Properties overrides = new Properties();
+            overrides.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
+            overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+            Set<String> ids = new HashSet<>();
+            List<Long> latencies = new ArrayList<>(RECORDS);
+            try (Consumer<String, User> consumer = consumerFactory.createConsumer(enrichedTopic + "-check", null, null, overrides)) {
+                consumer.subscribe(List.of(enrichedTopic));
+                long deadline = System.currentTimeMillis() + Duration.ofMinutes(2).toMillis();
+                while (ids.size() < RECORDS && System.currentTimeMillis() < deadline) {
+                    for (ConsumerRecord<String, User> record : consumer.poll(Duration.ofMillis(200))) {
+                        long now = System.currentTimeMillis();
+                        assertThat(record.value().getEmail().toString()).isEqualTo(record.value().getEmail().toString().toLowerCase());
+                        // Timestamp de origem propagado: a latência inclui a espera na fila de entrada
+                        assertThat(record.timestamp()).isEqualTo(sourceTimestamps.get(record.key()));
+                        ids.add(record.key());
+                        latencies.add(now - record.timestamp());
+                    }
+                }
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(ids).hasSize(RECORDS);
+            assertThat(latencies).hasSize(RECORDS);
+            latencies.sort(null);
+            Result result = new Result(RECORDS / seconds, latencies.get(RECORDS / 2), latencies.get(RECORDS * 99 / 100));
+            RESULTS.put(transactionSize, result);
+            System.out.printf("eos transaction-size=%d: %d records em %.2fs = %.0f records/s, visibilidade p50=%dms p99=%dms%n",
+                    transactionSize, RECORDS, seconds, result.recordsPerSecond(), result.p50Millis(), result.p99Millis());
+        }
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"kafka.topic.user=users-eos-10", "app.kafka.eos.output-topic=users-eos-10-enriched",
+            "app.kafka.eos.transaction-size=10", "app.kafka.eos.group-id=eos-10"})
+    class TransacoesPequenas extends Scenario {
+    }
+
+    @Nested
+    @TestPropertySource(properties = {"kafka.topic.user=users-eos-500", "app.kafka.eos.output-topic=users-eos-500-enriched",
+            "app.kafka.eos.transaction-size=500", "app.kafka.eos.group-id=eos-500"})
+    class TransacoesGrandes extends Scenario {
+    }
+}
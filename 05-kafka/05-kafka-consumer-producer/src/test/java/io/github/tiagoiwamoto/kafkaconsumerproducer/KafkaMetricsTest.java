@@ -0,0 +1,61 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://metrics",
+        "spring.kafka.consumer.group-id=metrics",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "kafka.topic.user=users-metrics"
+})
+@EmbeddedKafka(partitions = 2, topics = "users-metrics")
+class KafkaMetricsTest {
+
+    static final int RECORDS = 100;
+
+    @Autowired
+    ProducerService producerService;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    KafkaListenerEndpointRegistry registry;
+    @Autowired
+    ConsumerLagHealthIndicator consumerLagHealthIndicator;
+
+    @Test
+    void publicaMetricasDeProducerConsumerESerde() throws Exception {
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("users-consumer"), 2);
+
+        for (int i = 0; i < RECORDS; i++) {
+            producerService.sendUser(User.newBuilder().setId("user-" + i).setName("User " + i).build());
+        }
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> assertThat(meterRegistry.get("kafka.consumer.records")
+                .tag("topic", "users-metrics").tag("outcome", "success").counter().count()).isEqualTo(RECORDS));
+
+        assertThat(meterRegistry.get("kafka.consumer.bytes").counter().count()).isPositive();
+        assertThat(meterRegistry.get("kafka.consumer.e2e.latency").timer().count()).isEqualTo(RECORDS);
+        assertThat(meterRegistry.get("kafka.serde.time").tag("operation", "serialize").timer().count()).isEqualTo(RECORDS);
+        assertThat(meterRegistry.get("kafka.serde.time").tag("operation", "deserialize").timer().count()).isEqualTo(RECORDS);
+        assertThat(meterRegistry.get("kafka.producer.record.size").summary().count()).isEqualTo(RECORDS);
+        assertThat(meterRegistry.get("spring.kafka.template").timer().count()).isEqualTo(RECORDS);
+
+        var health = consumerLagHealthIndicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKeys("totalLag", "maxPartitionLag", "threshold");
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedBatchProcessorTest {
+
+    private static final TopicPartition P0 = new TopicPartition("users", 0);
+    private static final TopicPartition P1 = new TopicPartition("users", 1);
+
+    private final KeyOrderedBatchProcessor<String, String> processor = new KeyOrderedBatchProcessor<>();
+
+    @AfterEach
+    void tearDown() {
+        processor.close();
+    }
+
+    @Test
+    void preservaOrdemPorChave() {
+        List<ConsumerRecord<String, String>> records = new ArrayList<>();
+        for (int offset = 0; offset < 300; offset++) {
+            records.add(new ConsumerRecord<>("users", offset % 2, offset, "key-" + (offset % 7), "v" + offset));
+        }
+        Map<String, List<Long>> seen = new ConcurrentHashMap<>();
+
+        var result = processor.process(records, record ->
+                seen.computeIfAbsent(record.partition() + "/" + record.key(), k -> new CopyOnWriteArrayList<>())
+                        .add(record.offset()));
+
+        seen.values().forEach(offsets -> assertThat(offsets).isSorted());
+        assertThat(result.rewinds()).isEmpty();
+        assertThat(result.commits().get(P0).offset()).isEqualTo(299);
+        assertThat(result.commits().get(P1).offset()).isEqualTo(300);
+    }
+
+    @Test
+    void commitaMenorOffsetNaoConcluido() {
+        List<ConsumerRecord<String, String>> records = List.of(
+                new ConsumerRecord<>("users", 0, 10, "a", "ok"),
+                new ConsumerRecord<>("users", 0, 11, "b", "fail"),
+                new ConsumerRecord<>("users", 0, 12, "a", "ok"),
+                new ConsumerRecord<>("users", 0, 13, "b", "skipped"),
+                new ConsumerRecord<>("users", 1, 5, "c", "ok"));
+        List<Long> processed = new CopyOnWriteArrayList<>();
+
+        var result = processor.process(records, record -> {
+            if ("fail".equals(record.value())) {
+                throw new IllegalStateException("falha simulada");
+            }
+            processed.add(record.offset());
+        });
+
+        assertThat(processed).containsExactlyInAnyOrder(10L, 12L, 5L);
+        assertThat(result.commits().get(P0).offset()).isEqualTo(11);
+        assertThat(result.commits().get(P1).offset()).isEqualTo(6);
+        assertThat(result.rewinds()).containsExactly(Map.entry(P0, 11L));
+    }
+
+    @Test
+    void esgotaTentativasEEnviaAoRecoverer() {
+        List<ConsumerRecord<?, ?>> recovered = new CopyOnWriteArrayList<>();
+        try (var comRetry = new KeyOrderedBatchProcessor<String, String>(new FixedBackOff(100, 2),
+                (record, exception) -> recovered.add(record))) {
+            List<ConsumerRecord<String, String>> records = List.of(
+                    new ConsumerRecord<>("users", 0, 20, "a", "fail"),
+                    new ConsumerRecord<>("users", 0, 21, "a", "ok"));
+            List<Long> processed = new CopyOnWriteArrayList<>();
+            Consumer<ConsumerRecord<String, String>> handler = record -> {
+                if ("fail".equals(record.value())) {
+                    throw new IllegalStateException("falha permanente");
+                }
+                processed.add(record.offset());
+            };
+
+            for (int tentativa = 0; tentativa < 2; tentativa++) {
+                var result = comRetry.process(records, handler);
+                assertThat(result.rewinds()).containsExactly(Map.entry(P0, 20L));
+                assertThat(result.backOffMillis()).isEqualTo(100);
+            }
+            var result = comRetry.process(records, handler);
+
+            assertThat(recovered).extracting(ConsumerRecord::offset).containsExactly(20L);
+            assertThat(processed).containsExactly(21L);
+            assertThat(result.rewinds()).isEmpty();
+            assertThat(result.backOffMillis()).isZero();
+            assertThat(result.commits().get(P0).offset()).isEqualTo(22);
+        }
+    }
+
+    @Test
+    void registroSemChaveNaoColideComChaveReal() throws Exception {
+        // offset 42 sem chave e chave "42": se caíssem na mesma cadeia, o segundo esperaria o primeiro
+        CountDownLatch ambos = new CountDownLatch(2);
+        List<ConsumerRecord<String, String>> records = List.of(
+                new ConsumerRecord<>("users", 0, 42, null, "sem chave"),
+                new ConsumerRecord<>("users", 0, 43, "42", "chave 42"));
+
+        var result = processor.process(records, record -> {
+            ambos.countDown();
+            try {
+                if (!ambos.await(5, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("registros serializados na mesma cadeia");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        assertThat(result.rewinds()).isEmpty();
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o envio um a um do perfil default com sendUsers no perfil throughput (linger, lote grande, zstd).
+ * Cada cenário confere que todos os registros foram confirmados pelo broker; ao final o pipeline não pode ser
+ * mais lento que o envio um a um.
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://producer-throughput",
+        "spring.kafka.consumer.group-id=producer-throughput",
+        "kafka.topic.user=users-producer"
+})
+@EmbeddedKafka(partitions = 4, topics = "users-producer")
+class ProducerThroughputTest {
+
+    static final int RECORDS = 50_000;
+
+    static final List<User> USERS = IntStream.range(0, RECORDS)
+            .mapToObj(i -> User.newBuilder()
+                    .setId("user-" + i)
+                    .setName("User " + i)
+                    .setEmail("user" + i + "@example.com")
+                    .build())
+            .toList();
+
+    static final Map<String, Double> THROUGHPUT = new ConcurrentHashMap<>();
+
+    static void report(String label, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%s: %d records em %.2fs = %.0f records/s%n", label, RECORDS, seconds, RECORDS / seconds);
+        THROUGHPUT.put(label, RECORDS / seconds);
+    }
+
+    static void assertTodosConfirmados(KafkaTemplate<String, User> kafkaTemplate) {
+        assertThat(producerMetric(kafkaTemplate, "record-error-total")).isZero();
+        assertThat(producerMetric(kafkaTemplate, "record-send-total")).isGreaterThanOrEqualTo(RECORDS);
+    }
+
+    static double producerMetric(KafkaTemplate<String, User> kafkaTemplate, String name) {
+        return kafkaTemplate.metrics().entrySet().stream()
+                .filter(metric -> "producer-metrics".equals(metric.getKey().group()) && name.equals(metric.getKey().name()))
+                .mapToDouble(metric -> ((Number) metric.getValue().metricValue()).doubleValue())
+                .sum();
+    }
+
+    @AfterAll
+    static void pipelineNaoEhMaisLento() {
+        Double umAUm = THROUGHPUT.get("default sendUser");
+        Double pipeline = THROUGHPUT.get("throughput sendUsers");
+        if (umAUm != null && pipeline != null) {
+            // 10% de folga para ruído de máquina compartilhada
+            assertThat(pipeline).isGreaterThanOrEqualTo(umAUm * 0.9);
+        }
+    }
+
+    @Nested
+    class Default {
+
+        @Autowired
+        ProducerService producerService;
+        @Autowired
+        KafkaTemplate<String, User> kafkaTemplate;
+
+        @Test
+        void sendUserUmAUm() {
+            long start = System.nanoTime();
+            USERS.forEach(producerService::sendUser);
+            kafkaTemplate.flush();
+            report("default sendUser", start);
+            assertTodosConfirmados(kafkaTemplate);
+        }
+    }
+
+    @Nested
+    @ActiveProfiles("throughput")
+    class Throughput {
+
+        @Autowired
+        ProducerService producerService;
+        @Autowired
+        KafkaTemplate<String, User> kafkaTemplate;
+
+        @Test
+        void sendUsersEmPipeline() throws Exception {
+            long start = System.nanoTime();
+            // falha se algum envio falhar
+            producerService.sendUsers(USERS).get(2, TimeUnit.MINUTES);
+            report("throughput sendUsers", start);
+            assertTodosConfirmados(kafkaTemplate);
+        }
+    }
+}
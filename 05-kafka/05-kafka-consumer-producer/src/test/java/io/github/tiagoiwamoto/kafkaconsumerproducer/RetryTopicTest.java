@@ -0,0 +1,135 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Falhas injetadas: "flaky-*" falha nas duas primeiras tentativas, "fail-*" falha sempre até ser liberado.
+ * Os demais Users não podem esperar pelos retries.
+ */
+@SpringBootTest(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.properties.schema.registry.url=mock://retry",
+        "spring.kafka.consumer.group-id=retry",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "kafka.topic.user=users-retry-test",
+        "app.kafka.retry.attempts=3",
+        "app.kafka.retry.delay-ms=500",
+        "app.kafka.retry.multiplier=2",
+        "app.kafka.retry.max-delay-ms=2000"
+})
+@EmbeddedKafka(partitions = 1, topics = "users-retry-test")
+@Import(RetryTopicTest.FailureInjectionConfig.class)
+class RetryTopicTest {
+
+    static class FailureInjectingUserProcessor extends UserProcessor {
+
+        final Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+        final Map<String, Long> processedAt = new ConcurrentHashMap<>();
+        final AtomicBoolean failuresFixed = new AtomicBoolean();
+
+        @Override
+        public void process(ConsumerRecord<String, User> record) {
+            int attempt = attempts.computeIfAbsent(record.key(), k -> new AtomicInteger()).incrementAndGet();
+            if (record.key().startsWith("flaky-") && attempt <= 2) {
+                throw new IllegalStateException("falha transitória " + attempt);
+            }
+            if (record.key().startsWith("fail-") && !failuresFixed.get()) {
+                throw new IllegalStateException("falha permanente");
+            }
+            processedAt.put(record.key(), System.currentTimeMillis());
+        }
+    }
+
+    @TestConfiguration
+    static class FailureInjectionConfig {
+
+        @Bean
+        @Primary
+        FailureInjectingUserProcessor failureInjectingUserProcessor() {
+            return new FailureInjectingUserProcessor();
+        }
+    }
+
+    @Autowired
+    ProducerService producerService;
+    @Autowired
+    FailureInjectingUserProcessor userProcessor;
+    @Autowired
+    KafkaListenerEndpointRegistry registry;
+    @Autowired
+    ConsumerFactory<String, User> consumerFactory;
+    @Autowired
+    DltReplayer dltReplayer;
+
+    @Test
+    void retryNaoBloqueiaEFalhaDefinitivaVaiAoDltComMetadados() {
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("users-consumer"), 1);
+
+        producerService.sendUser(user("fail-1"));
+        producerService.sendUser(user("flaky-1"));
+        for (int i = 0; i < 50; i++) {
+            producerService.sendUser(user("ok-" + i));
+        }
+
+        await().atMost(Duration.ofSeconds(30)).until(() -> userProcessor.processedAt.containsKey("flaky-1"));
+        assertThat(userProcessor.attempts.get("flaky-1")).hasValue(3);
+        // Os registros atrás das falhas na mesma partição não esperaram os retries
+        assertThat(userProcessor.processedAt.get("ok-49")).isLessThan(userProcessor.processedAt.get("flaky-1"));
+
+        ConsumerRecord<String, User> dead = readDlt();
+        assertThat(dead.key()).isEqualTo("fail-1");
+        assertThat(userProcessor.attempts.get("fail-1")).hasValue(3);
+        assertThat(dead.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE)).isNotNull();
+        assertThat(dead.headers().lastHeader(KafkaRetryConfig.FAILURE_HOST)).isNotNull();
+        assertThat(new String(dead.headers().lastHeader(KafkaRetryConfig.FAILURE_ROOT_CAUSE).value()))
+                .isEqualTo(IllegalStateException.class.getName());
+
+        // Corrigida a causa, o replay devolve o registro ao tópico principal
+        userProcessor.failuresFixed.set(true);
+        assertThat(dltReplayer.replay(100)).isEqualTo(1);
+        await().atMost(Duration.ofSeconds(10)).until(() -> userProcessor.processedAt.containsKey("fail-1"));
+        assertThat(dltReplayer.replay(100)).isZero();
+    }
+
+    private ConsumerRecord<String, User> readDlt() {
+        Properties overrides = new Properties();
+        overrides.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        try (Consumer<String, User> consumer = consumerFactory.createConsumer("dlt-check", null, null, overrides)) {
+            consumer.subscribe(List.of("users-retry-test-dlt"));
+            ConsumerRecords<String, User> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(30), 1);
+            return records.iterator().next();
+        }
+    }
+
+    private static User user(String id) {
+        return User.newBuilder().setId(id).setName("User " + id).build();
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Valida o snapshot do cache e mede gravação/restauração de 1M Users contra o heap ocupado.
+ */
+class UserCacheStoreTest {
+
+    static final int USERS = 1_000_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void tombstoneRemoveEOffsetsSobrevivemAoSnapshot() throws Exception {
+        UserCacheStore store = new UserCacheStore(16);
+        store.apply("a", bytes("v1"), 0, 10);
+        store.apply("b", bytes("v1"), 1, 3);
+        store.apply("a", bytes("v2"), 0, 11);
+        store.apply("b", null, 1, 4);
+        Path file = dir.resolve("users.snapshot");
+        store.writeSnapshot(file);
+
+        UserCacheStore restored = new UserCacheStore(16);
+        assertThat(restored.loadSnapshot(file)).isTrue();
+
+        assertThat(restored.size()).isEqualTo(1);
+        assertThat(restored.get("a")).isEqualTo(bytes("v2"));
+        assertThat(restored.get("b")).isNull();
+        assertThat(restored.nextOffsets()).isEqualTo(Map.of(0, 12L, 1, 5L));
+    }
+
+    @Test
+    void snapshotAusenteNaoCarrega() throws Exception {
+        assertThat(new UserCacheStore(16).loadSnapshot(dir.resolve("missing.snapshot"))).isFalse();
+    }
+
+    @Test
+    void snapshotComFormatoDesconhecidoFalhaComStoreVazio() throws Exception {
+        Path file = dir.resolve("users.snapshot");
+        Files.write(file, new byte[]{0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0});
+
+        UserCacheStore store = new UserCacheStore(16);
+        assertThatThrownBy(() -> store.loadSnapshot(file)).isInstanceOf(IOException.class);
+        assertThat(store.size()).isZero();
+        assertThat(store.nextOffsets()).isEmpty();
+    }
+
+    @Test
+    void snapshotTruncadoFalhaComStoreVazio() throws Exception {
+        UserCacheStore store = new UserCacheStore(16);
+        store.apply("a", bytes("v1"), 0, 10);
+        store.apply("b", bytes("v1"), 0, 11);
+        Path file = dir.resolve("users.snapshot");
+        store.writeSnapshot(file);
+        byte[] content = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(content, content.length - 3));
+
+        UserCacheStore restored = new UserCacheStore(16);
+        assertThatThrownBy(() -> restored.loadSnapshot(file))
+                .isInstanceOf(IOException.class)
+                .hasCauseInstanceOf(BufferUnderflowException.class);
+        assertThat(restored.size()).isZero();
+        assertThat(restored.nextOffsets()).isEmpty();
+    }
+
+    @Test
+    @Tag("benchmark")
+    void medeSnapshotDeUmMilhao() throws Exception {
+        long heapBefore = usedHeap();
+        UserCacheStore store = new UserCacheStore(USERS);
+        for (int i = 0; i < USERS; i++) {
+            // ~ tamanho de um User Avro no wire format do Confluent
+            store.apply("user-" + i, bytes("\0\0\0\0\1" + "User " + i + "user" + i + "@example.com"), i % 4, i / 4);
+        }
+        long heapPerMillion = usedHeap() - heapBefore;
+        Path file = dir.resolve("users.snapshot");
+
+        long start = System.nanoTime();
+        store.writeSnapshot(file);
+        double writeMs = (System.nanoTime() - start) / 1e6;
+
+        UserCacheStore restored = new UserCacheStore(USERS);
+        start = System.nanoTime();
+        restored.loadSnapshot(file);
+        double loadMs = (System.nanoTime() - start) / 1e6;
+
+        assertThat(restored.size()).isEqualTo(USERS);
+        assertThat(restored.get("user-42")).isEqualTo(store.get("user-42"));
+        System.out.printf("cache: %d users, heap %.1f MB, snapshot %.1f MB gravado em %.0f ms, restaurado em %.0f ms%n",
+                USERS, heapPerMillion / 1e6, file.toFile().length() / 1e6, writeMs, loadMs);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
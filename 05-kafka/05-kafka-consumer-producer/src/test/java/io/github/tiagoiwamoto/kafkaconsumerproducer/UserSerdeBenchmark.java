@@ -0,0 +1,115 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de serialização/deserialização do User por modo de serde ({@code app.kafka.serde.mode}).
+ * Executar após {@code mvn test-compile}: {@code java -cp target/test-classes:<classpath> ...UserSerdeBenchmark}
+ * ou pelo main na IDE. O main liga o GCProfiler ({@code gc.alloc.rate.norm} = bytes alocados por operação).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserSerdeBenchmark {
+
+    private static final String TOPIC = "users";
+
+    @Param({"confluent", "registry", "single-object"})
+    String mode;
+
+    private Serializer<User> serializer;
+    private Deserializer<User> deserializer;
+    private User user;
+    private User reuse;
+    private byte[] bytes;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        Map<String, Object> config = Map.of(
+                "schema.registry.url", "mock://benchmark",
+                "specific.avro.reader", true,
+                RegistryUserSerializer.SUBJECT, TOPIC + "-value",
+                RegistryUserSerializer.AUTO_REGISTER, true);
+        switch (mode) {
+            case "registry" -> {
+                serializer = new RegistryUserSerializer();
+                deserializer = new RegistryUserDeserializer();
+            }
+            case "single-object" -> {
+                serializer = new SingleObjectUserSerializer();
+                deserializer = new SingleObjectUserDeserializer();
+            }
+            default -> {
+                serializer = (Serializer) new KafkaAvroSerializer();
+                deserializer = (Deserializer) new KafkaAvroDeserializer();
+            }
+        }
+        serializer.configure(config, false);
+        deserializer.configure(config, false);
+        user = User.newBuilder()
+                .setId("3f2c9a6e-5b1d-4c7e-9a0f-8d6b2e4c1a37")
+                .setName("Tiago Iwamoto")
+                .setEmail("tiago@example.com")
+                .build();
+        bytes = serializer.serialize(TOPIC, user);
+        reuse = new User();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        MockSchemaRegistry.dropScope("benchmark");
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(TOPIC, user);
+    }
+
+    @Benchmark
+    public User deserialize() {
+        return deserializer.deserialize(TOPIC, bytes);
+    }
+
+    @Benchmark
+    public User deserializeReusingUser() {
+        return deserializer instanceof ReusingUserDeserializer reusing
+                ? reusing.deserialize(TOPIC, bytes, reuse)
+                : deserializer.deserialize(TOPIC, bytes);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserSerdeBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.confluent.kafka.serializers.KafkaAvroDeserializer;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.avro.util.Utf8;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Serdes do User contra o registry em memória ({@code mock://}).
+ */
+class UserSerdeTest {
+
+    private static final String SCOPE = "user-serde";
+    private static final Map<String, Object> CONFIG = Map.of(
+            "schema.registry.url", "mock://" + SCOPE,
+            "specific.avro.reader", true,
+            RegistryUserSerializer.SUBJECT, "users-value");
+
+    private final User user = User.newBuilder()
+            .setId("user-1")
+            .setName("User 1")
+            .setEmail("user1@example.com")
+            .build();
+
+    @AfterEach
+    void tearDown() {
+        MockSchemaRegistry.dropScope(SCOPE);
+    }
+
+    @Test
+    void registryExigeSchemaPreRegistrado() {
+        assertThatThrownBy(() -> new RegistryUserSerializer().configure(CONFIG, false))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    @Test
+    void registryCompativelComConfluent() {
+        var confluentSerializer = new KafkaAvroSerializer();
+        confluentSerializer.configure(CONFIG, false);
+        // O serializer do Confluent registra o schema; o RegistryUserSerializer só consulta o id
+        byte[] confluentBytes = confluentSerializer.serialize("users", user);
+        var serializer = new RegistryUserSerializer();
+        serializer.configure(CONFIG, false);
+        var deserializer = new RegistryUserDeserializer();
+        deserializer.configure(CONFIG, false);
+        var confluentDeserializer = new KafkaAvroDeserializer();
+        confluentDeserializer.configure(CONFIG, false);
+
+        byte[] bytes = serializer.serialize("users", user);
+
+        assertThat(bytes).isEqualTo(confluentBytes);
+        assertThat(deserializer.deserialize("users", confluentBytes)).isEqualTo(user);
+        assertThat(confluentDeserializer.deserialize("users", bytes)).isEqualTo(user);
+    }
+
+    @Test
+    void singleObjectSemRegistry() {
+        byte[] bytes = new SingleObjectUserSerializer().serialize("users-internal", user);
+
+        assertThat(bytes[0]).isEqualTo((byte) 0xC3);
+        assertThat(bytes[1]).isEqualTo((byte) 0x01);
+        assertThat(new SingleObjectUserDeserializer().deserialize("users-internal", bytes)).isEqualTo(user);
+    }
+
+    @Test
+    void reaproveitaInstanciaECamposUtf8() {
+        var serializer = new SingleObjectUserSerializer();
+        var deserializer = new SingleObjectUserDeserializer();
+        User other = User.newBuilder(user).setId("user-2").build();
+        User reuse = new User();
+
+        User first = deserializer.deserialize("users-internal", serializer.serialize("users-internal", user), reuse);
+        User second = deserializer.deserialize("users-internal", serializer.serialize("users-internal", other), reuse);
+
+        assertThat(first).isSameAs(reuse).isSameAs(second);
+        assertThat(second.getId()).isInstanceOf(Utf8.class).hasToString("user-2");
+    }
+
+    @Test
+    void serializerReaproveitaBufferSemCompartilharResultado() {
+        var serializer = new SingleObjectUserSerializer();
+
+        byte[] first = serializer.serialize("users-internal", user);
+        byte[] second = serializer.serialize("users-internal", User.newBuilder(user).setName("Outro").build());
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(new SingleObjectUserDeserializer().deserialize("users-internal", first)).isEqualTo(user);
+    }
+}
@@ -0,0 +1,131 @@
+package io.github.tiagoiwamoto.kafkaconsumerproducer;
+
+import io.github.tiagoiwamoto.avro.User;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserStatsTopologyTest {
+
+    private static final String TOPIC = "users";
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, User> input;
+
+    @BeforeEach
+    void setUp() {
+        Serde<User> serde = UserSerdes.serde("single-object", Map.of());
+        StreamsBuilder builder = new StreamsBuilder();
+        UserStatsTopology.build(builder, TOPIC, serde);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "users-stats-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        props.put(StreamsConfig.ROCKSDB_CONFIG_SETTER_CLASS_CONFIG, UserStatsRocksDBConfig.class);
+        props.put(StreamsConfig.STATESTORE_CACHE_MAX_BYTES_CONFIG, 0);
+        driver = new TopologyTestDriver(builder.build(), props);
+        input = driver.createInputTopic(TOPIC, new StringSerializer(), serde.serializer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        driver.close();
+    }
+
+    private static User user(String id, String email) {
+        return User.newBuilder().setId(id).setName("User " + id).setEmail(email).build();
+    }
+
+    @Test
+    void contaPorDominioComTrocaDeEmail() {
+        input.pipeInput("1", user("1", "a@example.com"));
+        input.pipeInput("2", user("2", "b@Example.com"));
+        input.pipeInput("3", user("3", null));
+        input.pipeInput("1", user("1", "a@acme.io"));
+
+        KeyValueStore<String, Long> domains = driver.getKeyValueStore(UserStatsTopology.DOMAINS_STORE);
+        assertThat(domains.get("example.com")).isEqualTo(1L);
+        assertThat(domains.get("acme.io")).isEqualTo(1L);
+        assertThat(domains.get(UserStatsTopology.NO_DOMAIN)).isEqualTo(1L);
+    }
+
+    @Test
+    void detectaDuplicadosEAlteracoesPorId() {
+        input.pipeInput("1", user("1", "a@example.com"));
+        input.pipeInput("1", user("1", "a@example.com"));
+        input.pipeInput("1", user("1", "novo@example.com"));
+        input.pipeInput("2", user("2", "b@example.com"));
+        input.pipeInput("2", (User) null);
+
+        KeyValueStore<String, Long> changes = driver.getKeyValueStore(UserStatsTopology.CHANGES_STORE);
+        assertThat(changes.get("CREATED")).isEqualTo(2L);
+        assertThat(changes.get("DUPLICATE")).isEqualTo(1L);
+        assertThat(changes.get("CHANGED")).isEqualTo(1L);
+        assertThat(changes.get("DELETED")).isEqualTo(1L);
+        assertThat(driver.<String, Long>getKeyValueStore(UserStatsTopology.DOMAINS_STORE).get("example.com"))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void cadaIdContaUmaVezPorDominioComAlteracoesRepetidas() {
+        pipeUsers(1_000, 200);
+
+        assertThat(totalPorDominio()).isEqualTo(200);
+        KeyValueStore<String, Long> changes = driver.getKeyValueStore(UserStatsTopology.CHANGES_STORE);
+        assertThat(changes.get("CREATED")).isEqualTo(200L);
+        assertThat(changes.get("CHANGED")).isEqualTo(800L);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void medeThroughput() {
+        int records = 100_000;
+        double seconds = pipeUsers(records, 20_000) / 1e9;
+        System.out.printf("topology: %d records em %.2fs = %.0f records/s%n", records, seconds, records / seconds);
+
+        assertThat(totalPorDominio()).isEqualTo(20_000);
+    }
+
+    /**
+     * Reenvia {@code ids} Users em ciclo; a partir do segundo ciclo cada registro troca o domínio do email.
+     *
+     * @return duração em nanossegundos
+     */
+    private long pipeUsers(int records, int ids) {
+        long start = System.nanoTime();
+        for (int i = 0; i < records; i++) {
+            int id = i % ids;
+            input.pipeInput(String.valueOf(id), user(String.valueOf(id), "user" + id + "@d" + (i % 7) + ".com"));
+        }
+        return System.nanoTime() - start;
+    }
+
+    private long totalPorDominio() {
+        long total = 0;
+        try (var all = driver.<String, Long>getKeyValueStore(UserStatsTopology.DOMAINS_STORE).all()) {
+            while (all.hasNext()) {
+                total += all.next().value;
+            }
+        }
+        return total;
+    }
+}
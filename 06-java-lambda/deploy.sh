@@ -111,7 +111,7 @@ if echo "$FUNCTION_EXISTS" | grep -q "ResourceNotFoundException"; then
         --role $ROLE_ARN \
         --zip-file fileb://$PACKAGE_FILE \
         --region $REGION \
-        --environment Variables={LOG_LEVEL=INFO}
+        --environment Variables={LOG_LEVEL=INFO,SQS_PARALLEL_PROCESSING=false,SQS_LOG_MODE=structured}
 
     echo -e "${GREEN}Função Lambda criada com sucesso!${NC}"
 else
@@ -142,6 +142,7 @@ if [ "$CONFIGURE_SQS" = "s" ] || [ "$CONFIGURE_SQS" = "S" ]; then
         --event-source-arn $QUEUE_ARN \
         --batch-size 10 \
         --maximum-batching-window-in-seconds 5 \
+        --function-response-types ReportBatchItemFailures \
         --region $REGION
 
     echo -e "${GREEN}Event Source Mapping configurado com sucesso!${NC}"
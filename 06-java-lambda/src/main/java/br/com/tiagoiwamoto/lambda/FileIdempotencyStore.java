@@ -0,0 +1,98 @@
+package br.com.tiagoiwamoto.lambda;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * {@link IdempotencyStore} em arquivo append-only ({@code expiresAt chave} por linha), para testes e execução
+ * local. Na abertura as chaves expiradas são descartadas e o arquivo é reescrito; enquanto o store fica aberto o
+ * arquivo e o mapa em memória só crescem, uma linha e uma entrada por mensagem processada.
+ */
+public class FileIdempotencyStore implements IdempotencyStore, AutoCloseable {
+
+    private final Map<String, Long> entries = new HashMap<>();
+    private final LongSupplier clock;
+    private final BufferedWriter writer;
+
+    public FileIdempotencyStore(Path file) {
+        this(file, System::currentTimeMillis);
+    }
+
+    FileIdempotencyStore(Path file, LongSupplier clock) {
+        this.clock = clock;
+        try {
+            load(file);
+            this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                                                  StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao abrir store de idempotência " + file, e);
+        }
+    }
+
+    @Override
+    public synchronized long expiresAt(String key) {
+        Long expiresAt = entries.get(key);
+        if (expiresAt == null) {
+            return 0;
+        }
+        if (expiresAt <= clock.getAsLong()) {
+            entries.remove(key);
+            return 0;
+        }
+        return expiresAt;
+    }
+
+    @Override
+    public synchronized void put(String key, long expiresAtMillis) {
+        entries.put(key, expiresAtMillis);
+        try {
+            writer.write(Long.toString(expiresAtMillis));
+            writer.write(' ');
+            writer.write(key);
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar chave de idempotência", e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private void load(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        long now = clock.getAsLong();
+        try (var lines = Files.lines(file, StandardCharsets.UTF_8)) {
+            lines.forEach(line -> {
+                int separator = line.indexOf(' ');
+                if (separator > 0) {
+                    long expiresAt = Long.parseLong(line, 0, separator, 10);
+                    if (expiresAt > now) {
+                        entries.merge(line.substring(separator + 1), expiresAt, Math::max);
+                    }
+                }
+            });
+        }
+        Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter out = Files.newBufferedWriter(compacted, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, Long> entry : entries.entrySet()) {
+                out.write(entry.getValue() + " " + entry.getKey());
+                out.newLine();
+            }
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.tiagoiwamoto.lambda;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs do caminho quente do {@link SqsEventHandler}, escolhidos por {@code SQS_LOG_MODE}.
+ * <ul>
+ *     <li>{@code verbose} (padrão): uma linha info por mensagem; corpo e atributos em debug.</li>
+ *     <li>{@code structured}: uma linha JSON por evento e por mensagem amostrada ({@code SQS_LOG_SAMPLE_RATE},
+ *     de 0 a 1). Falhas são sempre registradas, numa linha só; o stack trace vai para debug.</li>
+ * </ul>
+ * Tudo que monta argumento ou percorre atributos fica atrás do teste de nível.
+ */
+final class HandlerLog {
+
+    static final String MODE_ENV = "SQS_LOG_MODE";
+    static final String SAMPLE_RATE_ENV = "SQS_LOG_SAMPLE_RATE";
+
+    enum Mode {
+        VERBOSE, STRUCTURED;
+
+        static Mode from(String value) {
+            return value == null || value.isBlank() ? VERBOSE : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(SqsEventHandler.class);
+
+    private final Mode mode;
+    private final double sampleRate;
+
+    HandlerLog(Mode mode, double sampleRate) {
+        this.mode = mode;
+        this.sampleRate = sampleRate;
+    }
+
+    static HandlerLog fromEnv() {
+        String sampleRate = System.getenv(SAMPLE_RATE_ENV);
+        return new HandlerLog(Mode.from(System.getenv(MODE_ENV)),
+                              sampleRate == null || sampleRate.isBlank() ? 0.01 : Double.parseDouble(sampleRate));
+    }
+
+    void eventReceived(int records) {
+        if (mode == Mode.VERBOSE) {
+            logger.info("Recebendo evento SQS com {} mensagens", records);
+        }
+    }
+
+    void recordStarted(SqsRecord record) {
+        if (mode != Mode.VERBOSE) {
+            return;
+        }
+        logger.info("Processando mensagem ID: {}", record.messageId());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Corpo da mensagem: {}", record.body());
+            for (Map.Entry<String, String> attribute : record.attributes().entrySet()) {
+                logger.debug("Atributo {}: {}", attribute.getKey(), attribute.getValue());
+            }
+        }
+    }
+
+    void recordProcessed(SqsRecord record) {
+        if (mode == Mode.VERBOSE) {
+            logger.info("Mensagem processada com sucesso: {}", record.messageId());
+        } else if (sampled() && logger.isInfoEnabled()) {
+            logger.info("{\"event\":\"sqs_record\",\"messageId\":\"{}\",\"bodyLength\":{},\"sampleRate\":{}}",
+                        record.messageId(), record.body() == null ? 0 : record.body().length(), sampleRate);
+        }
+    }
+
+    void recordSkipped(SqsRecord record) {
+        if (mode == Mode.VERBOSE) {
+            logger.info("Mensagem duplicada ignorada: {}", record.messageId());
+        } else if (sampled() && logger.isInfoEnabled()) {
+            logger.info("{\"event\":\"sqs_record_duplicate\",\"messageId\":\"{}\",\"sampleRate\":{}}",
+                        record.messageId(), sampleRate);
+        }
+    }
+
+    void recordFailed(SqsRecord record, Exception error) {
+        if (mode == Mode.VERBOSE) {
+            logger.error("Erro ao processar mensagem: {}", record.messageId(), error);
+        } else {
+            logger.error("{\"event\":\"sqs_record_failed\",\"messageId\":\"{}\",\"errorType\":\"{}\"}",
+                         record.messageId(), error.getClass().getName());
+            logger.debug("Stack trace da falha em {}", record.messageId(), error);
+        }
+    }
+
+    void eventCompleted(int records, int failed, long duplicates, long durationNanos) {
+        if (mode == Mode.VERBOSE) {
+            logger.info("Processamento concluído - Sucesso: {}, Falhas: {}, Duplicadas: {}",
+                        records - failed, failed, duplicates);
+        } else if (logger.isInfoEnabled()) {
+            logger.info("{\"event\":\"sqs_batch\",\"records\":{},\"failed\":{},\"duplicates\":{},\"durationMs\":{}}",
+                        records, failed, duplicates, durationNanos / 1_000_000);
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
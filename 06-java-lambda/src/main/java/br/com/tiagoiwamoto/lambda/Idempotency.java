@@ -0,0 +1,147 @@
+package br.com.tiagoiwamoto.lambda;
+
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Descarta reentregas do SQS (at-least-once) antes do {@link MessageProcessor}. A chave é o {@code messageId}
+ * ou o SHA-256 do corpo; consulta primeiro um LRU limitado do container e depois o {@link IdempotencyStore}
+ * opcional. As chaves valem por um TTL e só são gravadas depois de a mensagem ser processada com sucesso, então
+ * falhas continuam sendo reprocessadas. Duas cópias processadas ao mesmo tempo não são detectadas: em containers
+ * diferentes ou, no modo paralelo, dentro do mesmo lote, onde as duas consultam a chave antes de qualquer uma
+ * gravá-la.
+ * <p>
+ * Configuração: {@code SQS_IDEMPOTENCY} ({@code none}, o padrão, {@code message-id} ou {@code body-hash}),
+ * {@code SQS_IDEMPOTENCY_TTL_SECONDS}, {@code SQS_IDEMPOTENCY_MAX_ENTRIES} e {@code SQS_IDEMPOTENCY_FILE}.
+ */
+final class Idempotency {
+
+    static final String KEY_ENV = "SQS_IDEMPOTENCY";
+    static final String TTL_ENV = "SQS_IDEMPOTENCY_TTL_SECONDS";
+    static final String MAX_ENTRIES_ENV = "SQS_IDEMPOTENCY_MAX_ENTRIES";
+    static final String FILE_ENV = "SQS_IDEMPOTENCY_FILE";
+
+    enum Key {
+        NONE, MESSAGE_ID, BODY_HASH;
+
+        static Key from(String value) {
+            return value == null || value.isBlank()
+                ? NONE
+                : valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        }
+    }
+
+    private final Key key;
+    private final long ttlMillis;
+    private final IdempotencyStore store;
+    private final LongSupplier clock;
+    private final Map<String, Long> recent;
+    private final LongAdder duplicates = new LongAdder();
+
+    Idempotency(Key key, int maxEntries, Duration ttl, IdempotencyStore store, LongSupplier clock) {
+        this.key = key;
+        this.ttlMillis = ttl.toMillis();
+        this.store = store;
+        this.clock = clock;
+        this.recent = new LinkedHashMap<>(Math.min(maxEntries, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    static Idempotency disabled() {
+        return new Idempotency(Key.NONE, 1, Duration.ZERO, null, System::currentTimeMillis);
+    }
+
+    static Idempotency fromEnv() {
+        String file = System.getenv(FILE_ENV);
+        return new Idempotency(Key.from(System.getenv(KEY_ENV)),
+                               intEnv(MAX_ENTRIES_ENV, 100_000),
+                               Duration.ofSeconds(intEnv(TTL_ENV, 3_600)),
+                               file == null || file.isBlank() ? null : new FileIdempotencyStore(Path.of(file)),
+                               System::currentTimeMillis);
+    }
+
+    /**
+     * Chave da mensagem, ou null com a idempotência desligada.
+     */
+    String key(SqsRecord record) {
+        return switch (key) {
+            case NONE -> null;
+            case MESSAGE_ID -> record.messageId();
+            case BODY_HASH -> record.body() == null ? record.messageId() : sha256(record.body());
+        };
+    }
+
+    /**
+     * true se a chave já foi processada dentro do TTL; conta a mensagem como duplicada.
+     */
+    boolean isDuplicate(String key) {
+        long now = clock.getAsLong();
+        long expiresAt;
+        synchronized (recent) {
+            Long cached = recent.get(key);
+            expiresAt = cached == null ? 0 : cached;
+            if (cached != null && expiresAt <= now) {
+                recent.remove(key);
+            }
+        }
+        if (expiresAt <= now && store != null) {
+            expiresAt = store.expiresAt(key);
+            if (expiresAt > now) {
+                synchronized (recent) {
+                    recent.put(key, expiresAt);
+                }
+            }
+        }
+        if (expiresAt > now) {
+            duplicates.increment();
+            return true;
+        }
+        return false;
+    }
+
+    void markProcessed(String key) {
+        long expiresAt = clock.getAsLong() + ttlMillis;
+        synchronized (recent) {
+            recent.put(key, expiresAt);
+        }
+        if (store != null) {
+            store.put(key, expiresAt);
+        }
+    }
+
+    /**
+     * Total de mensagens descartadas como duplicadas desde o init do container.
+     */
+    long duplicates() {
+        return duplicates.sum();
+    }
+
+    private static String sha256(CharSequence body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(StandardCharsets.UTF_8.encode(CharBuffer.wrap(body)));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int intEnv(String name, int defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+}
@@ -0,0 +1,15 @@
+package br.com.tiagoiwamoto.lambda;
+
+/**
+ * Camada persistente do {@link Idempotency}, compartilhada entre containers (ex.: DynamoDB com TTL).
+ * {@link FileIdempotencyStore} é a implementação local.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * Instante (epoch millis) até o qual a chave vale como processada, ou 0 se ela não existe.
+     */
+    long expiresAt(String key);
+
+    void put(String key, long expiresAtMillis);
+}
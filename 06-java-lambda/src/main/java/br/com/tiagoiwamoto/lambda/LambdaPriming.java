@@ -0,0 +1,79 @@
+package br.com.tiagoiwamoto.lambda;
+
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+
+/**
+ * Priming do handler na fase de init, antes da primeira invocação.
+ * <ul>
+ *     <li>{@code init}: no construtor do handler. Vale para JVM, native image e SnapStart (o init roda antes
+ *     do snapshot).</li>
+ *     <li>{@code checkpoint}: só no {@code beforeCheckpoint} do CRaC/SnapStart; cold starts sem snapshot não
+ *     pagam o priming.</li>
+ *     <li>{@code none}: desligado.</li>
+ * </ul>
+ */
+final class LambdaPriming implements Resource {
+
+    static final String MODE_ENV = "LAMBDA_PRIMING";
+
+    enum Mode {
+        NONE, INIT, CHECKPOINT;
+
+        static Mode from(String value) {
+            return value == null || value.isBlank() ? INIT : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(LambdaPriming.class);
+
+    private final Mode mode;
+    private final Runnable primer;
+    private volatile boolean primed;
+
+    LambdaPriming(Mode mode, Runnable primer) {
+        this.mode = mode;
+        this.primer = primer;
+    }
+
+    Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Chamado no construtor do handler. O contexto global do CRaC guarda referências fracas, então quem
+     * chama precisa manter esta instância viva.
+     */
+    void onInit() {
+        switch (mode) {
+            case INIT -> prime();
+            case CHECKPOINT -> Core.getGlobalContext().register(this);
+            case NONE -> logger.debug("Priming desabilitado");
+        }
+    }
+
+    synchronized void prime() {
+        if (primed) {
+            return;
+        }
+        long start = System.nanoTime();
+        primer.run();
+        primed = true;
+        logger.info("Priming ({}) concluído em {} ms", mode, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Override
+    public void beforeCheckpoint(Context<? extends Resource> context) {
+        prime();
+    }
+
+    @Override
+    public void afterRestore(Context<? extends Resource> context) {
+        logger.info("Handler restaurado de snapshot");
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.tiagoiwamoto.lambda;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Runtime customizado para o executável nativo ({@code provided.al2}): busca eventos no Runtime API, lê o
+ * JSON do SQS com {@link SqsEventParser} e responde com os {@code batchItemFailures}. Não usa o modelo
+ * {@code SQSEvent} nem data binding por reflexão.
+ *
+ * @see <a href="https://docs.aws.amazon.com/lambda/latest/dg/runtimes-api.html">Lambda Runtime API</a>
+ */
+final class LambdaRuntime {
+
+    static final String RUNTIME_API_ENV = "AWS_LAMBDA_RUNTIME_API";
+
+    private static final Logger logger = LoggerFactory.getLogger(LambdaRuntime.class);
+    private static final String API_VERSION = "/2018-06-01/runtime";
+
+    private final String baseUrl;
+    private final SqsEventHandler handler;
+    private final JsonFactory jsonFactory;
+    private final SqsEventParser parser;
+
+    LambdaRuntime(String runtimeApi, SqsEventHandler handler, JsonFactory jsonFactory) {
+        this.baseUrl = "http://" + runtimeApi + API_VERSION;
+        this.handler = handler;
+        this.jsonFactory = jsonFactory;
+        this.parser = new SqsEventParser(jsonFactory);
+    }
+
+    /**
+     * Inicializa o handler e processa eventos até o processo ser encerrado. Falhas no init são reportadas em
+     * {@code /init/error}.
+     */
+    static void start(String runtimeApi) {
+        JsonFactory jsonFactory = new JsonFactory();
+        SqsEventHandler handler;
+        try {
+            handler = new SqsEventHandler();
+        } catch (RuntimeException e) {
+            new LambdaRuntime(runtimeApi, null, jsonFactory).postError("/init/error", e);
+            throw e;
+        }
+        LambdaRuntime runtime = new LambdaRuntime(runtimeApi, handler, jsonFactory);
+        while (true) {
+            runtime.processNext();
+        }
+    }
+
+    /**
+     * Busca e processa um evento. Bloqueia em {@code /invocation/next} até o Lambda entregar o próximo; erros
+     * da invocação são reportados em {@code /invocation/{id}/error}.
+     */
+    void processNext() {
+        HttpURLConnection next = open("/invocation/next", "GET");
+        String requestId = next.getHeaderField("Lambda-Runtime-Aws-Request-Id");
+        if (requestId == null) {
+            // Runtime API indisponível: encerra o processo e deixa o Lambda reiniciar o ambiente
+            throw new IllegalStateException("Runtime API respondeu sem Lambda-Runtime-Aws-Request-Id");
+        }
+        try {
+            String traceId = next.getHeaderField("Lambda-Runtime-Trace-Id");
+            if (traceId != null) {
+                System.setProperty("com.amazonaws.xray.traceHeader", traceId);
+            }
+            RuntimeContext context = new RuntimeContext(requestId,
+                next.getHeaderField("Lambda-Runtime-Invoked-Function-Arn"),
+                parseLong(next.getHeaderField("Lambda-Runtime-Deadline-Ms")));
+
+            List<SqsRecord> records;
+            try (InputStream in = next.getInputStream()) {
+                records = parser.parse(in);
+            }
+            post("/invocation/" + requestId + "/response", parser.writeBatchResponse(handler.handleRecords(records, context)), null);
+        } catch (IOException | RuntimeException e) {
+            logger.error("Erro na invocação {}", requestId, e);
+            postError("/invocation/" + requestId + "/error", e);
+        }
+    }
+
+    private void postError(String path, Exception error) {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+                generator.writeStartObject();
+                generator.writeStringField("errorMessage", String.valueOf(error.getMessage()));
+                generator.writeStringField("errorType", error.getClass().getName());
+                generator.writeEndObject();
+            }
+            post(path, out.toByteArray(), error.getClass().getName());
+        } catch (IOException | RuntimeException e) {
+            logger.error("Falha ao reportar erro em {}", path, e);
+        }
+    }
+
+    private void post(String path, byte[] body, String errorType) throws IOException {
+        HttpURLConnection connection = open(path, "POST");
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", "application/json");
+        if (errorType != null) {
+            connection.setRequestProperty("Lambda-Runtime-Function-Error-Type", errorType);
+        }
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int status = connection.getResponseCode();
+        // Consome a resposta para a conexão voltar ao pool de keep-alive
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                in.readAllBytes();
+            }
+        }
+        if (status >= 300) {
+            throw new IOException("Runtime API respondeu " + status + " em " + path);
+        }
+    }
+
+    private HttpURLConnection open(String path, String method) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) URI.create(baseUrl + path).toURL().openConnection();
+            connection.setRequestMethod(method);
+            // /invocation/next bloqueia até o próximo evento
+            connection.setReadTimeout(0);
+            return connection;
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao conectar no Runtime API " + baseUrl, e);
+        }
+    }
+
+    private static long parseLong(String value) {
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    /**
+     * {@link Context} montado a partir dos headers do Runtime API e das variáveis de ambiente do Lambda.
+     */
+    record RuntimeContext(String awsRequestId, String invokedFunctionArn, long deadlineMs) implements Context {
+
+        private static final LambdaLogger LAMBDA_LOGGER = new LambdaLogger() {
+            @Override
+            public void log(String message) {
+                System.out.println(message);
+            }
+
+            @Override
+            public void log(byte[] message) {
+                System.out.println(new String(message, StandardCharsets.UTF_8));
+            }
+        };
+
+        @Override
+        public String getAwsRequestId() {
+            return awsRequestId;
+        }
+
+        @Override
+        public String getLogGroupName() {
+            return System.getenv("AWS_LAMBDA_LOG_GROUP_NAME");
+        }
+
+        @Override
+        public String getLogStreamName() {
+            return System.getenv("AWS_LAMBDA_LOG_STREAM_NAME");
+        }
+
+        @Override
+        public String getFunctionName() {
+            return System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+        }
+
+        @Override
+        public String getFunctionVersion() {
+            return System.getenv("AWS_LAMBDA_FUNCTION_VERSION");
+        }
+
+        @Override
+        public String getInvokedFunctionArn() {
+            return invokedFunctionArn;
+        }
+
+        @Override
+        public CognitoIdentity getIdentity() {
+            return null;
+        }
+
+        @Override
+        public ClientContext getClientContext() {
+            return null;
+        }
+
+        @Override
+        public int getRemainingTimeInMillis() {
+            return deadlineMs == 0 ? Integer.MAX_VALUE : (int) Math.max(0, deadlineMs - System.currentTimeMillis());
+        }
+
+        @Override
+        public int getMemoryLimitInMB() {
+            String memory = System.getenv("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+            return memory == null ? 0 : Integer.parseInt(memory);
+        }
+
+        @Override
+        public LambdaLogger getLogger() {
+            return LAMBDA_LOGGER;
+        }
+    }
+}
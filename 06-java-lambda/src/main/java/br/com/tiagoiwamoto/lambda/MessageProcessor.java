@@ -0,0 +1,133 @@
+package br.com.tiagoiwamoto.lambda;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.List;
+
+/**
+ * Processa o corpo das mensagens SQS: JSON com campo "type" (ORDER, NOTIFICATION, UPDATE) ou texto simples.
+ * O {@link ObjectReader} é resolvido uma vez no construtor e reaproveitado em todas as mensagens.
+ */
+public class MessageProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageProcessor.class);
+
+    /**
+     * Um exemplo de cada tipo suportado, usado no priming.
+     */
+    static final List<String> PRIMING_MESSAGES = List.of(
+        "{\"type\":\"ORDER\",\"orderId\":\"priming\",\"amount\":100.00}",
+        "{\"type\":\"NOTIFICATION\",\"message\":\"priming\"}",
+        "{\"type\":\"UPDATE\",\"entityId\":\"priming\",\"fields\":{\"status\":\"active\"}}"
+    );
+
+    private final ObjectReader treeReader;
+
+    public MessageProcessor() {
+        this(new ObjectMapper());
+    }
+
+    public MessageProcessor(ObjectMapper objectMapper) {
+        this.treeReader = objectMapper.readerFor(JsonNode.class);
+    }
+
+    public void process(String body, String messageId, Context context) {
+        process((CharSequence) body, messageId, context);
+    }
+
+    /**
+     * Caminho sem cópia do corpo: um {@link CharBuffer} com array (como os do {@link SqsEventParser}) é lido
+     * pelo Jackson no próprio array, sem gerar uma String.
+     */
+    public void process(CharSequence body, String messageId, Context context) {
+        if (isJson(body)) {
+            processBusinessLogic(parse(body, messageId), messageId, context);
+        } else {
+            processTextMessage(body, messageId);
+        }
+    }
+
+    /**
+     * Exercita parse e leitura dos campos de cada tipo sem executar a lógica de negócio, para que classes,
+     * deserializers e buffers do Jackson já estejam carregados antes da primeira mensagem.
+     */
+    public void prime() {
+        for (String sample : PRIMING_MESSAGES) {
+            parse(CharBuffer.wrap(sample.toCharArray()), "priming");
+            JsonNode jsonNode = parse(sample, "priming");
+            jsonNode.path("type").asText();
+            jsonNode.path("orderId").asText();
+            jsonNode.path("amount").decimalValue();
+            jsonNode.path("fields").fieldNames().forEachRemaining(name -> { });
+        }
+    }
+
+    private JsonNode parse(CharSequence body, String messageId) {
+        try {
+            if (body instanceof CharBuffer buffer && buffer.hasArray()) {
+                try (JsonParser parser = treeReader.createParser(buffer.array(),
+                        buffer.arrayOffset() + buffer.position(), buffer.remaining())) {
+                    return treeReader.readTree(parser);
+                }
+            }
+            return treeReader.readTree(body.toString());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Mensagem JSON inválida: " + messageId, e);
+        }
+    }
+
+    private static boolean isJson(CharSequence body) {
+        for (int i = 0; i < body.length(); i++) {
+            char c = body.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+
+    private void processBusinessLogic(JsonNode jsonNode, String messageId, Context context) {
+        if (jsonNode.has("type")) {
+            String messageType = jsonNode.get("type").asText();
+
+            switch (messageType) {
+                case "ORDER" -> processOrder(jsonNode, messageId);
+                case "NOTIFICATION" -> processNotification(jsonNode, messageId);
+                case "UPDATE" -> processUpdate(jsonNode, messageId);
+                default -> logger.warn("Tipo de mensagem desconhecido {}: {}", messageType, messageId);
+            }
+        } else {
+            logger.warn("Mensagem JSON sem campo type: {}", messageId);
+        }
+    }
+
+    private void processOrder(JsonNode jsonNode, String messageId) {
+        logger.info("Processando pedido {} (valor {}) da mensagem {}",
+                    jsonNode.path("orderId").asText(), jsonNode.path("amount").decimalValue(), messageId);
+        // Lógica de negócio para pedidos
+    }
+
+    private void processNotification(JsonNode jsonNode, String messageId) {
+        logger.info("Processando notificação da mensagem {}: {}", messageId, jsonNode.path("message").asText());
+        // Lógica de negócio para notificações
+    }
+
+    private void processUpdate(JsonNode jsonNode, String messageId) {
+        logger.info("Processando atualização da entidade {} da mensagem {}",
+                    jsonNode.path("entityId").asText(), messageId);
+        // Lógica de negócio para atualizações
+    }
+
+    private void processTextMessage(CharSequence body, String messageId) {
+        logger.info("Processando mensagem de texto {} ({} caracteres)", messageId, body.length());
+        // Lógica de negócio para mensagens de texto
+    }
+}
@@ -2,77 +2,266 @@ package br.com.tiagoiwamoto.lambda;
 
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
 
 /**
  * Lambda handler para processar mensagens do AWS SQS
  * Configurado para compilação nativa com GraalVM
+ * <p>
+ * Devolve as mensagens com falha em {@code batchItemFailures} (exige {@code ReportBatchItemFailures} no
+ * event source mapping), então só elas voltam para a fila. Com {@code SQS_PARALLEL_PROCESSING=true} as mensagens
+ * são processadas em virtual threads, mantendo a ordem dentro de cada {@code MessageGroupId} de filas FIFO.
  */
-public class SqsEventHandler implements RequestHandler<SQSEvent, Void> {
+public class SqsEventHandler implements RequestHandler<SQSEvent, SQSBatchResponse> {
+
+    static final String PARALLEL_ENV = "SQS_PARALLEL_PROCESSING";
 
     private static final Logger logger = LoggerFactory.getLogger(SqsEventHandler.class);
     private final ObjectMapper objectMapper;
     private final MessageProcessor messageProcessor;
+    private final boolean parallel;
+    private final HandlerLog log;
+    private final Idempotency idempotency;
+    private final LambdaPriming priming;
 
     public SqsEventHandler() {
-        this.objectMapper = new ObjectMapper();
-        this.messageProcessor = new MessageProcessor();
+        this(new ObjectMapper(), Boolean.parseBoolean(System.getenv(PARALLEL_ENV)),
+             LambdaPriming.Mode.from(System.getenv(LambdaPriming.MODE_ENV)));
+    }
+
+    private SqsEventHandler(ObjectMapper objectMapper, boolean parallel, LambdaPriming.Mode primingMode) {
+        this(objectMapper, new MessageProcessor(objectMapper), parallel, primingMode, HandlerLog.fromEnv(),
+             Idempotency.fromEnv());
+    }
+
+    SqsEventHandler(MessageProcessor messageProcessor, boolean parallel) {
+        this(messageProcessor, parallel, new HandlerLog(HandlerLog.Mode.VERBOSE, 0));
+    }
+
+    SqsEventHandler(MessageProcessor messageProcessor, boolean parallel, HandlerLog log) {
+        this(messageProcessor, parallel, log, Idempotency.disabled());
+    }
+
+    SqsEventHandler(MessageProcessor messageProcessor, boolean parallel, HandlerLog log, Idempotency idempotency) {
+        this(new ObjectMapper(), messageProcessor, parallel, LambdaPriming.Mode.NONE, log, idempotency);
+    }
+
+    SqsEventHandler(ObjectMapper objectMapper, MessageProcessor messageProcessor, boolean parallel,
+                    LambdaPriming.Mode primingMode, HandlerLog log, Idempotency idempotency) {
+        this.objectMapper = objectMapper;
+        this.messageProcessor = messageProcessor;
+        this.parallel = parallel;
+        this.log = log;
+        this.idempotency = idempotency;
+        this.priming = new LambdaPriming(primingMode, this::prime);
+        this.priming.onInit();
     }
 
     @Override
-    public Void handleRequest(SQSEvent event, Context context) {
-        logger.info("Recebendo evento SQS com {} mensagens", event.getRecords().size());
+    public SQSBatchResponse handleRequest(SQSEvent event, Context context) {
+        List<SqsRecord> records = event.getRecords().stream().map(SqsRecord::from).toList();
+        List<BatchItemFailure> batchItemFailures = handleRecords(records, context).stream()
+            .map(BatchItemFailure::new)
+            .toList();
+        return new SQSBatchResponse(batchItemFailures);
+    }
 
-        List<String> processedMessages = new ArrayList<>();
-        List<String> failedMessages = new ArrayList<>();
+    /**
+     * Processa as mensagens e devolve os ids com falha na ordem do evento. Comum ao runtime gerenciado
+     * ({@link #handleRequest}) e ao {@link LambdaRuntime}.
+     */
+    List<String> handleRecords(List<SqsRecord> records, Context context) {
+        long start = System.nanoTime();
+        long duplicatesBefore = idempotency.duplicates();
+        log.eventReceived(records.size());
 
-        for (SQSMessage message : event.getRecords()) {
-            try {
-                processMessage(message, context);
-                processedMessages.add(message.getMessageId());
-                logger.info("Mensagem processada com sucesso: {}", message.getMessageId());
-            } catch (Exception e) {
-                failedMessages.add(message.getMessageId());
-                logger.error("Erro ao processar mensagem: {}", message.getMessageId(), e);
-                // Em produção, considere enviar para uma DLQ (Dead Letter Queue)
+        boolean[] failed = new boolean[records.size()];
+        if (parallel) {
+            processParallel(records, failed, context);
+        } else {
+            processInOrder(records, IntStream.range(0, records.size()).toArray(), failed, context);
+        }
+
+        List<String> failedMessageIds = List.of();
+        for (int i = 0; i < failed.length; i++) {
+            if (failed[i]) {
+                if (failedMessageIds.isEmpty()) {
+                    failedMessageIds = new ArrayList<>();
+                }
+                failedMessageIds.add(records.get(i).messageId());
             }
         }
 
-        logger.info("Processamento concluído - Sucesso: {}, Falhas: {}",
-                    processedMessages.size(), failedMessages.size());
+        log.eventCompleted(records.size(), failedMessageIds.size(), idempotency.duplicates() - duplicatesBefore,
+                           System.nanoTime() - start);
+
+        return failedMessageIds;
+    }
+
+    /**
+     * Uma virtual thread por MessageGroupId (mensagens do grupo em sequência) e uma por mensagem sem grupo.
+     */
+    private void processParallel(List<SqsRecord> records, boolean[] failed, Context context) {
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        List<int[]> tasks = new ArrayList<>();
+        for (int i = 0; i < records.size(); i++) {
+            String groupId = records.get(i).messageGroupId();
+            if (groupId == null) {
+                tasks.add(new int[]{i});
+            } else {
+                groups.computeIfAbsent(groupId, key -> new ArrayList<>()).add(i);
+            }
+        }
+        for (List<Integer> group : groups.values()) {
+            tasks.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (int[] indexes : tasks) {
+                futures.add(executor.submit(() -> processInOrder(records, indexes, failed, context)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Processamento interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro inesperado no processamento paralelo", e.getCause());
+        }
+    }
 
-        return null;
+    /**
+     * Processa as mensagens na ordem dada. Em filas FIFO, depois de uma falha as mensagens seguintes do mesmo
+     * grupo também são devolvidas sem processar, senão seriam entregues fora de ordem.
+     */
+    private void processInOrder(List<SqsRecord> records, int[] indexes, boolean[] failed, Context context) {
+        Set<String> failedGroups = null;
+        for (int index : indexes) {
+            SqsRecord message = records.get(index);
+            String groupId = message.messageGroupId();
+            if (groupId != null && failedGroups != null && failedGroups.contains(groupId)) {
+                failed[index] = true;
+                continue;
+            }
+            try {
+                if (processMessage(message, context)) {
+                    log.recordProcessed(message);
+                }
+            } catch (Exception e) {
+                failed[index] = true;
+                if (groupId != null) {
+                    if (failedGroups == null) {
+                        failedGroups = new HashSet<>();
+                    }
+                    failedGroups.add(groupId);
+                }
+                log.recordFailed(message, e);
+            }
+        }
     }
 
-    private void processMessage(SQSMessage message, Context context) {
-        String messageBody = message.getBody();
-        String messageId = message.getMessageId();
+    /**
+     * Carrega e inicializa o que a primeira invocação usaria: parse Jackson de cada tipo de mensagem, o modelo
+     * de resposta e, no modo paralelo, o scheduler de virtual threads. Não executa lógica de negócio.
+     */
+    private void prime() {
+        messageProcessor.prime();
+        new SQSBatchResponse(List.of(new BatchItemFailure("priming"))).getBatchItemFailures();
+        if (parallel) {
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                executor.submit(() -> new SqsRecord("priming", "", Map.of()).messageGroupId()).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.warn("Falha no priming de virtual threads", e.getCause());
+            }
+        }
+    }
 
-        logger.info("Processando mensagem ID: {}", messageId);
-        logger.debug("Corpo da mensagem: {}", messageBody);
+    /**
+     * Processa a mensagem; devolve false se ela foi descartada como duplicada.
+     */
+    private boolean processMessage(SqsRecord message, Context context) {
+        String key = idempotency.key(message);
+        if (key != null && idempotency.isDuplicate(key)) {
+            log.recordSkipped(message);
+            return false;
+        }
+        log.recordStarted(message);
 
-        // Obter atributos da mensagem
-        message.getAttributes().forEach((key, value) ->
-            logger.debug("Atributo {}: {}", key, value)
-        );
+        // Processar a mensagem; o corpo pode ser uma fatia do buffer do evento (runtime customizado)
+        messageProcessor.process(message.body(), message.messageId(), context);
 
-        // Processar a mensagem
-        messageProcessor.process(messageBody, messageId, context);
+        if (key != null) {
+            idempotency.markProcessed(key);
+        }
+        return true;
     }
 
     /**
-     * Main method para testes locais (não usado no Lambda)
+     * Entrada do executável nativo: com {@code AWS_LAMBDA_RUNTIME_API} definida (runtime {@code provided.al2})
+     * inicia o {@link LambdaRuntime}. Fora do Lambda mede o init do handler e a latência da primeira invocação
+     * no modo de priming de {@code LAMBDA_PRIMING}, na JVM ou no executável nativo.
      */
     public static void main(String[] args) {
-        logger.info("SQS Lambda Handler inicializado");
-        logger.info("Esta função deve ser executada no AWS Lambda");
+        String runtimeApi = System.getenv(LambdaRuntime.RUNTIME_API_ENV);
+        if (runtimeApi != null) {
+            LambdaRuntime.start(runtimeApi);
+            return;
+        }
+
+        long start = System.nanoTime();
+        SqsEventHandler handler = new SqsEventHandler();
+        long initNanos = System.nanoTime() - start;
+        long sinceProcessStart = ProcessHandle.current().info().startInstant()
+            .map(instant -> Duration.between(instant, Instant.now()).toMillis())
+            .orElse(-1L);
+
+        start = System.nanoTime();
+        handler.handleRequest(localEvent("first"), null);
+        long firstInvokeNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        handler.handleRequest(localEvent("second"), null);
+        long secondInvokeNanos = System.nanoTime() - start;
+
+        System.out.printf(Locale.ROOT, "cold-start priming=%s init=%.2fms startup=%dms firstInvoke=%.2fms secondInvoke=%.2fms%n",
+            handler.priming.mode().name().toLowerCase(Locale.ROOT), initNanos / 1e6, sinceProcessStart,
+            firstInvokeNanos / 1e6, secondInvokeNanos / 1e6);
     }
-}
 
+    private static SQSEvent localEvent(String prefix) {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(MessageProcessor.PRIMING_MESSAGES.stream().map(body -> {
+            SQSMessage message = new SQSMessage();
+            // ids distintos por invocação para a idempotência não descartar a segunda
+            message.setMessageId(prefix + "-" + body.hashCode());
+            message.setBody(body);
+            message.setAttributes(Map.of());
+            return message;
+        }).toList());
+        return event;
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.tiagoiwamoto.lambda;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lê o evento SQS com o parser de streaming do Jackson direto em {@link SqsRecord}, sem data binding nem
+ * reflexão, e escreve a resposta {@code batchItemFailures}. Campos não usados são pulados.
+ * <p>
+ * Os corpos são copiados do buffer do parser para um único {@code char[]} por evento e expostos como
+ * {@link CharBuffer}: nenhuma String por corpo, e o {@link MessageProcessor} lê o JSON direto desse array.
+ */
+final class SqsEventParser {
+
+    private final JsonFactory jsonFactory;
+
+    SqsEventParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    List<SqsRecord> parse(InputStream in) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Evento SQS deve ser um objeto JSON");
+            }
+            BodyBuffer bodies = new BodyBuffer();
+            List<PendingRecord> pending = new ArrayList<>();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("Records".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        pending.add(parseRecord(parser, bodies));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            // As fatias só são criadas no fim: o array ainda pode ser realocado durante o parse
+            List<SqsRecord> records = new ArrayList<>(pending.size());
+            for (PendingRecord record : pending) {
+                records.add(new SqsRecord(record.messageId(), bodies.slice(record.bodyOffset(), record.bodyLength()),
+                                          record.attributes()));
+            }
+            return records;
+        }
+    }
+
+    byte[] writeBatchResponse(List<String> failedMessageIds) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(32 + 48 * failedMessageIds.size());
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("batchItemFailures");
+            for (String messageId : failedMessageIds) {
+                generator.writeStartObject();
+                generator.writeStringField("itemIdentifier", messageId);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private static PendingRecord parseRecord(JsonParser parser, BodyBuffer bodies) throws IOException {
+        String messageId = null;
+        int bodyOffset = -1;
+        int bodyLength = 0;
+        Map<String, String> attributes = Map.of();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "messageId" -> messageId = parser.getValueAsString();
+                case "body" -> {
+                    if (value == JsonToken.VALUE_STRING) {
+                        bodyLength = parser.getTextLength();
+                        bodyOffset = bodies.append(parser.getTextCharacters(), parser.getTextOffset(), bodyLength);
+                    }
+                }
+                case "attributes" -> attributes = value == JsonToken.START_OBJECT ? parseAttributes(parser) : Map.of();
+                default -> parser.skipChildren();
+            }
+        }
+        return new PendingRecord(messageId, bodyOffset, bodyLength, attributes);
+    }
+
+    private static Map<String, String> parseAttributes(JsonParser parser) throws IOException {
+        Map<String, String> attributes = new HashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            attributes.put(name, parser.getValueAsString());
+            parser.skipChildren();
+        }
+        return attributes;
+    }
+
+    private record PendingRecord(String messageId, int bodyOffset, int bodyLength, Map<String, String> attributes) {
+    }
+
+    private static final class BodyBuffer {
+
+        private char[] chars = new char[4096];
+        private int length;
+
+        int append(char[] source, int offset, int count) {
+            if (length + count > chars.length) {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + count));
+            }
+            System.arraycopy(source, offset, chars, length, count);
+            int start = length;
+            length += count;
+            return start;
+        }
+
+        CharBuffer slice(int offset, int count) {
+            return offset < 0 ? null : CharBuffer.wrap(chars, offset, count).slice();
+        }
+    }
+}
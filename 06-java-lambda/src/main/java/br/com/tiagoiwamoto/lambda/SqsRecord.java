@@ -0,0 +1,24 @@
+package br.com.tiagoiwamoto.lambda;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+
+import java.util.Map;
+
+/**
+ * Mensagem SQS com apenas o que o handler usa. O runtime customizado preenche direto do JSON do evento, com o
+ * corpo como fatia ({@link java.nio.CharBuffer}) do buffer de corpos do evento; no runtime gerenciado vem de um
+ * {@link SQSMessage}.
+ */
+record SqsRecord(String messageId, CharSequence body, Map<String, String> attributes) {
+
+    static final String MESSAGE_GROUP_ID = "MessageGroupId";
+
+    static SqsRecord from(SQSMessage message) {
+        Map<String, String> attributes = message.getAttributes();
+        return new SqsRecord(message.getMessageId(), message.getBody(), attributes == null ? Map.of() : attributes);
+    }
+
+    String messageGroupId() {
+        return attributes.get(MESSAGE_GROUP_ID);
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.tiagoiwamoto.lambda;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Executa o main do handler em um processo novo por modo de priming e imprime init e latência da primeira
+ * invocação. O executável nativo é medido quando {@code -Dnative.binary=target/sqs-lambda-handler} aponta
+ * para um build existente. O modo {@code checkpoint} fica de fora: sem um checkpoint e restore do CRaC ele mede o
+ * mesmo que {@code none}.
+ */
+@Tag("benchmark")
+class ColdStartHarnessTest {
+
+    @ParameterizedTest(name = "JVM, priming={0}")
+    @ValueSource(strings = {"none", "init"})
+    @DisplayName("Mede o cold start na JVM por modo de priming")
+    void measureJvm(String mode) throws Exception {
+        // Arrange
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        List<String> command = List.of(java, "-cp", System.getProperty("java.class.path"),
+            SqsEventHandler.class.getName());
+
+        // Act
+        String report = run(command, mode);
+
+        // Assert
+        assertTrue(report.startsWith("cold-start priming=" + mode), report);
+        System.out.println("jvm " + report);
+    }
+
+    @Test
+    @DisplayName("Mede o cold start do executável nativo")
+    void measureNative() throws Exception {
+        // Arrange
+        String binary = System.getProperty("native.binary");
+        assumeTrue(binary != null && Files.isExecutable(Path.of(binary)), "native.binary não informado");
+
+        for (String mode : List.of("none", "init")) {
+            // Act
+            String report = run(List.of(binary), mode);
+
+            // Assert
+            assertTrue(report.startsWith("cold-start priming=" + mode), report);
+            System.out.println("native " + report);
+        }
+    }
+
+    private static String run(List<String> command, String mode) throws IOException, InterruptedException {
+        ProcessBuilder builder = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().put(LambdaPriming.MODE_ENV, mode);
+        Process process = builder.start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(process.waitFor(1, TimeUnit.MINUTES));
+        assertEquals(0, process.exitValue(), output);
+        return output.lines().filter(line -> line.startsWith("cold-start")).findFirst().orElse(output);
+    }
+}
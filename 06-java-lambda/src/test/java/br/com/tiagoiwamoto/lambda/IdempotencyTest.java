@@ -0,0 +1,175 @@
+package br.com.tiagoiwamoto.lambda;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.CharBuffer;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testes da camada de idempotência e medição do tempo economizado com reentregas.
+ */
+class IdempotencyTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("Deve descartar messageId já processado até o TTL expirar")
+    void testTtlExpiry() {
+        // Arrange
+        Idempotency idempotency = new Idempotency(Idempotency.Key.MESSAGE_ID, 100, TTL, null, clock::get);
+        idempotency.markProcessed("msg-1");
+
+        // Act & Assert
+        assertTrue(idempotency.isDuplicate("msg-1"));
+        assertFalse(idempotency.isDuplicate("msg-2"));
+        clock.addAndGet(TTL.toMillis());
+        assertFalse(idempotency.isDuplicate("msg-1"));
+        assertEquals(1, idempotency.duplicates());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o LRU e recorrer ao store persistente")
+    void testLruEvictionFallsBackToStore() throws Exception {
+        // Arrange
+        try (FileIdempotencyStore store = new FileIdempotencyStore(dir.resolve("keys.log"), clock::get)) {
+            Idempotency withStore = new Idempotency(Idempotency.Key.MESSAGE_ID, 2, TTL, store, clock::get);
+            Idempotency memoryOnly = new Idempotency(Idempotency.Key.MESSAGE_ID, 2, TTL, null, clock::get);
+            for (String key : List.of("msg-1", "msg-2", "msg-3")) {
+                withStore.markProcessed(key);
+                memoryOnly.markProcessed(key);
+            }
+
+            // Act & Assert
+            assertFalse(memoryOnly.isDuplicate("msg-1"));
+            assertTrue(withStore.isDuplicate("msg-1"));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve recarregar chaves do arquivo e descartar as expiradas")
+    void testFileStoreReload() throws Exception {
+        // Arrange
+        Path file = dir.resolve("keys.log");
+        try (FileIdempotencyStore store = new FileIdempotencyStore(file, clock::get)) {
+            store.put("expira", clock.get() + 10);
+            store.put("valida", clock.get() + TTL.toMillis());
+        }
+        clock.addAndGet(10);
+
+        // Act
+        try (FileIdempotencyStore reopened = new FileIdempotencyStore(file, clock::get)) {
+
+            // Assert
+            assertEquals(0, reopened.expiresAt("expira"));
+            assertEquals(clock.get() - 10 + TTL.toMillis(), reopened.expiresAt("valida"));
+        }
+    }
+
+    @Test
+    @DisplayName("Deve usar o hash do corpo como chave")
+    void testBodyHashKey() {
+        // Arrange
+        Idempotency idempotency = new Idempotency(Idempotency.Key.BODY_HASH, 100, TTL, null, clock::get);
+
+        // Act
+        String first = idempotency.key(new SqsRecord("msg-1", "{\"orderId\":\"1\"}", Map.of()));
+        String sameBody = idempotency.key(new SqsRecord("msg-2", CharBuffer.wrap("{\"orderId\":\"1\"}"), Map.of()));
+        String otherBody = idempotency.key(new SqsRecord("msg-3", "{\"orderId\":\"2\"}", Map.of()));
+
+        // Assert
+        assertEquals(first, sameBody);
+        assertNotEquals(first, otherBody);
+    }
+
+    @Test
+    @DisplayName("Não deve marcar mensagens com falha como processadas")
+    void testFailedMessagesAreRetried() {
+        // Arrange
+        SqsEventHandlerTest.RecordingProcessor processor = new SqsEventHandlerTest.RecordingProcessor(0);
+        Idempotency idempotency = new Idempotency(Idempotency.Key.MESSAGE_ID, 100, TTL, null, clock::get);
+        SqsEventHandler handler = new SqsEventHandler(processor, false,
+            new HandlerLog(HandlerLog.Mode.STRUCTURED, 0), idempotency);
+        SQSEvent event = event(List.of(message("msg-1", "ok"), message("msg-2", "fail")));
+
+        // Act
+        handler.handleRequest(event, null);
+        var redelivery = handler.handleRequest(event, null);
+
+        // Assert
+        assertEquals(List.of("msg-1", "msg-2", "msg-2"), List.copyOf(processor.processed));
+        assertEquals(1, redelivery.getBatchItemFailures().size());
+        assertEquals(1, idempotency.duplicates());
+    }
+
+    /**
+     * Segunda invocação com uma fração de reentregas da primeira, 1 ms de I/O simulado por mensagem, com e sem
+     * idempotência.
+     */
+    @ParameterizedTest(name = "{0}% de duplicadas")
+    @ValueSource(ints = {1, 5, 20})
+    @Tag("benchmark")
+    @DisplayName("Mede o tempo economizado por taxa de duplicadas")
+    void measureSavedTime(int duplicatePercent) {
+        // Arrange
+        int size = 1_000;
+        int redelivered = size * duplicatePercent / 100;
+        List<SQSMessage> first = new ArrayList<>();
+        List<SQSMessage> second = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            first.add(message("first-" + i, "{\"type\":\"ORDER\",\"orderId\":\"" + i + "\"}"));
+            second.add(i < redelivered ? first.get(i) : message("second-" + i, "{\"type\":\"ORDER\",\"orderId\":\"" + i + "\"}"));
+        }
+
+        // Act
+        long without = secondInvocationNanos(Idempotency.disabled(), first, second);
+        Idempotency idempotency = new Idempotency(Idempotency.Key.MESSAGE_ID, 10_000, TTL, null, clock::get);
+        long with = secondInvocationNanos(idempotency, first, second);
+
+        // Assert
+        assertEquals(redelivered, idempotency.duplicates());
+        System.out.printf("%d%% duplicadas: %.1f ms sem idempotência, %.1f ms com (%.1f%% economizado)%n",
+            duplicatePercent, without / 1e6, with / 1e6, 100.0 * (without - with) / without);
+    }
+
+    private static long secondInvocationNanos(Idempotency idempotency, List<SQSMessage> first, List<SQSMessage> second) {
+        SqsEventHandler handler = new SqsEventHandler(new SqsEventHandlerTest.RecordingProcessor(1), false,
+            new HandlerLog(HandlerLog.Mode.STRUCTURED, 0), idempotency);
+        handler.handleRequest(event(first), null);
+        long start = System.nanoTime();
+        handler.handleRequest(event(second), null);
+        return System.nanoTime() - start;
+    }
+
+    private static SQSEvent event(List<SQSMessage> messages) {
+        SQSEvent event = new SQSEvent();
+        event.setRecords(messages);
+        return event;
+    }
+
+    private static SQSMessage message(String messageId, String body) {
+        SQSMessage message = new SQSMessage();
+        message.setMessageId(messageId);
+        message.setBody(body);
+        message.setAttributes(Map.of());
+        return message;
+    }
+}
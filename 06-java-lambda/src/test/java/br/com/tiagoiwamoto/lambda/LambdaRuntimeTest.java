@@ -0,0 +1,240 @@
+package br.com.tiagoiwamoto.lambda;
+
+import com.amazonaws.services.lambda.runtime.events.SQSEvent;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Exercita o {@link LambdaRuntime} contra um stub local do Runtime API e compara o caminho de streaming com o
+ * data binding do modelo {@link SQSEvent}.
+ */
+class LambdaRuntimeTest {
+
+    private static final String EVENT = """
+        {"Records":[
+          {"messageId":"msg-1","receiptHandle":"rh-1","body":"{\\"type\\":\\"ORDER\\",\\"orderId\\":\\"1\\"}",
+           "attributes":{"ApproximateReceiveCount":"1","MessageGroupId":"g1"},
+           "messageAttributes":{"origem":{"stringValue":"teste","dataType":"String","stringListValues":[]}},
+           "md5OfBody":"x","eventSource":"aws:sqs","eventSourceARN":"arn:aws:sqs:us-east-1:123456789012:q",
+           "awsRegion":"us-east-1"},
+          {"messageId":"msg-2","receiptHandle":"rh-2","body":"{invalido","attributes":{}}
+        ]}""";
+
+    private final BlockingQueue<byte[]> events = new LinkedBlockingQueue<>();
+    private final Map<String, String> responses = new ConcurrentHashMap<>();
+    private final Map<String, String> errors = new ConcurrentHashMap<>();
+    private final Semaphore completed = new Semaphore(0);
+    private final AtomicInteger requestIds = new AtomicInteger();
+
+    private HttpServer server;
+    private LambdaRuntime runtime;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/2018-06-01/runtime/invocation/", exchange -> {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                if (path.endsWith("/next")) {
+                    byte[] event = events.poll(30, TimeUnit.SECONDS);
+                    if (event == null) {
+                        exchange.sendResponseHeaders(500, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", "req-" + requestIds.incrementAndGet());
+                    exchange.getResponseHeaders().add("Lambda-Runtime-Deadline-Ms", String.valueOf(System.currentTimeMillis() + 60_000));
+                    exchange.getResponseHeaders().add("Lambda-Runtime-Invoked-Function-Arn", "arn:aws:lambda:us-east-1:123456789012:function:test");
+                    exchange.sendResponseHeaders(200, event.length);
+                    exchange.getResponseBody().write(event);
+                    return;
+                }
+                String requestId = path.split("/")[4];
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                (path.endsWith("/error") ? errors : responses).put(requestId, body);
+                exchange.sendResponseHeaders(202, -1);
+                completed.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+        runtime = new LambdaRuntime("localhost:" + server.getAddress().getPort(), newHandler(), new JsonFactory());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Deve ler o evento por streaming e ignorar campos não usados")
+    void testStreamingParse() throws Exception {
+        // Act
+        List<SqsRecord> records = new SqsEventParser(new JsonFactory())
+            .parse(new ByteArrayInputStream(EVENT.getBytes(StandardCharsets.UTF_8)));
+
+        // Assert
+        assertEquals(2, records.size());
+        assertEquals("msg-1", records.get(0).messageId());
+        assertEquals("{\"type\":\"ORDER\",\"orderId\":\"1\"}", records.get(0).body().toString());
+        assertEquals("g1", records.get(0).messageGroupId());
+        assertEquals(Map.of(), records.get(1).attributes());
+    }
+
+    @Test
+    @DisplayName("Deve responder ao Runtime API com batchItemFailures")
+    void testRuntimeResponse() {
+        // Arrange
+        events.add(EVENT.getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        runtime.processNext();
+
+        // Assert
+        assertEquals("{\"batchItemFailures\":[{\"itemIdentifier\":\"msg-2\"}]}", responses.get("req-1"));
+    }
+
+    @Test
+    @DisplayName("Deve reportar evento inválido em /error")
+    void testInvocationError() {
+        // Arrange
+        events.add("[]".getBytes(StandardCharsets.UTF_8));
+
+        // Act
+        runtime.processNext();
+
+        // Assert
+        assertTrue(errors.get("req-1").contains("\"errorType\":\"com.fasterxml.jackson.core.JsonParseException\""),
+            errors.get("req-1"));
+    }
+
+    /**
+     * Compara, com os mesmos bytes, o parse por streaming com o data binding de {@link SQSEvent} que o runtime
+     * gerenciado faz por reflexão, e mede a latência por evento do loop contra o stub. Usa o log structured para
+     * a falha do segundo registro não despejar um stack trace por iteração.
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Mede a latência por evento do runtime customizado")
+    void measurePerEventLatency() throws Exception {
+        // Arrange
+        int rounds = 2_000;
+        byte[] event = EVENT.getBytes(StandardCharsets.UTF_8);
+        SqsEventHandler handler = newHandler(new HandlerLog(HandlerLog.Mode.STRUCTURED, 0));
+        LambdaRuntime runtime = new LambdaRuntime("localhost:" + server.getAddress().getPort(), handler,
+                                                  new JsonFactory());
+        SqsEventParser parser = new SqsEventParser(new JsonFactory());
+        ObjectMapper modelMapper = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+        for (int i = 0; i < rounds; i++) {
+            handler.handleRecords(parser.parse(new ByteArrayInputStream(event)), null);
+            handler.handleRequest(modelMapper.readValue(event, SQSEvent.class), null);
+        }
+
+        // Act
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            handler.handleRecords(parser.parse(new ByteArrayInputStream(event)), null);
+        }
+        double streamingMicros = (System.nanoTime() - start) / 1e3 / rounds;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            handler.handleRequest(modelMapper.readValue(event, SQSEvent.class), null);
+        }
+        double modelMicros = (System.nanoTime() - start) / 1e3 / rounds;
+
+        start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            events.add(event);
+            runtime.processNext();
+        }
+        double loopMicros = (System.nanoTime() - start) / 1e3 / rounds;
+
+        // Assert
+        assertEquals(rounds, responses.size());
+        System.out.printf("por evento: streaming %.1f µs, SQSEvent %.1f µs, loop com stub %.1f µs%n",
+            streamingMicros, modelMicros, loopMicros);
+    }
+
+    /**
+     * Com {@code -Dnative.binary=target/sqs-lambda-handler}, roda o executável contra o stub e reporta
+     * tamanho do binário, RSS após os eventos e latência por evento.
+     */
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Mede binário, RSS e latência do executável nativo")
+    void measureNativeBinary() throws Exception {
+        // Arrange
+        String binary = System.getProperty("native.binary");
+        assumeTrue(binary != null && Files.isExecutable(Path.of(binary)), "native.binary não informado");
+        int rounds = 1_000;
+        ProcessBuilder builder = new ProcessBuilder(binary)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD);
+        builder.environment().put(LambdaRuntime.RUNTIME_API_ENV, "localhost:" + server.getAddress().getPort());
+        // O mesmo evento é reenviado; sem isso as reentregas seriam descartadas como duplicadas
+        builder.environment().put(Idempotency.KEY_ENV, "none");
+        Process process = builder.start();
+        try {
+            // Act
+            long start = System.nanoTime();
+            for (int i = 0; i < rounds; i++) {
+                events.add(EVENT.getBytes(StandardCharsets.UTF_8));
+            }
+            assertTrue(completed.tryAcquire(rounds, 1, TimeUnit.MINUTES));
+            double loopMicros = (System.nanoTime() - start) / 1e3 / rounds;
+            String rss = Files.readAllLines(Path.of("/proc", String.valueOf(process.pid()), "status")).stream()
+                .filter(line -> line.startsWith("VmRSS"))
+                .findFirst()
+                .orElse("VmRSS: ?");
+
+            // Assert
+            assertEquals(rounds, responses.size());
+            System.out.printf("nativo: binário %.1f MB, %s, %.1f µs por evento%n",
+                Files.size(Path.of(binary)) / 1e6, rss.replaceAll("\\s+", " "), loopMicros);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    private static SqsEventHandler newHandler() {
+        return new SqsEventHandler(new MessageProcessor(), false);
+    }
+
+    private static SqsEventHandler newHandler(HandlerLog log) {
+        return new SqsEventHandler(new MessageProcessor(), false, log);
+    }
+}
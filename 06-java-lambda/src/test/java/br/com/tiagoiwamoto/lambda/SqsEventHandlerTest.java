@@ -1,16 +1,34 @@
 package br.com.tiagoiwamoto.lambda;
 
 import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse;
+import com.amazonaws.services.lambda.runtime.events.SQSBatchResponse.BatchItemFailure;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent;
 import com.amazonaws.services.lambda.runtime.events.SQSEvent.SQSMessage;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.management.ThreadMXBean;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
-
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -110,8 +128,201 @@ class SqsEventHandlerTest {
         assertDoesNotThrow(() -> handler.handleRequest(event, context));
     }
 
+    @ParameterizedTest(name = "paralelo={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Deve devolver apenas as mensagens com falha em batchItemFailures")
+    void testPartialBatchFailure(boolean parallel) {
+        // Arrange
+        RecordingProcessor processor = new RecordingProcessor(0);
+        SqsEventHandler batchHandler = new SqsEventHandler(processor, parallel);
+        SQSEvent event = new SQSEvent();
+        event.setRecords(List.of(
+            createSQSMessage("msg-1", "ok"),
+            createSQSMessage("msg-2", "fail"),
+            createSQSMessage("msg-3", "ok")
+        ));
+
+        // Act
+        SQSBatchResponse response = batchHandler.handleRequest(event, context);
+
+        // Assert
+        assertEquals(List.of("msg-2"), failedIds(response));
+        assertEquals(3, processor.processed.size());
+    }
+
+    @ParameterizedTest(name = "paralelo={0}")
+    @ValueSource(booleans = {false, true})
+    @DisplayName("Deve manter a ordem por MessageGroupId e devolver o restante do grupo após falha")
+    void testFifoGroupOrdering(boolean parallel) {
+        // Arrange
+        RecordingProcessor processor = new RecordingProcessor(1);
+        SqsEventHandler batchHandler = new SqsEventHandler(processor, parallel);
+        List<SQSMessage> messages = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            String group = "g" + (i % 2);
+            String body = "g1".equals(group) && i == 3 ? "fail" : group;
+            messages.add(createFifoMessage("msg-" + i, body, group));
+        }
+        SQSEvent event = new SQSEvent();
+        event.setRecords(messages);
+
+        // Act
+        SQSBatchResponse response = batchHandler.handleRequest(event, context);
+
+        // Assert
+        assertEquals(List.of("msg-3", "msg-5", "msg-7", "msg-9"), failedIds(response));
+        assertEquals(List.of("msg-0", "msg-2", "msg-4", "msg-6", "msg-8"),
+            processor.processed.stream().filter(id -> Integer.parseInt(id.substring(4)) % 2 == 0).toList());
+        assertEquals(List.of("msg-1", "msg-3"),
+            processor.processed.stream().filter(id -> Integer.parseInt(id.substring(4)) % 2 == 1).toList());
+    }
+
+    /**
+     * Duração por invocação com 1 ms de I/O simulado por mensagem; 10 é o lote máximo de filas FIFO e
+     * 10.000 o de filas standard.
+     */
+    @ParameterizedTest(name = "{0} mensagens, paralelo={1}")
+    @CsvSource({"10,false", "10,true", "10000,false", "10000,true"})
+    @DisplayName("Mede a duração da invocação por tamanho de lote")
+    @Tag("benchmark")
+    void measureBatchDuration(int size, boolean parallel) {
+        // Arrange
+        RecordingProcessor processor = new RecordingProcessor(1);
+        SqsEventHandler batchHandler = new SqsEventHandler(processor, parallel);
+        List<SQSMessage> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            messages.add(createSQSMessage("msg-" + i, "{\"type\":\"ORDER\",\"orderId\":\"" + i + "\"}"));
+        }
+        SQSEvent event = new SQSEvent();
+        event.setRecords(messages);
+
+        // Act
+        long start = System.nanoTime();
+        SQSBatchResponse response = batchHandler.handleRequest(event, context);
+        double millis = (System.nanoTime() - start) / 1e6;
+
+        // Assert
+        assertTrue(response.getBatchItemFailures().isEmpty());
+        assertEquals(size, processor.processed.size());
+        System.out.printf("lote de %d mensagens (paralelo=%s): %.1f ms por invocação%n", size, parallel, millis);
+    }
+
+    /**
+     * Duração e bytes alocados por mensagem, por modo de log e caminho do corpo, com os fixtures acima (JSON
+     * com atributos) e o MessageProcessor real. Sequencial, para que toda a alocação fique na thread do teste.
+     * O caminho "buffer" inclui o parse do evento pelo {@link SqsEventParser}; o "string" parte do SQSEvent já
+     * desserializado pelo runtime gerenciado.
+     */
+    @ParameterizedTest(name = "log={0}, corpo={1}")
+    @CsvSource({"verbose,string", "structured,string", "verbose,buffer", "structured,buffer"})
+    @DisplayName("Mede duração e alocação por mensagem")
+    @Tag("benchmark")
+    void measurePerRecordCost(String logMode, String bodyPath) throws Exception {
+        // Arrange
+        int size = 10_000;
+        SqsEventHandler batchHandler = new SqsEventHandler(new MessageProcessor(), false,
+            new HandlerLog(HandlerLog.Mode.from(logMode), 0.01));
+        List<SQSMessage> messages = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            SQSMessage message = createSQSMessage("msg-" + i, "{\"type\":\"ORDER\",\"orderId\":\"" + i + "\",\"amount\":100.00}");
+            Map<String, String> attributes = new HashMap<>();
+            attributes.put("ApproximateReceiveCount", "1");
+            attributes.put("SentTimestamp", "1234567890");
+            message.setAttributes(attributes);
+            messages.add(message);
+        }
+        SQSEvent event = new SQSEvent();
+        event.setRecords(messages);
+        byte[] eventJson = toEventJson(messages);
+        SqsEventParser parser = new SqsEventParser(new JsonFactory());
+        Runnable invoke = "buffer".equals(bodyPath)
+            ? () -> batchHandler.handleRecords(parse(parser, eventJson), context)
+            : () -> batchHandler.handleRequest(event, context);
+        invoke.run();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        // Act
+        long allocatedBefore = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        invoke.run();
+        long nanos = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        // Assert
+        assertTrue(allocated > 0);
+        System.out.printf("log=%s corpo=%s: %.2f µs e %d bytes alocados por mensagem%n",
+            logMode, bodyPath, nanos / 1e3 / size, allocated / size);
+    }
+
     // Helper methods
 
+    private static List<SqsRecord> parse(SqsEventParser parser, byte[] eventJson) {
+        try {
+            return parser.parse(new ByteArrayInputStream(eventJson));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] toEventJson(List<SQSMessage> messages) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new JsonFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("Records");
+            for (SQSMessage message : messages) {
+                generator.writeStartObject();
+                generator.writeStringField("messageId", message.getMessageId());
+                generator.writeStringField("receiptHandle", message.getReceiptHandle());
+                generator.writeStringField("body", message.getBody());
+                generator.writeObjectFieldStart("attributes");
+                for (Map.Entry<String, String> attribute : message.getAttributes().entrySet()) {
+                    generator.writeStringField(attribute.getKey(), attribute.getValue());
+                }
+                generator.writeEndObject();
+                generator.writeStringField("eventSourceARN", message.getEventSourceArn());
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Registra a ordem de processamento, simula I/O e falha mensagens com corpo "fail".
+     */
+    static class RecordingProcessor extends MessageProcessor {
+
+        final Queue<String> processed = new ConcurrentLinkedQueue<>();
+        private final long delayMillis;
+
+        RecordingProcessor(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public void process(CharSequence body, String messageId, Context context) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(delayMillis));
+            processed.add(messageId);
+            if ("fail".contentEquals(body)) {
+                throw new IllegalStateException("falha simulada");
+            }
+        }
+    }
+
+    private static List<String> failedIds(SQSBatchResponse response) {
+        return response.getBatchItemFailures().stream().map(BatchItemFailure::getItemIdentifier).toList();
+    }
+
+    private SQSMessage createFifoMessage(String messageId, String body, String groupId) {
+        SQSMessage message = createSQSMessage(messageId, body);
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("MessageGroupId", groupId);
+        message.setAttributes(attributes);
+        return message;
+    }
+
     private SQSEvent createSQSEvent(String messageBody) {
         SQSEvent event = new SQSEvent();
         List<SQSMessage> messages = new ArrayList<>();
@@ -0,0 +1,35 @@
+#!/usr/bin/env bash
+# Gera o AOT cache do JDK 25 (JEP 483/514/515: classes carregadas e linkadas, perfis de método) para um módulo.
+#
+# Uso:
+#   ./scripts/fast-start/aot-cache.sh 01             # treino até o refresh do contexto (não precisa de infra)
+#   TRAINING=requests ./scripts/fast-start/aot-cache.sh 04   # sobe, aquece com requisições e encerra
+#
+# Gera <modulo>/target/fast-start/app.aot; use com java -XX:AOTCache=... -jar target/fast-start/app/<jar>.
+set -euo pipefail
+source "$(dirname "$0")/modulo.sh" "${1:-}"
+
+TRAINING="${TRAINING:-refresh}"
+extract_jar
+rm -f "$AOT_CACHE"
+
+case "$TRAINING" in
+  refresh)
+    # spring.context.exit=onRefresh: cria todos os beans e sai sem iniciar lifecycle (sem conexões externas)
+    java "${JVM_FLAGS[@]}" -XX:AOTCacheOutput="$AOT_CACHE" -Dspring.context.exit=onRefresh \
+      -jar "$EXTRACTED_JAR" --server.port="$PORT"
+    ;;
+  requests)
+    java "${JVM_FLAGS[@]}" -XX:AOTCacheOutput="$AOT_CACHE" -jar "$EXTRACTED_JAR" --server.port="$PORT" &
+    pid=$!
+    wait_first_response || { kill "$pid"; echo "aplicação não respondeu em $URL" >&2; exit 1; }
+    warm_up
+    # O cache é gravado na saída da JVM; SIGTERM passa pelo shutdown normal
+    kill -TERM "$pid"
+    wait "$pid" || true
+    ;;
+  *) echo "treino desconhecido: $TRAINING (refresh ou requests)" >&2; exit 1 ;;
+esac
+
+[[ -f "$AOT_CACHE" ]] || { echo "AOT cache não foi gerado" >&2; exit 1; }
+echo "AOT cache: $AOT_CACHE ($(du -h "$AOT_CACHE" | cut -f1))"
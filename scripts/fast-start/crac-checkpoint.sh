@@ -0,0 +1,37 @@
+#!/usr/bin/env bash
+# Gera um checkpoint CRaC de um módulo. Exige um JDK com CRaC (Azul Zulu ou Liberica "CRaC") e permissão para o
+# CRIU (root ou CAP_CHECKPOINT_RESTORE).
+#
+# Uso:
+#   ./scripts/fast-start/crac-checkpoint.sh 01                # checkpoint automático no refresh do contexto
+#   CHECKPOINT=warm ./scripts/fast-start/crac-checkpoint.sh 01  # aquece com requisições e faz jcmd JDK.checkpoint
+#
+# Restore: java -XX:CRaCRestoreFrom=<modulo>/target/fast-start/crac
+# No checkpoint o Spring para os SmartLifecycle (servidor, pools do WebClient, AwsClientFactory, containers e
+# producers Kafka) e no restore inicia de novo; a porta fica a do checkpoint ($PORT).
+set -euo pipefail
+source "$(dirname "$0")/modulo.sh" "${1:-}"
+
+CHECKPOINT="${CHECKPOINT:-refresh}"
+extract_jar
+rm -rf "$CRAC_DIR"
+
+case "$CHECKPOINT" in
+  refresh)
+    # O processo termina depois de gravar o checkpoint
+    java "${JVM_FLAGS[@]}" -XX:CRaCCheckpointTo="$CRAC_DIR" -Dspring.context.checkpoint=onRefresh \
+      -jar "$EXTRACTED_JAR" --server.port="$PORT" || true
+    ;;
+  warm)
+    java "${JVM_FLAGS[@]}" -XX:CRaCCheckpointTo="$CRAC_DIR" -jar "$EXTRACTED_JAR" --server.port="$PORT" &
+    pid=$!
+    wait_first_response || { kill "$pid"; echo "aplicação não respondeu em $URL" >&2; exit 1; }
+    warm_up
+    jcmd "$pid" JDK.checkpoint
+    wait "$pid" || true
+    ;;
+  *) echo "checkpoint desconhecido: $CHECKPOINT (refresh ou warm)" >&2; exit 1 ;;
+esac
+
+[[ -d "$CRAC_DIR" ]] || { echo "checkpoint não foi gerado" >&2; exit 1; }
+echo "Checkpoint: $CRAC_DIR ($(du -sh "$CRAC_DIR" | cut -f1))"
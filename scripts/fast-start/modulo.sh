@@ -0,0 +1,61 @@
+# Tabela dos módulos Spring usada pelos scripts de fast start. Uso: source modulo.sh <modulo>
+#
+#   MODULE_DIR  diretório do módulo (com pom.xml)
+#   JAR         jar gerado por ./mvnw package
+#   NATIVE      executável gerado por ./mvnw -Pnative native:compile
+#   URL_PATH    primeira requisição medida
+#   JVM_FLAGS   flags obrigatórias do módulo
+#   WORK_DIR    jar extraído, AOT cache e checkpoint CRaC
+
+ROOT_DIR="$(cd "$(dirname "${BASH_SOURCE[0]}")/../.." && pwd)"
+PORT="${PORT:-18080}"
+
+case "${1:-}" in
+  01|01-simple-api)
+    MODULE_DIR="$ROOT_DIR/01-simple-api"; ARTIFACT=01-simple-api
+    URL_PATH=/explore-endpoints; JVM_FLAGS=() ;;
+  03|03-http-calls)
+    MODULE_DIR="$ROOT_DIR/03-http-calls"; ARTIFACT=03-http-calls
+    URL_PATH=/actuator/health; JVM_FLAGS=(--enable-preview) ;;
+  04|04-awsintegration)
+    MODULE_DIR="$ROOT_DIR/04-awsintegration"; ARTIFACT=awsintegration
+    URL_PATH=/actuator/health; JVM_FLAGS=() ;;
+  05|05-kafka-consumer-producer)
+    MODULE_DIR="$ROOT_DIR/05-kafka/05-kafka-consumer-producer"; ARTIFACT=kafka-consumer-producer
+    URL_PATH=/actuator/health; JVM_FLAGS=() ;;
+  *) echo "módulo desconhecido: ${1:-} (01, 03, 04 ou 05)" >&2; exit 1 ;;
+esac
+
+JAR="$MODULE_DIR/target/$ARTIFACT-0.0.1-SNAPSHOT.jar"
+NATIVE="$MODULE_DIR/target/$ARTIFACT"
+WORK_DIR="$MODULE_DIR/target/fast-start"
+EXTRACTED_JAR="$WORK_DIR/app/$ARTIFACT-0.0.1-SNAPSHOT.jar"
+AOT_CACHE="$WORK_DIR/app.aot"
+CRAC_DIR="$WORK_DIR/crac"
+URL="http://localhost:$PORT$URL_PATH"
+
+# Layout extraído (lib/ ao lado do jar): o AOT cache exige classpath de jars simples e idêntico entre treino e uso
+extract_jar() {
+  [[ -f "$JAR" ]] || { echo "jar não encontrado: $JAR (rode ./mvnw package no módulo)" >&2; exit 1; }
+  if [[ ! -f "$EXTRACTED_JAR" || "$JAR" -nt "$EXTRACTED_JAR" ]]; then
+    rm -rf "$WORK_DIR/app"
+    java -Djarmode=tools -jar "$JAR" extract --destination "$WORK_DIR/app" >/dev/null
+  fi
+}
+
+# Espera a primeira resposta HTTP (qualquer status: health DOWN sem broker também conta como servido)
+wait_first_response() {
+  for _ in $(seq 1 1200); do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+    [[ "$code" != "000" ]] && return 0
+    sleep 0.05
+  done
+  return 1
+}
+
+# Requisições de aquecimento para o treino exercitar o caminho da requisição, não só a subida
+warm_up() {
+  for _ in $(seq 1 "${WARMUP_REQUESTS:-500}"); do
+    curl -s -o /dev/null "$URL" || true
+  done
+}
@@ -0,0 +1,51 @@
+#!/usr/bin/env bash
+# Mede o tempo do lançamento do processo até a primeira resposta HTTP, e o RSS nesse momento.
+#
+# Uso:
+#   ./scripts/fast-start/time-to-first-request.sh 01                  # jvm aot crac native
+#   RUNS=10 ./scripts/fast-start/time-to-first-request.sh 04 jvm aot
+#
+# Pré-requisitos por modo:
+#   jvm     ./mvnw package no módulo
+#   aot     ./scripts/fast-start/aot-cache.sh <modulo>
+#   crac    ./scripts/fast-start/crac-checkpoint.sh <modulo> (JDK com CRaC)
+#   native  ./mvnw -Pnative native:compile no módulo (01 e 04 têm o plugin)
+# Modos sem artefato aparecem como n/a. Infra externa (LocalStack, Kafka) não é necessária: a primeira resposta
+# do health conta mesmo com status DOWN.
+set -euo pipefail
+source "$(dirname "$0")/modulo.sh" "${1:-}"
+shift || true
+
+MODES=("$@")
+[[ ${#MODES[@]} -gt 0 ]] || MODES=(jvm aot crac native)
+RUNS="${RUNS:-5}"
+extract_jar
+
+printf "%-6s %-4s %12s %10s\n" mode run ttfr_ms rss_kb
+for mode in "${MODES[@]}"; do
+  case "$mode" in
+    jvm)    CMD=(java "${JVM_FLAGS[@]}" ${JAVA_OPTS:-} -jar "$EXTRACTED_JAR" --server.port="$PORT"); READY="$EXTRACTED_JAR" ;;
+    aot)    CMD=(java "${JVM_FLAGS[@]}" ${JAVA_OPTS:-} -XX:AOTCache="$AOT_CACHE" -jar "$EXTRACTED_JAR" --server.port="$PORT"); READY="$AOT_CACHE" ;;
+    crac)   CMD=(java -XX:CRaCRestoreFrom="$CRAC_DIR"); READY="$CRAC_DIR" ;;
+    native) CMD=("$NATIVE" --server.port="$PORT"); READY="$NATIVE" ;;
+    *) echo "modo desconhecido: $mode" >&2; exit 1 ;;
+  esac
+  if [[ ! -e "$READY" ]]; then
+    printf "%-6s %-4s %12s %10s\n" "$mode" - n/a n/a
+    continue
+  fi
+  for run in $(seq 1 "$RUNS"); do
+    start=$(date +%s%N)
+    "${CMD[@]}" >/dev/null 2>&1 &
+    pid=$!
+    if wait_first_response; then
+      ttfr=$(( ($(date +%s%N) - start) / 1000000 ))
+    else
+      ttfr=n/a
+    fi
+    rss=$(awk '/VmRSS/ {print $2}' /proc/$pid/status 2>/dev/null || echo n/a)
+    printf "%-6s %-4s %12s %10s\n" "$mode" "$run" "$ttfr" "$rss"
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+  done
+done